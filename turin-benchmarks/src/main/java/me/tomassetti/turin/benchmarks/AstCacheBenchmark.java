@@ -0,0 +1,73 @@
+package me.tomassetti.turin.benchmarks;
+
+import com.google.common.io.Files;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.cache.AstCache;
+import me.tomassetti.turin.parser.cache.AstReader;
+import me.tomassetti.turin.parser.cache.AstWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a file compared to loading its AST: from memory, measuring only the reading of the nodes, and from an
+ * AstCache, including reading and hashing the source file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AstCacheBenchmark {
+
+    @Param({"manga.to", "examples/formatter1.to", "synthetic:100", "synthetic:1000"})
+    public String input;
+
+    private byte[] source;
+    private byte[] serialized;
+    private File tmpDir;
+    private File sourceFile;
+    private AstCache astCache;
+    private Parser parser;
+
+    @Setup
+    public void setup() throws IOException {
+        source = BenchmarkResources.load(input);
+        parser = new Parser();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new AstWriter(out).write(parser.parse(new ByteArrayInputStream(source)));
+        serialized = out.toByteArray();
+
+        tmpDir = Files.createTempDir();
+        sourceFile = new File(tmpDir, "source.to");
+        Files.write(source, sourceFile);
+        astCache = new AstCache(new File(tmpDir, "asts"));
+        astCache.parse(sourceFile, parser);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkResources.deleteRecursively(tmpDir);
+    }
+
+    @Benchmark
+    public TurinFile parse() throws IOException {
+        return parser.parse(new ByteArrayInputStream(source));
+    }
+
+    @Benchmark
+    public TurinFile read() throws IOException {
+        return new AstReader(new ByteArrayInputStream(serialized)).read().get();
+    }
+
+    @Benchmark
+    public TurinFile loadFromCache() throws IOException {
+        return astCache.parse(sourceFile, parser);
+    }
+}
@@ -0,0 +1,57 @@
+package me.tomassetti.turin.benchmarks;
+
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measure the heap retained by the AST of a file, which JMH does not measure. The file is parsed many times keeping
+ * all the ASTs and the heap used after a full collection is compared with the one used before.
+ *
+ * Usage: AstMemoryBenchmark [input] [copies]. The input is named as in BenchmarkResources, synthetic:1000 by default.
+ */
+public class AstMemoryBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String input = args.length > 0 ? args[0] : BenchmarkResources.SYNTHETIC_PREFIX + "1000";
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        byte[] source = BenchmarkResources.load(input);
+        Parser parser = new Parser();
+        // load the classes and build the DFA of the parser before measuring
+        parser.parse(new ByteArrayInputStream(source));
+
+        long before = usedHeap();
+        List<TurinFile> asts = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            asts.add(parser.parse(new ByteArrayInputStream(source)));
+        }
+        long after = usedHeap();
+
+        long bytesPerAst = (after - before) / copies;
+        int nodes = countNodes(asts.get(0));
+        System.out.printf("%s: %d nodes, %d bytes per AST, %.1f bytes per node%n",
+                input, nodes, bytesPerAst, (double) bytesPerAst / nodes);
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        for (Node child : node.getChildren()) {
+            count += countNodes(child);
+        }
+        return count;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
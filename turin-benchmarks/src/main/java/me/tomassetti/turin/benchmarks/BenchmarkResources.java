@@ -0,0 +1,154 @@
+package me.tomassetti.turin.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.resolvers.*;
+import me.tomassetti.turin.resolvers.compiled.JarTypeResolver;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Locate and load the inputs of the benchmarks.
+ *
+ * The sources and the jars used by the tests of the compiler are reused: their directory can be specified through the
+ * system property turin.test.resources, otherwise it is looked for starting from the working directory. In the same
+ * way the jar of the standard library can be specified through turin.stdlib.jar.
+ *
+ * Inputs named "synthetic:N" are generated in memory and contain N types.
+ */
+public final class BenchmarkResources {
+
+    public static final String SYNTHETIC_PREFIX = "synthetic:";
+
+    public static final String JAVAPARSER_JAR = "jars/javaparser-core-2.2.1.jar";
+    public static final String JUNIT_JAR = "jars/junit-4.12.jar";
+
+    private static final String STDLIB_JAR = "turin-standard-library/target/turin-standard-library-0.0.3-SNAPSHOT.jar";
+    private static final String TEST_RESOURCES = "turin-compiler/src/test/resources";
+
+    private BenchmarkResources() {
+        // prevent instantiation
+    }
+
+    public static File testResources() {
+        return locate("turin.test.resources", TEST_RESOURCES);
+    }
+
+    public static File stdlibJar() {
+        return locate("turin.stdlib.jar", STDLIB_JAR);
+    }
+
+    public static File resource(String path) {
+        File file = new File(testResources(), path);
+        if (!file.exists()) {
+            throw new IllegalArgumentException("Unknown resource " + path);
+        }
+        return file;
+    }
+
+    /**
+     * Delete a temporary file or directory created by a benchmark.
+     */
+    public static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (!file.delete()) {
+            throw new IOException("Cannot delete " + file.getPath());
+        }
+    }
+
+    public static byte[] load(String input) throws IOException {
+        if (input.startsWith(SYNTHETIC_PREFIX)) {
+            int types = Integer.parseInt(input.substring(SYNTHETIC_PREFIX.length()));
+            return syntheticSource(types).getBytes(StandardCharsets.UTF_8);
+        } else {
+            return Files.toByteArray(resource(input));
+        }
+    }
+
+    public static TurinFile parse(byte[] source) throws IOException {
+        return new Parser().parse(new ByteArrayInputStream(source));
+    }
+
+    /**
+     * The type resolver used for all the inputs: the JDK, the standard library and JavaParser, which is used by
+     * the formatter examples.
+     */
+    public static TypeResolver typeResolver() throws IOException {
+        return new ComposedTypeResolver(ImmutableList.of(
+                JdkTypeResolver.getInstance(),
+                new JarTypeResolver(stdlibJar()),
+                new JarTypeResolver(resource(JAVAPARSER_JAR))));
+    }
+
+    public static SymbolResolver symbolResolver(TypeResolver typeResolver, List<TurinFile> turinFiles) {
+        return new ComposedSymbolResolver(ImmutableList.of(
+                new InFileSymbolResolver(typeResolver),
+                new SrcSymbolResolver(turinFiles)));
+    }
+
+    /**
+     * A single file containing the given number of types, each one with properties, default values, constraints,
+     * a reference to the previous type and a method.
+     */
+    public static String syntheticSource(int types) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("namespace synthetic\n\n");
+        sb.append("import java.lang.System.out.println as print\n\n");
+        sb.append("property String name\n\n");
+        for (int i = 0; i < types; i++) {
+            sb.append("type Type").append(i).append(" {\n");
+            sb.append("    has name\n");
+            sb.append("    int value default ").append(i).append(" : _ >= 0 | \"#{_name} should be positive\"\n");
+            sb.append("    String description default \"type ").append(i).append("\"\n");
+            if (i > 0) {
+                sb.append("    Type").append(i - 1).append(" previous\n");
+            }
+            sb.append("    String describe() = \"#{name}: #{description} #{value}\"\n");
+            sb.append("}\n\n");
+        }
+        sb.append("program Synthetic(String[] args) {\n");
+        sb.append("    val first = Type0(\"first\")\n");
+        sb.append("    print(\"#{first}\")\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Fail on the first error: the inputs of the benchmarks are expected to be valid.
+     */
+    public static class FailingErrorCollector implements ErrorCollector {
+
+        @Override
+        public void recordSemanticError(Position position, String description) {
+            throw new IllegalStateException(position + " : " + description);
+        }
+    }
+
+    private static File locate(String property, String path) {
+        String value = System.getProperty(property);
+        if (value != null) {
+            return new File(value);
+        }
+        for (File dir = new File("").getAbsoluteFile(); dir != null; dir = dir.getParentFile()) {
+            File candidate = new File(dir, path);
+            if (candidate.exists()) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Cannot find " + path + ", specify it using the system property " + property);
+    }
+}
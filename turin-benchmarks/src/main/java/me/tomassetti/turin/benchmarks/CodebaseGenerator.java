@@ -0,0 +1,227 @@
+package me.tomassetti.turin.benchmarks;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generate codebases of arbitrary size, to see how the compiler scales with the number of files.
+ *
+ * The files are spread over the namespaces in round-robin. Every file contains types with properties, default values,
+ * initial values and constraints, a relation, a context and functions using them. Each file refers to the first type
+ * of the previous file, importing it when it is in another namespace, and it imports Java types and fields.
+ * The output is deterministic and it can be compiled with the standard library on the classpath.
+ */
+public class CodebaseGenerator {
+
+    public static class Options {
+
+        public int getNamespaces() {
+            return namespaces;
+        }
+
+        public void setNamespaces(int namespaces) {
+            this.namespaces = namespaces;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public void setFiles(int files) {
+            this.files = files;
+        }
+
+        public int getTypesPerFile() {
+            return typesPerFile;
+        }
+
+        public void setTypesPerFile(int typesPerFile) {
+            this.typesPerFile = typesPerFile;
+        }
+
+        public int getPropertiesPerType() {
+            return propertiesPerType;
+        }
+
+        public void setPropertiesPerType(int propertiesPerType) {
+            this.propertiesPerType = propertiesPerType;
+        }
+
+        public String getDestinationDir() {
+            return destinationDir;
+        }
+
+        public void setDestinationDir(String destinationDir) {
+            this.destinationDir = destinationDir;
+        }
+
+        public boolean isHelp() {
+            return help;
+        }
+
+        public void setHelp(boolean help) {
+            this.help = help;
+        }
+
+        @Parameter(names = {"-n", "--namespaces"}, description = "Number of namespaces")
+        private int namespaces = 10;
+
+        @Parameter(names = {"-f", "--files"}, description = "Number of files")
+        private int files = 100;
+
+        @Parameter(names = {"-t", "--types"}, description = "Number of types in each file")
+        private int typesPerFile = 3;
+
+        @Parameter(names = {"-p", "--properties"}, description = "Number of plain properties in each type")
+        private int propertiesPerType = 3;
+
+        @Parameter(names = {"-o", "--output"}, description = "Directory in which the files are generated")
+        private String destinationDir = "generated_sources";
+
+        @Parameter(names = {"-h", "--help"})
+        private boolean help = false;
+    }
+
+    private Options options;
+
+    public CodebaseGenerator(Options options) {
+        if (options.namespaces < 1 || options.files < 1 || options.typesPerFile < 1 || options.propertiesPerType < 0) {
+            throw new IllegalArgumentException("Invalid size of the codebase");
+        }
+        this.options = options;
+    }
+
+    public static String namespaceName(int namespace) {
+        return "gen.ns" + namespace;
+    }
+
+    public String namespaceOf(int file) {
+        return namespaceName(file % options.namespaces);
+    }
+
+    /**
+     * Path of the file, relative to the source directory.
+     */
+    public String pathOf(int file) {
+        return namespaceOf(file).replace('.', '/') + "/file" + file + ".to";
+    }
+
+    /**
+     * Write all the files under the given directory.
+     */
+    public void generate(File dir) throws IOException {
+        for (int i = 0; i < options.files; i++) {
+            File file = new File(dir, pathOf(i));
+            Files.createParentDirs(file);
+            Files.write(generateFile(i), file, StandardCharsets.UTF_8);
+        }
+    }
+
+    public String generateFile(int file) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("namespace ").append(namespaceOf(file)).append("\n\n");
+        sb.append("import java.util.List\n");
+        sb.append("import java.util.Optional\n");
+        sb.append("import java.lang.System.out.println as print\n");
+        if (file > 0 && !namespaceOf(file - 1).equals(namespaceOf(file))) {
+            sb.append("import ").append(namespaceOf(file - 1)).append(".").append(typeName(file - 1, 0)).append("\n");
+        }
+        sb.append("\n");
+        sb.append("property String ").append(labelProperty(file)).append("\n\n");
+
+        for (int j = 0; j < options.typesPerFile; j++) {
+            appendType(sb, file, j);
+        }
+
+        // the relation links the instances of the last type of the file
+        String related = typeName(file, options.typesPerFile - 1);
+        sb.append("relation Rel").append(file).append(" {\n");
+        sb.append("    one ").append(related).append(" owner").append(file).append("\n");
+        sb.append("    many ").append(related).append(" parts").append(file).append("\n");
+        sb.append("}\n\n");
+
+        sb.append("context String ctx").append(file).append("\n\n");
+
+        sb.append("Optional[String] currentCtx").append(file).append("() {\n");
+        sb.append("    context (ctx").append(file).append("=\"file ").append(file).append("\") {\n");
+        sb.append("        return context.ctx").append(file).append("\n");
+        sb.append("    }\n");
+        sb.append("}\n\n");
+
+        for (int j = 0; j < options.typesPerFile; j++) {
+            sb.append(typeName(file, j)).append(" make").append(typeName(file, j)).append("(")
+                    .append(previousParameter(file)).append(") = ").append(creation(file, j)).append("\n\n");
+        }
+
+        sb.append("List[").append(related).append("] link").append(file).append("(").append(previousParameter(file)).append(") {\n");
+        sb.append("    val owner = ").append(creation(file, options.typesPerFile - 1)).append("\n");
+        sb.append("    val part = ").append(creation(file, options.typesPerFile - 1)).append("\n");
+        sb.append("    part.owner").append(file).append(".set(owner)\n");
+        sb.append("    return owner.parts").append(file).append("\n");
+        sb.append("}\n\n");
+
+        sb.append("void show").append(file).append("(String message) {\n");
+        sb.append("    print(message)\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private void appendType(StringBuilder sb, int file, int j) {
+        sb.append("type ").append(typeName(file, j)).append(" {\n");
+        sb.append("    has ").append(labelProperty(file)).append("\n");
+        for (int k = 0; k < options.propertiesPerType; k++) {
+            sb.append("    int p").append(k).append("\n");
+        }
+        if (hasPreviousReference(file, j)) {
+            sb.append("    ").append(typeName(file - 1, 0)).append(" previous\n");
+        }
+        sb.append("    int amount default ").append(j).append(" : _ >= 0 | \"#{_name} should not be negative\"\n");
+        sb.append("    String description = \"type ").append(j).append(" of file ").append(file).append("\"\n");
+        sb.append("    String describe() = \"#{").append(labelProperty(file)).append("}: #{description}\"\n");
+        sb.append("}\n\n");
+    }
+
+    private String creation(int file, int j) {
+        StringBuilder sb = new StringBuilder(typeName(file, j));
+        sb.append("(\"").append(typeName(file, j)).append("\"");
+        for (int k = 0; k < options.propertiesPerType; k++) {
+            sb.append(", ").append(k);
+        }
+        if (hasPreviousReference(file, j)) {
+            sb.append(", previous");
+        }
+        return sb.append(")").toString();
+    }
+
+    private String previousParameter(int file) {
+        return file == 0 ? "" : typeName(file - 1, 0) + " previous";
+    }
+
+    private boolean hasPreviousReference(int file, int j) {
+        return file > 0 && j == 0;
+    }
+
+    private static String typeName(int file, int j) {
+        return "T" + file + "x" + j;
+    }
+
+    private static String labelProperty(int file) {
+        return "label" + file;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options();
+        JCommander commander = new JCommander(options, args);
+        if (options.help) {
+            commander.usage();
+            return;
+        }
+        new CodebaseGenerator(options).generate(new File(options.destinationDir));
+        System.out.println("Generated " + options.files + " files in " + options.destinationDir);
+    }
+}
@@ -0,0 +1,58 @@
+package me.tomassetti.turin.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.Compilation;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.resolvers.CompilationSession;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import me.tomassetti.turin.resolvers.TypeResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation and bytecode generation of a freshly parsed file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 50)
+@Fork(1)
+public class CompilationBenchmark {
+
+    @Param({"ranma.to", "examples/formatter1.to", "examples/formatter3.to", "synthetic:100"})
+    public String input;
+
+    private byte[] source;
+    private TypeResolver typeResolver;
+    private TurinFile turinFile;
+    private CompilationSession session = new CompilationSession();
+    private SymbolResolver resolver;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        source = BenchmarkResources.load(input);
+        typeResolver = BenchmarkResources.typeResolver();
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() throws IOException {
+        turinFile = BenchmarkResources.parse(source);
+        resolver = BenchmarkResources.symbolResolver(typeResolver, ImmutableList.of(turinFile));
+        session.record(turinFile, resolver);
+    }
+
+    @TearDown(Level.Invocation)
+    public void forget() {
+        session.forget(turinFile);
+    }
+
+    @Benchmark
+    public List<ClassFileDefinition> compile() {
+        return new Compilation(resolver, new BenchmarkResources.FailingErrorCollector()).compile(turinFile);
+    }
+}
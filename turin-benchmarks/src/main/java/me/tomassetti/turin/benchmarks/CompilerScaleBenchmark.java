@@ -0,0 +1,77 @@
+package me.tomassetti.turin.benchmarks;
+
+import com.google.common.io.Files;
+import me.tomassetti.turin.compiler.Compiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run the whole compiler on generated codebases of increasing size, to spot super-linear behaviour.
+ * Run it with -prof gc to see also how the memory used grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class CompilerScaleBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int files;
+
+    @Param({"10"})
+    public int namespaces;
+
+    @Param({"1"})
+    public int jobs;
+
+    private File workDir;
+    private File sourceDir;
+    private File destinationDir;
+    private PrintStream discarded;
+    private ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        workDir = Files.createTempDir();
+        sourceDir = new File(workDir, "src");
+        destinationDir = new File(workDir, "classes");
+        CodebaseGenerator.Options options = new CodebaseGenerator.Options();
+        options.setFiles(files);
+        options.setNamespaces(namespaces);
+        new CodebaseGenerator(options).generate(sourceDir);
+        discarded = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // discard
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        BenchmarkResources.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public int compile() throws IOException {
+        errors.reset();
+        int exitCode = Compiler.run(new String[]{
+                "-cp", BenchmarkResources.stdlibJar().getPath(),
+                "-o", destinationDir.getPath(),
+                "-j", Integer.toString(jobs),
+                sourceDir.getPath()}, null, discarded, new PrintStream(errors), Compiler::toTypeResolver);
+        // the errors of each file are printed, so a broken codebase is detected even if the exit code is zero
+        if (exitCode != 0 || errors.size() > 0) {
+            throw new IllegalStateException("The compilation failed with exit code " + exitCode + ":\n" + errors);
+        }
+        return exitCode;
+    }
+}
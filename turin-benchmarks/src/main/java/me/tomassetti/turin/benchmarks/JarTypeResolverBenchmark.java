@@ -0,0 +1,35 @@
+package me.tomassetti.turin.benchmarks;
+
+import me.tomassetti.turin.resolvers.compiled.JarTypeResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the resolver for a jar, which indexes all of its entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JarTypeResolverBenchmark {
+
+    @Param({"stdlib", BenchmarkResources.JAVAPARSER_JAR, BenchmarkResources.JUNIT_JAR})
+    public String jar;
+
+    private File file;
+
+    @Setup
+    public void setup() {
+        file = jar.equals("stdlib") ? BenchmarkResources.stdlibJar() : BenchmarkResources.resource(jar);
+    }
+
+    @Benchmark
+    public JarTypeResolver construct() throws IOException {
+        return new JarTypeResolver(file);
+    }
+}
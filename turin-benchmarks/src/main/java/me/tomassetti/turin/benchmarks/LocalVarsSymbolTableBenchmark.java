@@ -0,0 +1,57 @@
+package me.tomassetti.turin.benchmarks;
+
+import me.tomassetti.turin.compiler.LocalVarsSymbolTable;
+import me.tomassetti.turin.parser.ast.expressions.ValueReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the symbol table of a method with many local variables, half of them declared in a block nested in
+ * the other half. The cost of a lookup should not depend on the number of locals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalVarsSymbolTableBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int locals;
+
+    private LocalVarsSymbolTable symbolTable;
+    private String outerName;
+    private String innerName;
+
+    @Setup
+    public void setup() {
+        symbolTable = LocalVarsSymbolTable.forInstanceMethod();
+        for (int i = 0; i < locals / 2; i++) {
+            symbolTable.add("outer" + i, new ValueReference("outer" + i));
+        }
+        symbolTable.enterBlock();
+        for (int i = 0; i < locals / 2; i++) {
+            symbolTable.add("inner" + i, new ValueReference("inner" + i));
+        }
+        outerName = "outer" + (locals / 2 - 1);
+        innerName = "inner" + (locals / 2 - 1);
+    }
+
+    @Benchmark
+    public Optional<Integer> findInCurrentBlock() {
+        return symbolTable.findIndex(innerName);
+    }
+
+    @Benchmark
+    public Optional<Integer> findInEnclosingBlock() {
+        return symbolTable.findIndex(outerName);
+    }
+
+    @Benchmark
+    public Optional<Integer> findMissing() {
+        return symbolTable.findIndex("missing");
+    }
+}
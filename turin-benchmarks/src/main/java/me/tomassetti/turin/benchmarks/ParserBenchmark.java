@@ -0,0 +1,53 @@
+package me.tomassetti.turin.benchmarks;
+
+import me.tomassetti.parser.antlr.TurinParser;
+import me.tomassetti.turin.parser.InternalParser;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexing and parsing alone, and parsing followed by the conversion to the AST, with each prediction strategy. The
+ * conversion is measured also leaving the bodies to be converted when first accessed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"manga.to", "ranma.to", "examples/formatter1.to", "examples/formatter2.to", "examples/formatter3.to",
+            "synthetic:100", "synthetic:1000"})
+    public String input;
+
+    @Param({"TWO_STAGE", "SLL", "LL"})
+    public InternalParser.PredictionStrategy predictionStrategy;
+
+    private byte[] source;
+
+    @Setup
+    public void setup() throws IOException {
+        source = BenchmarkResources.load(input);
+    }
+
+    @Benchmark
+    public TurinParser.TurinFileContext produceParseTree() throws IOException {
+        return new InternalParser(predictionStrategy).produceParseTree(new ByteArrayInputStream(source));
+    }
+
+    @Benchmark
+    public TurinFile parse() throws IOException {
+        return new Parser(predictionStrategy).parse(new ByteArrayInputStream(source));
+    }
+
+    @Benchmark
+    public TurinFile parseWithLazyBodies() throws IOException {
+        return new Parser(predictionStrategy, true).parse(new ByteArrayInputStream(source));
+    }
+}
@@ -0,0 +1,106 @@
+package me.tomassetti.turin.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import turin.relations.ManyToManyRelation;
+import turin.relations.OneToManyRelation;
+import turin.relations.OneToOneRelation;
+import turin.relations.Relation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations of the runtime classes used by the code generated for relations, on relations already containing
+ * the given number of links.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelationsBenchmark {
+
+    @Param({"10", "1000"})
+    public int links;
+
+    private Object[] as;
+    private Object[] bs;
+    private OneToOneRelation<Object, Object> oneToOne;
+    private OneToManyRelation<Object, Object> oneToMany;
+    private ManyToManyRelation<Object, Object> manyToMany;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        as = new Object[links];
+        bs = new Object[links];
+        for (int i = 0; i < links; i++) {
+            as[i] = new Object();
+            bs[i] = new Object();
+        }
+        oneToOne = new OneToOneRelation<>();
+        oneToMany = new OneToManyRelation<>();
+        manyToMany = new ManyToManyRelation<>();
+        for (int i = 0; i < links; i++) {
+            oneToOne.link(as[i], bs[i]);
+            oneToMany.link(as[i % 10], bs[i]);
+            manyToMany.link(as[i % 10], bs[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % links;
+        return next;
+    }
+
+    @Benchmark
+    public boolean oneToOneAreLinked() {
+        int i = nextIndex();
+        return oneToOne.areLinked(as[i], bs[i]);
+    }
+
+    @Benchmark
+    public boolean oneToManyAreLinked() {
+        int i = nextIndex();
+        return oneToMany.areLinked(as[i % 10], bs[i]);
+    }
+
+    @Benchmark
+    public boolean manyToManyAreLinked() {
+        int i = nextIndex();
+        return manyToMany.areLinked(as[i % 10], bs[i]);
+    }
+
+    @Benchmark
+    public Object oneToManyReferenceForB() {
+        return oneToMany.getReferenceForB(bs[nextIndex()]).get();
+    }
+
+    @Benchmark
+    public int oneToManyReferenceForA() {
+        return oneToMany.getReferenceForA(as[nextIndex() % 10]).size();
+    }
+
+    @Benchmark
+    public int manyToManyReferenceForB() {
+        return manyToMany.getReferenceForB(bs[nextIndex()]).size();
+    }
+
+    /**
+     * Unlink and link again a pair, so that the size of the relation stays constant.
+     */
+    @Benchmark
+    public void oneToManyRelink() {
+        relink(oneToMany, nextIndex());
+    }
+
+    @Benchmark
+    public void manyToManyRelink() {
+        relink(manyToMany, nextIndex());
+    }
+
+    private void relink(Relation<Object, Object> relation, int i) {
+        relation.unlink(as[i % 10], bs[i]);
+        relation.link(as[i % 10], bs[i]);
+    }
+}
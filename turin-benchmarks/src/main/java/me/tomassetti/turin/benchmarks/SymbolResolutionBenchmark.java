@@ -0,0 +1,70 @@
+package me.tomassetti.turin.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.resolvers.*;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of type names from inside a type of the formatter example: a type of the same file, a type imported from
+ * a jar, a JDK type by qualified name and a name which cannot be resolved. InFileSymbolResolver caches the names
+ * it resolves: findTypeDefinitionIn measures the lookups hitting that cache, findTypeDefinitionInUncached clears it
+ * before each lookup, measuring the whole resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolResolutionBenchmark {
+
+    @Param({"Options", "CompilationUnit", "java.lang.String", "Unexisting"})
+    public String typeName;
+
+    private TurinFile turinFile;
+    private CompilationSession session = new CompilationSession();
+    private InFileSymbolResolver inFileSymbolResolver;
+    private SymbolResolver resolver;
+    private Node context;
+
+    @Setup
+    public void setup() throws IOException {
+        turinFile = BenchmarkResources.parse(BenchmarkResources.load("examples/formatter3.to"));
+        inFileSymbolResolver = new InFileSymbolResolver(BenchmarkResources.typeResolver());
+        resolver = new ComposedSymbolResolver(ImmutableList.of(inFileSymbolResolver,
+                new SrcSymbolResolver(ImmutableList.of(turinFile))));
+        session.record(turinFile, resolver);
+        context = turinFile.getTopLevelTypeDefinitions().get(0);
+    }
+
+    @TearDown
+    public void forget() {
+        session.forget(turinFile);
+    }
+
+    @State(Scope.Thread)
+    public static class ClearedCaches {
+
+        @Setup(Level.Invocation)
+        public void clear(SymbolResolutionBenchmark benchmark) {
+            benchmark.inFileSymbolResolver.clearCaches();
+        }
+    }
+
+    @Benchmark
+    public Optional<TypeDefinition> findTypeDefinitionIn() {
+        return inFileSymbolResolver.findTypeDefinitionIn(typeName, context, resolver);
+    }
+
+    @Benchmark
+    public Optional<TypeDefinition> findTypeDefinitionInUncached(ClearedCaches clearedCaches) {
+        return inFileSymbolResolver.findTypeDefinitionIn(typeName, context, resolver);
+    }
+}
@@ -0,0 +1,37 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinParser;
+import me.tomassetti.turin.benchmarks.BenchmarkResources;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of the parse tree into the AST. It is in this package because ParseTreeToAst is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseTreeToAstBenchmark {
+
+    @Param({"manga.to", "examples/formatter3.to", "synthetic:100", "synthetic:1000"})
+    public String input;
+
+    private TurinParser.TurinFileContext parseTree;
+
+    @Setup
+    public void setup() throws IOException {
+        parseTree = new InternalParser().produceParseTree(new ByteArrayInputStream(BenchmarkResources.load(input)));
+    }
+
+    @Benchmark
+    public TurinFile toAst() {
+        return new ParseTreeToAst().toAst(parseTree);
+    }
+}
@@ -12,7 +12,6 @@ import me.tomassetti.turin.classloading.ClassFileDefinition;
 import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
 import me.tomassetti.turin.parser.analysis.Property;
 import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.*;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
@@ -70,12 +69,23 @@ public class Compilation {
     }
 
     public List<ClassFileDefinition> compile(TurinFile turinFile) {
-        boolean valid = turinFile.validate(resolver, errorCollector);
+        boolean valid = validate(turinFile);
 
         if (!valid) {
             return Collections.emptyList();
         }
 
+        return generate(turinFile);
+    }
+
+    public boolean validate(TurinFile turinFile) {
+        return turinFile.validate(resolver, errorCollector);
+    }
+
+    /**
+     * Generate the class files for a TurinFile which was already validated.
+     */
+    public List<ClassFileDefinition> generate(TurinFile turinFile) {
         List<ClassFileDefinition> classFileDefinitions = new ArrayList<>();
 
         for (Node node : turinFile.getChildren()) {
@@ -356,22 +366,22 @@ public class Compilation {
         } else {
             List<BytecodeSequence> elements = new ArrayList<>();
             elements.add(new NewInvocationBS(new JvmConstructorDefinition("java/lang/StringBuilder", "()V"), NoOp.getInstance()));
-            appendToStringBuilder(new StringLiteral(typeDefinition.getName()+"{"), elements);
+            appendToStringBuilder(stringLiteralIn(typeDefinition.getName()+"{", typeDefinition), elements);
 
             int remaining = typeDefinition.getAllProperties(resolver).size();
             for (Property property : typeDefinition.getAllProperties(resolver)) {
-                appendToStringBuilder(new StringLiteral(property.getName() + "="), elements);
+                appendToStringBuilder(stringLiteralIn(property.getName() + "=", typeDefinition), elements);
                 ValueReference valueReference = new ValueReference(property.getName());
                 // in this way the field can be solved
                 valueReference.setParent(typeDefinition);
                 appendToStringBuilder(valueReference, elements);
                 remaining--;
                 if (remaining > 0) {
-                    appendToStringBuilder(new StringLiteral(", "), elements);
+                    appendToStringBuilder(stringLiteralIn(", ", typeDefinition), elements);
                 }
             }
 
-            appendToStringBuilder(new StringLiteral("}"), elements);
+            appendToStringBuilder(stringLiteralIn("}", typeDefinition), elements);
 
             elements.add(new MethodInvocationBS(new JvmMethodDefinition("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false, false)));
             new ComposedBytecodeSequence(elements).operate(mv);
@@ -535,11 +545,14 @@ public class Compilation {
         return ImmutableList.of(endClass(canonicalClassName));
     }
 
+    private StringLiteral stringLiteralIn(String value, Node context) {
+        StringLiteral stringLiteral = new StringLiteral(value);
+        // in this way the literal is resolved using the resolver of the file
+        stringLiteral.setParent(context);
+        return stringLiteral;
+    }
+
     void appendToStringBuilder(Expression piece, List<BytecodeSequence> elements) {
-        // this is because many String Literal are created during compilation and are detached
-        if (piece.getRoot() == piece) {
-            ResolverRegistry.INSTANCE.record(piece, resolver);
-        }
         TypeUsage pieceType = piece.calcType();
         if (pieceType.sameType(ReferenceTypeUsage.STRING(resolver))) {
             elements.add(pushUtils.pushExpression(piece));
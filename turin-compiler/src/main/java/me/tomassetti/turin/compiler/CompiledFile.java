@@ -0,0 +1,34 @@
+package me.tomassetti.turin.compiler;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+
+import java.util.List;
+
+/**
+ * Result of the compilation of a single TurinFile.
+ */
+public class CompiledFile {
+
+    private TurinFileWithSource turinFile;
+    private List<ClassFileDefinition> classFileDefinitions;
+    private boolean errors;
+
+    public CompiledFile(TurinFileWithSource turinFile, List<ClassFileDefinition> classFileDefinitions, boolean errors) {
+        this.turinFile = turinFile;
+        this.classFileDefinitions = classFileDefinitions;
+        this.errors = errors;
+    }
+
+    public TurinFileWithSource getTurinFile() {
+        return turinFile;
+    }
+
+    public List<ClassFileDefinition> getClassFileDefinitions() {
+        return classFileDefinitions;
+    }
+
+    public boolean hasErrors() {
+        return errors;
+    }
+}
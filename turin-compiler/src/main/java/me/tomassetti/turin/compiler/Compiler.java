@@ -3,38 +3,106 @@ package me.tomassetti.turin.compiler;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.cache.BuildCache;
+import me.tomassetti.turin.compiler.cache.CacheKeys;
+import me.tomassetti.turin.compiler.cache.DirectoryBuildCache;
 import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.compiler.incremental.IncrementalBuild;
+import me.tomassetti.turin.compiler.output.AsyncClassFileSink;
+import me.tomassetti.turin.compiler.output.ClassFileSink;
+import me.tomassetti.turin.compiler.output.DirectoryClassFileSink;
+import me.tomassetti.turin.compiler.output.JarClassFileSink;
+import me.tomassetti.turin.compiler.report.CompilationReport;
+import me.tomassetti.turin.compiler.report.MeasuredClassFileSink;
+import me.tomassetti.turin.compiler.report.Phase;
+import me.tomassetti.turin.compiler.watch.WatchSession;
 import me.tomassetti.turin.parser.TurinFileWithSource;
 import me.tomassetti.turin.resolvers.*;
 import me.tomassetti.turin.resolvers.compiled.JarTypeResolver;
 import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.parser.ast.*;
+import me.tomassetti.turin.util.ParallelTasks;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import me.tomassetti.turin.parser.InternalParser;
 import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ParserPool;
+import me.tomassetti.turin.parser.cache.AstCache;
 
 public class Compiler {
 
     private static String VERSION = "0.1 (Crocetta)";
 
     private SymbolResolver resolver;
+    private CompilationSession session;
     private Options options;
+    private PrintStream errorStream;
+    private Optional<CompilationReport> report;
+    private Optional<BuildCache> buildCache = Optional.empty();
+    private Map<File, String> cacheKeys = Collections.emptyMap();
 
     public Compiler(SymbolResolver resolver, Options options) {
+        this(resolver, options, System.err, Optional.empty());
+    }
+
+    public Compiler(SymbolResolver resolver, Options options, PrintStream errorStream, Optional<CompilationReport> report) {
+        this(resolver, options, errorStream, report, new CompilationSession());
+    }
+
+    /**
+     * The files are recorded in the given session, which can be shared with the resolver loading them.
+     */
+    public Compiler(SymbolResolver resolver, Options options, PrintStream errorStream, Optional<CompilationReport> report,
+                    CompilationSession session) {
         this.resolver = resolver;
+        this.session = session;
         this.options = options;
+        this.errorStream = errorStream;
+        this.report = report;
+    }
+
+    /**
+     * The session associating the files compiled or registered by this compiler to its resolver.
+     */
+    public CompilationSession getSession() {
+        return session;
+    }
+
+    /**
+     * Look up the class files of each file in the cache, using the given keys (see CacheKeys), before compiling it.
+     * The class files of the files compiled without errors are added to the cache.
+     */
+    public void useBuildCache(BuildCache buildCache, Map<File, String> cacheKeys) {
+        this.buildCache = Optional.of(buildCache);
+        this.cacheKeys = cacheKeys;
     }
 
     public List<ClassFileDefinition> compile(TurinFile turinFile, ErrorCollector errorCollector) {
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        session.record(turinFile, resolver);
         return new Compilation(resolver, errorCollector).compile(turinFile);
     }
 
+    private List<ClassFileDefinition> compile(TurinFile turinFile, ErrorCollector errorCollector, CompilationReport.FileReport fileReport) {
+        session.record(turinFile, resolver);
+        Compilation compilation = new Compilation(resolver, errorCollector);
+        if (!fileReport.measure(Phase.VALIDATION, () -> compilation.validate(turinFile))) {
+            return Collections.emptyList();
+        }
+        return fileReport.measure(Phase.BYTECODE_GENERATION, () -> compilation.generate(turinFile));
+    }
+
     public static class Options {
         public String getDestinationDir() {
             return destinationDir;
@@ -84,6 +152,86 @@ public class Compiler {
             this.sources = sources;
         }
 
+        public int getJobs() {
+            return jobs;
+        }
+
+        public void setJobs(int jobs) {
+            this.jobs = jobs;
+        }
+
+        public String getJar() {
+            return jar;
+        }
+
+        public void setJar(String jar) {
+            this.jar = jar;
+        }
+
+        public boolean isStored() {
+            return stored;
+        }
+
+        public void setStored(boolean stored) {
+            this.stored = stored;
+        }
+
+        public String getReport() {
+            return report;
+        }
+
+        public void setReport(String report) {
+            this.report = report;
+        }
+
+        public String getCache() {
+            return cache;
+        }
+
+        public void setCache(String cache) {
+            this.cache = cache;
+        }
+
+        public String getAstCache() {
+            return astCache;
+        }
+
+        public void setAstCache(String astCache) {
+            this.astCache = astCache;
+        }
+
+        public boolean isStreaming() {
+            return streaming;
+        }
+
+        public void setStreaming(boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        public int getMaxLoadedFiles() {
+            return maxLoadedFiles;
+        }
+
+        public void setMaxLoadedFiles(int maxLoadedFiles) {
+            this.maxLoadedFiles = maxLoadedFiles;
+        }
+
+        public boolean isWatch() {
+            return watch;
+        }
+
+        public void setWatch(boolean watch) {
+            this.watch = watch;
+        }
+
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        public void setIncremental(boolean incremental) {
+            this.incremental = incremental;
+        }
+
         @Parameter(names = {"-o", "--output"})
         private String destinationDir = "turin_classes";
 
@@ -99,19 +247,49 @@ public class Compiler {
         @Parameter(names = {"-h", "--help"})
         private boolean help = false;
 
+        @Parameter(names = {"-j", "--jobs"}, description = "Number of files parsed and compiled in parallel")
+        private int jobs = 1;
+
+        @Parameter(names = {"--jar"}, description = "Jar in which the class files are written, instead of the output directory")
+        private String jar = null;
+
+        @Parameter(names = {"--store"}, description = "Store the class files in the jar without compressing them")
+        private boolean stored = false;
+
+        @Parameter(names = {"--report"}, description = "JSON file in which the time and the memory spent in each phase are reported")
+        private String report = null;
+
+        @Parameter(names = {"--cache"}, description = "Directory of a build cache, which can be shared by different builds")
+        private String cache = null;
+
+        @Parameter(names = {"--ast-cache"}, description = "Directory in which the ASTs are cached, so that only the changed files are parsed")
+        private String astCache = null;
+
+        @Parameter(names = {"-i", "--incremental"}, description = "Compile only the files changed since the previous build and the files depending on them")
+        private boolean incremental = false;
+
+        @Parameter(names = {"--streaming"}, description = "Keep in memory only the ASTs of the file being compiled and of a limited number of files it refers to")
+        private boolean streaming = false;
+
+        @Parameter(names = {"--max-loaded-files"}, description = "Maximum number of ASTs kept in memory between files, when streaming")
+        private int maxLoadedFiles = 64;
+
+        @Parameter(names = {"-w", "--watch"}, description = "Keep running, recompiling the sources when they change")
+        private boolean watch = false;
+
         @Parameter(description = "Files or directories to compile")
         private List<String> sources = new ArrayList<>();
     }
 
-    private static SymbolResolver getResolver(List<String> sources, List<String> classPathElements, List<TurinFile> turinFiles) {
+    private static SymbolResolver getResolver(List<String> classPathElements, Function<String, TypeResolver> classPathElementResolver, SymbolResolver srcSymbolResolver) {
         TypeResolver typeResolver = new ComposedTypeResolver(ImmutableList.<TypeResolver>builder()
                 .add(JdkTypeResolver.getInstance())
-                .addAll(classPathElements.stream().map((cp) -> toTypeResolver(cp)).collect(Collectors.toList()))
+                .addAll(classPathElements.stream().map(classPathElementResolver).collect(Collectors.toList()))
                 .build());
-        return new ComposedSymbolResolver(ImmutableList.of(new InFileSymbolResolver(typeResolver), new SrcSymbolResolver(turinFiles)));
+        return new ComposedSymbolResolver(ImmutableList.of(new InFileSymbolResolver(typeResolver), srcSymbolResolver));
     }
 
-    private static TypeResolver toTypeResolver(String classPathElement) {
+    public static TypeResolver toTypeResolver(String classPathElement) {
         File file = new File(classPathElement);
         if (file.exists() && file.isFile() && classPathElement.endsWith(".jar")) {
             try {
@@ -124,114 +302,389 @@ public class Compiler {
         }
     }
 
-    private void compile(File file) throws IOException {
-        if (file.isDirectory()) {
-            compileDir(file);
-        } else {
-            compileFile(file);
-        }
-    }
-
+    /**
+     * Errors are buffered and printed only when flush is invoked: in this way the errors of files compiled in
+     * parallel are reported in the same order in which the files were given.
+     */
     private static class ErrorPrinter implements ErrorCollector {
 
         private String fileDescription;
+        private PrintStream stream;
+        private List<String> messages = new ArrayList<>();
 
-        public ErrorPrinter(String fileDescription) {
+        public ErrorPrinter(String fileDescription, PrintStream stream) {
             this.fileDescription = fileDescription;
+            this.stream = stream;
         }
 
         @Override
         public void recordSemanticError(Position position, String description) {
-            System.err.println(fileDescription + " at " + position + ": (semantic error) " + description);
+            messages.add(fileDescription + " at " + position + ": (semantic error) " + description);
         }
-    }
 
-    private void compileFile(File file) throws IOException {
-        TurinFile turinFile = new Parser().parse(new FileInputStream(file));
+        @Override
+        public void recordSyntaxError(Position position, String description) {
+            messages.add(fileDescription + " at " + position + ": (syntax error) " + description);
+        }
 
-        for (ClassFileDefinition classFileDefinition : compile(turinFile, new ErrorPrinter(file.getPath()))) {
-            if (options.verbose) {
-                System.out.println(" Writing [" + classFileDefinition.getName() + "]");
+        public boolean hasErrors() {
+            return !messages.isEmpty();
+        }
+
+        public void flush() {
+            messages.forEach(stream::println);
+            messages.clear();
+        }
+    }
+
+    /**
+     * Parse all the given files. Each worker thread uses its own Parser, which takes its lexer and parser from the
+     * pool when one is given. When an AST cache is given the files which
+     * did not change since they were cached are loaded from it instead. Files are parsed in recovering mode, so the
+     * syntax errors of all the files are reported together with the semantic errors.
+     */
+    private static List<TurinFileWithSource> parseAll(List<File> sources, int jobs, Optional<CompilationReport> report,
+                                                      Optional<AstCache> astCache, Optional<ParserPool> parserPool) throws IOException {
+        // the names are shared by all the files of the compilation
+        Interner<String> names = Interners.newStrongInterner();
+        ThreadLocal<Parser> parsers = ThreadLocal.withInitial(() -> parserPool.isPresent()
+                ? new Parser(parserPool.get(), false, names)
+                : new Parser(InternalParser.PredictionStrategy.TWO_STAGE, false, names));
+        return ParallelTasks.executeAll(sources, (source) -> {
+            if (astCache.isPresent()) {
+                // loading or parsing is reported as a whole, as parsing
+                if (report.isPresent()) {
+                    return new TurinFileWithSource(source, report.get().forFile(source.getPath())
+                            .measure(Phase.PARSING, () -> astCache.get().parse(source, parsers.get())));
+                }
+                return new TurinFileWithSource(source, astCache.get().parse(source, parsers.get()));
+            } else if (report.isPresent()) {
+                return new TurinFileWithSource(source, parsers.get().parseRecovering(source, report.get().forFile(source.getPath())));
+            } else {
+                return new TurinFileWithSource(source, parsers.get().parseRecovering(source));
             }
-            File classFile = new File(options.destinationDir +"/" + classFileDefinition.getName().replaceAll("\\.", "/") + ".class");
-            classFile.getParentFile().mkdirs();
-            FileOutputStream fos = new FileOutputStream(classFile);
-            fos.write(classFileDefinition.getBytecode());
-            fos.close();
+        }, jobs);
+    }
+
+    /**
+     * Associate the resolver to the given files, recording them in the session of this compiler. It is necessary for
+     * the files which are not compiled but which contain definitions used by the compiled files. The names cached by
+     * the resolver are discarded, as the files could have changed.
+     */
+    public void register(List<TurinFileWithSource> turinFiles) {
+        for (TurinFileWithSource turinFile : turinFiles) {
+            session.record(turinFile.getTurinFile(), resolver);
         }
+        resolver.clearCaches();
     }
 
-    private void compileDir(File file) throws IOException {
-        for (File child : file.listFiles()) {
-            compile(child);
+    /**
+     * Remove the association between the given files and the resolver, so that they can be garbage collected. The
+     * names cached by the resolver, which refer to the files, are discarded.
+     */
+    public void unregister(List<TurinFileWithSource> turinFiles) {
+        for (TurinFileWithSource turinFile : turinFiles) {
+            session.forget(turinFile.getTurinFile());
         }
+        resolver.clearCaches();
+    }
+
+    /**
+     * Compile all the given files. The files are compiled independently, possibly in parallel, while the resolver
+     * is shared. The results and the errors are reported in the order in which the files are given.
+     */
+    public List<CompiledFile> compileAll(List<TurinFileWithSource> turinFiles) throws IOException {
+        return compileAll(turinFiles, Optional.empty());
+    }
+
+    /**
+     * Compile all the given files, passing the class files to the sink as soon as the class files of all the previous
+     * files have been passed.
+     */
+    public List<CompiledFile> compileAll(List<TurinFileWithSource> turinFiles, Optional<ClassFileSink> sink) throws IOException {
+        // the resolvers are registered before starting to compile so that each file can be resolved from the others
+        register(turinFiles);
+        List<ErrorPrinter> errorPrinters = new ArrayList<>();
+        for (TurinFileWithSource turinFile : turinFiles) {
+            errorPrinters.add(new ErrorPrinter(turinFile.getSource().getPath(), errorStream));
+        }
+        List<Integer> indexes = IntStream.range(0, turinFiles.size()).boxed().collect(Collectors.toList());
+        List<CompiledFile> results = ParallelTasks.executeAll(indexes, (i) -> {
+            TurinFileWithSource turinFile = turinFiles.get(i);
+            Optional<CompilationReport.FileReport> fileReport = report.map((r) -> r.forFile(turinFile.getSource().getPath()));
+            Optional<String> cacheKey = buildCache.isPresent() ? Optional.ofNullable(cacheKeys.get(turinFile.getSource())) : Optional.empty();
+            Optional<List<ClassFileDefinition>> cached = cacheKey.isPresent() ? buildCache.get().get(cacheKey.get()) : Optional.empty();
+            List<ClassFileDefinition> classFileDefinitions;
+            if (cached.isPresent()) {
+                classFileDefinitions = cached.get();
+            } else if (fileReport.isPresent()) {
+                classFileDefinitions = compile(turinFile.getTurinFile(), errorPrinters.get(i), fileReport.get());
+            } else {
+                classFileDefinitions = compile(turinFile.getTurinFile(), errorPrinters.get(i));
+            }
+            if (!cached.isPresent() && cacheKey.isPresent() && !errorPrinters.get(i).hasErrors()) {
+                buildCache.get().put(cacheKey.get(), classFileDefinitions);
+            }
+            if (fileReport.isPresent()) {
+                classFileDefinitions.forEach((c) -> report.get().recordOrigin(c.getName(), fileReport.get()));
+            }
+            return new CompiledFile(turinFile, classFileDefinitions, errorPrinters.get(i).hasErrors());
+        }, options.getJobs(), (compiledFile) -> {
+            // the class files reach the sink in the order of the files, so the output does not depend on the threads
+            if (sink.isPresent()) {
+                for (ClassFileDefinition classFileDefinition : compiledFile.getClassFileDefinitions()) {
+                    sink.get().write(classFileDefinition);
+                }
+            }
+        });
+        errorPrinters.forEach(ErrorPrinter::flush);
+        return results;
     }
 
     public static void main(String[] args) throws IOException {
-        System.out.println("--------------------------------------------------");
-        System.out.println(" Turin Compiler - version " + VERSION);
-        System.out.println("--------------------------------------------------\n");
+        int exitCode = run(args, null, System.out, System.err, Compiler::toTypeResolver);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Execute the compiler with the given command line arguments and return the exit code. The exit code is not zero
+     * when any file has syntax or semantic errors, even if the other files were compiled.
+     *
+     * It is used both by main and by the CompilerDaemon: the daemon keeps the resolvers for the classpath elements
+     * across invocations and it resolves relative paths against the working directory of the client.
+     */
+    public static int run(String[] args, File workingDir, PrintStream out, PrintStream err,
+                          Function<String, TypeResolver> classPathElementResolver) throws IOException {
+        return run(args, workingDir, out, err, classPathElementResolver, Optional.empty());
+    }
+
+    /**
+     * Execute the compiler taking the lexers and the parsers from the given pool, so that the DFA built while parsing
+     * does not grow without bounds in long running processes. Without a pool, watch mode creates its own.
+     */
+    public static int run(String[] args, File workingDir, PrintStream out, PrintStream err,
+                          Function<String, TypeResolver> classPathElementResolver,
+                          Optional<ParserPool> parserPool) throws IOException {
+        out.println("--------------------------------------------------");
+        out.println(" Turin Compiler - version " + VERSION);
+        out.println("--------------------------------------------------\n");
 
         Options options = new Options();
         JCommander commander = null;
         try {
             commander = new JCommander(options, args);
         } catch (Throwable t) {
-            System.err.println("Problem parsing options: " + t.getMessage());
-            System.exit(1);
-            return;
+            err.println("Problem parsing options: " + t.getMessage());
+            return 1;
         }
 
         if (options.help) {
-            System.out.println("Help demanded - printing usage");
-            commander.usage();
-            return;
+            out.println("Help demanded - printing usage");
+            out.println(usage(commander));
+            return 0;
         }
 
         if (options.sources.isEmpty()) {
-            System.err.println("No sources specified");
-            commander.usage();
-            return;
+            err.println("No sources specified");
+            out.println(usage(commander));
+            return 0;
         }
 
-        Parser parser = new Parser();
+        if (workingDir != null) {
+            options.sources = options.sources.stream().map((s) -> resolvePath(workingDir, s)).collect(Collectors.toList());
+            options.classPathElements = options.classPathElements.stream().map((cp) -> resolvePath(workingDir, cp)).collect(Collectors.toList());
+            options.destinationDir = resolvePath(workingDir, options.destinationDir);
+            if (options.jar != null) {
+                options.jar = resolvePath(workingDir, options.jar);
+            }
+            if (options.cache != null) {
+                options.cache = resolvePath(workingDir, options.cache);
+            }
+            if (options.astCache != null) {
+                options.astCache = resolvePath(workingDir, options.astCache);
+            }
+        }
+
+        if ((options.incremental || options.watch) && options.jar != null) {
+            err.println("Incremental compilation is not supported when writing a jar");
+            return 1;
+        }
+        if (options.watch) {
+            // after the first build only the files affected by the changes are compiled
+            options.incremental = true;
+            if (!parserPool.isPresent()) {
+                parserPool = Optional.of(new ParserPool(InternalParser.PredictionStrategy.TWO_STAGE,
+                        Runtime.getRuntime().availableProcessors(), ParserPool.DEFAULT_MAX_CACHED_STATES));
+            }
+        }
 
         // First we collect all TurinFiles and we pass it to the resolver
-        List<TurinFileWithSource> turinFiles = new ArrayList<>();
+        List<File> sources = new ArrayList<>();
         for (String source : options.sources) {
             try {
-                turinFiles.addAll(parser.parseAllIn(new File(source)));
+                sources.addAll(Parser.findSources(new File(source)));
             } catch (FileNotFoundException e){
-                System.err.println("Error: " + e.getMessage());
-                System.exit(1);
-                return;
+                err.println("Error: " + e.getMessage());
+                return 1;
+            }
+        }
+        Optional<CompilationReport> report = options.report == null ? Optional.empty() : Optional.of(new CompilationReport(VERSION, options.jobs));
+        if (options.streaming) {
+            if (options.incremental || options.cache != null) {
+                err.println("Streaming compilation cannot be combined with incremental compilation, watch mode or the build cache");
+                return 1;
+            }
+            return compileStreaming(sources, options, report, workingDir, out, err, classPathElementResolver, parserPool);
+        }
+        long llFallbacks = InternalParser.getLlFallbacksCount();
+        Optional<AstCache> astCache = options.astCache == null ? Optional.empty() : Optional.of(new AstCache(new File(options.astCache)));
+        List<TurinFileWithSource> turinFiles = parseAll(sources, options.jobs, report, astCache, parserPool);
+        if (options.verbose) {
+            out.println(" [parsed " + turinFiles.size() + " files, "
+                    + (InternalParser.getLlFallbacksCount() - llFallbacks) + " needed full LL prediction]");
+            if (astCache.isPresent()) {
+                out.println(" [loaded " + astCache.get().getHitsCount() + " ASTs from the cache]");
+            }
+        }
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()));
+        SymbolResolver resolver = getResolver(options.classPathElements, classPathElementResolver, srcSymbolResolver);
+
+        // In incremental mode all the files are still parsed, to resolve symbols, but only some are compiled
+        IncrementalBuild incrementalBuild = null;
+        List<TurinFileWithSource> toCompile = turinFiles;
+        if (options.incremental) {
+            incrementalBuild = new IncrementalBuild(new File(options.destinationDir), VERSION, options.classPathElements);
+            toCompile = incrementalBuild.filesToCompile(turinFiles);
+            if (options.verbose) {
+                out.println(" [compiling " + toCompile.size() + " of " + turinFiles.size() + " files]");
             }
         }
-        SymbolResolver resolver = getResolver(options.sources, options.classPathElements, turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()));
 
         // Then we compile all files
-        Compiler instance = new Compiler(resolver, options);
-        for (TurinFileWithSource turinFile : turinFiles) {
-            for (ClassFileDefinition classFileDefinition : instance.compile(turinFile.getTurinFile(), new ErrorPrinter(turinFile.getSource().getPath()))) {
-                saveClassFile(classFileDefinition, options);
+        Compiler instance = new Compiler(resolver, options, err, report);
+        instance.register(turinFiles);
+        boolean hasErrors;
+        try {
+            if (options.cache != null) {
+                instance.useBuildCache(new DirectoryBuildCache(new File(options.cache)),
+                        CacheKeys.calculate(turinFiles, VERSION, options.classPathElements));
+            }
+            // the class files are written by the sink on its own thread, while the other files are compiled
+            List<CompiledFile> compiledFiles;
+            try (ClassFileSink sink = new AsyncClassFileSink(createSink(options, report))) {
+                compiledFiles = instance.compileAll(toCompile, Optional.of(sink));
+            } catch (IOException e) {
+                err.println("Problem writing class files: " + e.getMessage());
+                return 3;
+            }
+            if (report.isPresent()) {
+                report.get().completed();
+                File reportFile = new File(workingDir == null ? options.report : resolvePath(workingDir, options.report));
+                report.get().save(reportFile);
+            }
+            if (options.verbose) {
+                for (CompiledFile compiledFile : compiledFiles) {
+                    for (ClassFileDefinition classFileDefinition : compiledFile.getClassFileDefinitions()) {
+                        out.println(" [saved " + classFileDefinition.getName() + "]");
+                    }
+                }
             }
+            hasErrors = compiledFiles.stream().anyMatch(CompiledFile::hasErrors);
+            if (incrementalBuild != null) {
+                for (CompiledFile compiledFile : compiledFiles) {
+                    incrementalBuild.record(compiledFile);
+                }
+                incrementalBuild.complete();
+            }
+            if (options.watch) {
+                instance.report = Optional.empty();
+                Parser parser = new Parser(parserPool.get(), false, Interners.newWeakInterner());
+                new WatchSession(instance, options, VERSION, srcSymbolResolver, turinFiles, out, err, parser)
+                        .run(options.sources.stream().map(File::new).collect(Collectors.toList()));
+            }
+        } finally {
+            instance.unregister(turinFiles);
         }
+        return hasErrors ? 1 : 0;
     }
 
-    private static void saveClassFile(ClassFileDefinition classFileDefinition, Options options) {
-        File output = null;
-        try {
-            output = new File(new File(options.destinationDir).getAbsolutePath() + "/" + classFileDefinition.getName().replaceAll("\\.", "/") + ".class");
-            if (options.verbose) {
-                System.out.println(" [saving "+output.getPath()+"]");
+    /**
+     * Compile in two passes, so that the memory used does not grow with the number of files. The first pass keeps
+     * only the declarations of each file, the second one parses and compiles one file at a time. The ASTs of the
+     * other files are parsed again when needed and only a limited number of them is kept.
+     */
+    private static int compileStreaming(List<File> sources, Options options, Optional<CompilationReport> report,
+                                        File workingDir, PrintStream out, PrintStream err,
+                                        Function<String, TypeResolver> classPathElementResolver,
+                                        Optional<ParserPool> parserPool) throws IOException {
+        // the bodies are not needed to index the declarations
+        ThreadLocal<Parser> parsers = ThreadLocal.withInitial(() -> parserPool.isPresent()
+                ? new Parser(parserPool.get(), true, Interners.newWeakInterner())
+                : new Parser(InternalParser.PredictionStrategy.TWO_STAGE, true));
+        List<DeclarationIndex.Declarations> declarations = ParallelTasks.executeAll(sources, (source) -> {
+            return DeclarationIndex.extract(parsers.get().parse(source));
+        }, options.jobs);
+        DeclarationIndex declarationIndex = new DeclarationIndex();
+        for (int i = 0; i < sources.size(); i++) {
+            declarationIndex.add(sources.get(i), declarations.get(i));
+        }
+
+        // the loaded files are recorded by the resolver and then by the compiler, so they share the session
+        CompilationSession session = new CompilationSession();
+        IndexedSrcSymbolResolver srcSymbolResolver = new IndexedSrcSymbolResolver(declarationIndex, options.maxLoadedFiles, session);
+        SymbolResolver resolver = getResolver(options.classPathElements, classPathElementResolver, srcSymbolResolver);
+        Compiler instance = new Compiler(resolver, options, err, report, session);
+        boolean hasErrors = false;
+        try (ClassFileSink sink = new AsyncClassFileSink(createSink(options, report))) {
+            for (File source : sources) {
+                TurinFileWithSource turinFile = srcSymbolResolver.load(source);
+                for (CompiledFile compiledFile : instance.compileAll(ImmutableList.of(turinFile), Optional.of(sink))) {
+                    hasErrors |= compiledFile.hasErrors();
+                    if (options.verbose) {
+                        for (ClassFileDefinition classFileDefinition : compiledFile.getClassFileDefinitions()) {
+                            out.println(" [saved " + classFileDefinition.getName() + "]");
+                        }
+                    }
+                }
+                srcSymbolResolver.releaseUnused();
             }
-            output.getParentFile().mkdirs();
-            FileOutputStream fos = new FileOutputStream(output);
-            fos.write(classFileDefinition.getBytecode());
         } catch (IOException e) {
-            System.err.println("Problem writing file "+output+": "+ e.getMessage());
-            System.exit(3);
+            err.println("Problem writing class files: " + e.getMessage());
+            return 3;
+        } finally {
+            srcSymbolResolver.releaseAll();
+        }
+        if (report.isPresent()) {
+            report.get().completed();
+            report.get().save(new File(workingDir == null ? options.report : resolvePath(workingDir, options.report)));
+        }
+        return hasErrors ? 1 : 0;
+    }
+
+    private static ClassFileSink createSink(Options options, Optional<CompilationReport> report) throws IOException {
+        ClassFileSink sink;
+        if (options.jar != null) {
+            sink = new JarClassFileSink(new File(options.jar), options.stored);
+        } else {
+            sink = new DirectoryClassFileSink(new File(options.destinationDir));
+        }
+        if (report.isPresent()) {
+            sink = new MeasuredClassFileSink(sink, report.get());
         }
+        return sink;
+    }
+
+    private static String usage(JCommander commander) {
+        StringBuilder sb = new StringBuilder();
+        commander.usage(sb);
+        return sb.toString();
+    }
+
+    private static String resolvePath(File workingDir, String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? path : new File(workingDir, path).getPath();
     }
 
 }
@@ -10,17 +10,17 @@ import java.util.*;
 
 /**
  * An instance is created for each method.
- * The list (and the assignations of indexes) are global for the whole methods
- * but the names can be visible only inside inner blocks.
+ * The indexes are assigned in order of declaration but the names can be visible only inside inner blocks:
+ * when a block is exited the indexes of its variables are used again by the following declarations.
  */
 public class LocalVarsSymbolTable {
 
-    private List<Symbol> values = new LinkedList<>();
-    private List<Block> blockOfDeckaration = new LinkedList<>();
-    private List<String> orderedNames = new LinkedList<>();
+    private Symbol[] values = new Symbol[8];
+    private int nextIndex;
+    private int indexesCount;
     private int startIndex;
     private LocalVarsSymbolTable parent;
-    private Block currentBlock = new Block(null);
+    private Block currentBlock;
     private Map<String, BytecodeSequence> aliases = new HashMap<>();
 
     public void recordAlias(String name, BytecodeSequence bs) {
@@ -42,18 +42,23 @@ public class LocalVarsSymbolTable {
         add(formalParameter.getName(), formalParameter);
     }
 
-    // Each instance is equals just to itself, by design.
-    private class Block {
+    private static class Block {
         Block parent;
+        Map<String, Integer> indexes = new HashMap<>();
+        int firstIndex;
 
-        public Block(Block parent) {
+        public Block(Block parent, int firstIndex) {
             this.parent = parent;
+            this.firstIndex = firstIndex;
         }
     }
 
     private LocalVarsSymbolTable(int startIndex, LocalVarsSymbolTable parent) {
         this.startIndex = startIndex;
         this.parent = parent;
+        this.nextIndex = startIndex;
+        this.indexesCount = startIndex;
+        this.currentBlock = new Block(null, startIndex);
     }
 
     public static LocalVarsSymbolTable forStaticMethod() {
@@ -70,49 +75,55 @@ public class LocalVarsSymbolTable {
      * Return the index in the symbol table.
      */
     public int add(String name, Symbol value) {
-        values.add(value);
-        orderedNames.add(name);
-        blockOfDeckaration.add(currentBlock);
-        return orderedNames.size() - 1;
+        int index = nextIndex++;
+        indexesCount = Math.max(indexesCount, nextIndex);
+        if (index - startIndex == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[index - startIndex] = value;
+        // as before a name declared again in the same block keeps referring to the first declaration
+        currentBlock.indexes.putIfAbsent(name, index);
+        return index;
     }
 
     public Optional<Integer> findIndex(String name) {
-        return findIndexInBlock(name, currentBlock);
+        for (Block block = currentBlock; block != null; block = block.parent) {
+            Integer index = block.indexes.get(name);
+            if (index != null) {
+                return Optional.of(index);
+            }
+        }
+        return Optional.empty();
     }
 
     public Optional<Symbol> findDeclaration(String name) {
         Optional<Integer> index = findIndex(name);
         if (index.isPresent()) {
-            return Optional.of(values.get(index.get() - startIndex));
+            return Optional.of(values[index.get() - startIndex]);
         } else {
             return Optional.empty();
         }
     }
 
-    private Optional<Integer> findIndexInBlock(String name, Block block) {
-        for (int i=0;i<orderedNames.size();i++) {
-            if (orderedNames.get(i).equals(name)) {
-                if (blockOfDeckaration.get(i).equals(block)) {
-                    return Optional.of(i + startIndex);
-                }
-            }
-        }
-        if (block.parent == null) {
-            return Optional.empty();
-        } else {
-            return findIndexInBlock(name, block.parent);
-        }
+    /**
+     * The number of indexes used by the method, including the one of "this" for instance methods.
+     */
+    public int getIndexesCount() {
+        return indexesCount;
     }
 
     public void enterBlock() {
-        Block newBlock = new Block(currentBlock);
-        currentBlock = newBlock;
+        currentBlock = new Block(currentBlock, nextIndex);
     }
 
     public void exitBlock() {
         if (currentBlock.parent == null) {
             throw new IllegalStateException();
         }
+        for (int i = currentBlock.firstIndex; i < nextIndex; i++) {
+            values[i - startIndex] = null;
+        }
+        nextIndex = currentBlock.firstIndex;
         currentBlock = currentBlock.parent;
     }
 
@@ -0,0 +1,20 @@
+package me.tomassetti.turin.compiler.cache;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Store of the class files produced by a source file, indexed by a key identifying everything the compilation of
+ * the file depends on (see CacheKeys). Implementations can be shared by different builds and machines.
+ *
+ * Implementations must be thread-safe, because files can be compiled in parallel.
+ */
+public interface BuildCache {
+
+    Optional<List<ClassFileDefinition>> get(String key) throws IOException;
+
+    void put(String key, List<ClassFileDefinition> classFileDefinitions) throws IOException;
+}
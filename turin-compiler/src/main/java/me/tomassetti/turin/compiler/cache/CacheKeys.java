@@ -0,0 +1,112 @@
+package me.tomassetti.turin.compiler.cache;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import me.tomassetti.turin.compiler.incremental.DependencyCollector;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Calculate the keys used to look up the class files of the source files in a BuildCache.
+ *
+ * The key of a file is the hash of its content, of the content of all the Turin files it refers to (directly or
+ * transitively), of the compiler version, of the Java version and of the content of the classpath elements.
+ * Only contents are considered, not paths or modification times, so that the same sources compiled on different
+ * machines get the same keys.
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+        // prevent instantiation
+    }
+
+    /**
+     * The keys of all the given files. All the files of the build have to be given, because they determine
+     * the dependencies.
+     */
+    public static Map<File, String> calculate(List<TurinFileWithSource> turinFiles, String compilerVersion,
+                                              List<String> classPathElements) throws IOException {
+        HashCode environment = Hashing.sha256().newHasher()
+                .putString(compilerVersion, StandardCharsets.UTF_8)
+                .putString(System.getProperty("java.version"), StandardCharsets.UTF_8)
+                .putBytes(classPathFingerprint(classPathElements).asBytes())
+                .hash();
+
+        List<HashCode> contentHashes = new ArrayList<>();
+        Map<String, Set<Integer>> definingFiles = new HashMap<>();
+        List<Set<String>> referencedNames = new ArrayList<>();
+        for (int i = 0; i < turinFiles.size(); i++) {
+            TurinFileWithSource turinFile = turinFiles.get(i);
+            contentHashes.add(Files.hash(turinFile.getSource(), Hashing.sha256()));
+            for (String definedName : DependencyCollector.definedNames(turinFile.getTurinFile())) {
+                definingFiles.computeIfAbsent(DependencyCollector.simpleName(definedName), (n) -> new HashSet<>()).add(i);
+            }
+            referencedNames.add(DependencyCollector.referencedNames(turinFile.getTurinFile()));
+        }
+
+        Map<File, String> keys = new HashMap<>();
+        for (int i = 0; i < turinFiles.size(); i++) {
+            // the hashes of the dependencies are sorted, so that the key does not depend on the order of the files
+            List<String> dependencyHashes = new ArrayList<>();
+            for (int dependency : dependencies(i, referencedNames, definingFiles)) {
+                dependencyHashes.add(contentHashes.get(dependency).toString());
+            }
+            Collections.sort(dependencyHashes);
+            Hasher hasher = Hashing.sha256().newHasher()
+                    .putBytes(environment.asBytes())
+                    .putBytes(contentHashes.get(i).asBytes());
+            dependencyHashes.forEach((h) -> hasher.putString(h, StandardCharsets.UTF_8));
+            keys.put(turinFiles.get(i).getSource(), hasher.hash().toString());
+        }
+        return keys;
+    }
+
+    private static Set<Integer> dependencies(int file, List<Set<String>> referencedNames, Map<String, Set<Integer>> definingFiles) {
+        Set<Integer> dependencies = new HashSet<>();
+        Deque<Integer> toVisit = new ArrayDeque<>();
+        toVisit.push(file);
+        while (!toVisit.isEmpty()) {
+            for (String name : referencedNames.get(toVisit.pop())) {
+                for (int dependency : definingFiles.getOrDefault(name, Collections.emptySet())) {
+                    if (dependency != file && dependencies.add(dependency)) {
+                        toVisit.push(dependency);
+                    }
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private static HashCode classPathFingerprint(List<String> classPathElements) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String classPathElement : classPathElements) {
+            File file = new File(classPathElement);
+            if (file.isDirectory()) {
+                hashDirectory(file, "", hasher);
+            } else {
+                hasher.putBytes(Files.hash(file, Hashing.sha256()).asBytes());
+            }
+        }
+        return hasher.hash();
+    }
+
+    private static void hashDirectory(File dir, String relativePath, Hasher hasher) throws IOException {
+        File[] children = dir.listFiles();
+        Arrays.sort(children);
+        for (File child : children) {
+            String childPath = relativePath + "/" + child.getName();
+            if (child.isDirectory()) {
+                hashDirectory(child, childPath, hasher);
+            } else {
+                hasher.putString(childPath, StandardCharsets.UTF_8);
+                hasher.putBytes(Files.hash(child, Hashing.sha256()).asBytes());
+            }
+        }
+    }
+}
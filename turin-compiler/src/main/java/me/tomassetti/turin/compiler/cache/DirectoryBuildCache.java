@@ -0,0 +1,90 @@
+package me.tomassetti.turin.compiler.cache;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Build cache stored in a local directory. Each entry is a single file, named after its key, containing all the
+ * class files produced by a source file.
+ *
+ * Entries are written to a temporary file and then moved in place, so the directory can be used by several
+ * compilers at the same time. An entry which cannot be read is treated as missing.
+ */
+public class DirectoryBuildCache implements BuildCache {
+
+    private static final int MAGIC = 0x7475C4C5;
+
+    private File directory;
+
+    public DirectoryBuildCache(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Optional<List<ClassFileDefinition>> get(String key) throws IOException {
+        File entry = entryFile(key);
+        if (!entry.isFile()) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+            if (in.readInt() != MAGIC) {
+                return Optional.empty();
+            }
+            int count = in.readInt();
+            List<ClassFileDefinition> classFileDefinitions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] bytecode = new byte[in.readInt()];
+                in.readFully(bytecode);
+                classFileDefinitions.add(new ClassFileDefinition(name, bytecode));
+            }
+            return Optional.of(classFileDefinitions);
+        } catch (EOFException | FileNotFoundException e) {
+            // truncated or removed in the meantime
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, List<ClassFileDefinition> classFileDefinitions) throws IOException {
+        File entry = entryFile(key);
+        File parent = entry.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Cannot create directory " + parent.getPath());
+        }
+        File tmp = File.createTempFile(key, ".tmp", parent);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(classFileDefinitions.size());
+                for (ClassFileDefinition classFileDefinition : classFileDefinitions) {
+                    out.writeUTF(classFileDefinition.getName());
+                    out.writeInt(classFileDefinition.getBytecode().length);
+                    out.write(classFileDefinition.getBytecode());
+                }
+            }
+            try {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    private File entryFile(String key) {
+        if (key.length() < 3 || !key.chars().allMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("Invalid key " + key);
+        }
+        // the entries are spread in subdirectories, to avoid having too many files in a single directory
+        return new File(new File(directory, key.substring(0, 2)), key);
+    }
+}
@@ -0,0 +1,57 @@
+package me.tomassetti.turin.compiler.daemon;
+
+import com.google.common.base.Charsets;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Send the command line arguments to a running CompilerDaemon and report its output and exit code, as if the compiler
+ * was executed in this process.
+ */
+public class CompilerClient {
+
+    private int port;
+
+    public CompilerClient(int port) {
+        this.port = port;
+    }
+
+    public int compile(String[] args, File workingDir, PrintStream out, PrintStream err) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), Charsets.UTF_8));
+            writer.write(workingDir.getAbsolutePath() + "\n");
+            for (String arg : args) {
+                if (arg.contains("\n")) {
+                    throw new IllegalArgumentException("Arguments cannot contain new lines");
+                }
+                writer.write(arg + "\n");
+            }
+            writer.write("\n");
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("out ")) {
+                    out.println(line.substring(4));
+                } else if (line.startsWith("err ")) {
+                    err.println(line.substring(4));
+                } else if (line.startsWith("exit ")) {
+                    return Integer.parseInt(line.substring(5));
+                } else {
+                    throw new IOException("Unexpected answer from the daemon: " + line);
+                }
+            }
+            throw new IOException("The daemon closed the connection without answering");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int exitCode = new CompilerClient(CompilerDaemon.port()).compile(args, new File("."), System.out, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package me.tomassetti.turin.compiler.daemon;
+
+import com.google.common.base.Charsets;
+import me.tomassetti.turin.compiler.Compiler;
+import me.tomassetti.turin.parser.InternalParser;
+import me.tomassetti.turin.parser.ParserPool;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Long lived process accepting compilation requests on a local socket. Between requests it keeps the JVM, the parsers
+ * (the ANTLR DFA cache is static), the JdkTypeResolver and the JarTypeResolvers of the classpath elements warm. The
+ * parsers come from a pool, which is warmed up when the daemon starts and which bounds the size of the DFA.
+ *
+ * Requests are served one at the time, so watch mode, which never completes, is rejected. The protocol is line
+ * based:
+ * <ul>
+ *     <li>the client sends the working directory, then one argument per line, then an empty line.
+ *         A request consisting only of the argument {@value #STOP} terminates the daemon</li>
+ *     <li>the daemon answers with the lines printed by the compiler, prefixed by "out " or "err ", followed by a
+ *         line "exit &lt;code&gt;"</li>
+ * </ul>
+ */
+public class CompilerDaemon {
+
+    public static final int DEFAULT_PORT = 7483;
+    public static final String PORT_PROPERTY = "turin.daemon.port";
+    public static final String STOP = "--stop";
+
+    private int port;
+    private TypeResolverCache typeResolverCache = new TypeResolverCache();
+    private ParserPool parserPool = new ParserPool(InternalParser.PredictionStrategy.TWO_STAGE,
+            Runtime.getRuntime().availableProcessors(), ParserPool.DEFAULT_MAX_CACHED_STATES);
+
+    public CompilerDaemon(int port) {
+        this.port = port;
+    }
+
+    public static int port() {
+        return Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+    }
+
+    public void serve() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            parserPool.warmUp();
+            System.out.println("Turin compiler daemon listening on port " + serverSocket.getLocalPort());
+            serve(serverSocket);
+        }
+    }
+
+    void serve(ServerSocket serverSocket) {
+        boolean running = true;
+        while (running) {
+            try (Socket socket = serverSocket.accept()) {
+                running = serve(socket);
+            } catch (IOException e) {
+                System.err.println("Problem serving request: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Serve a single request. Return false when the daemon was asked to stop.
+     */
+    private boolean serve(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), Charsets.UTF_8));
+        String workingDir = reader.readLine();
+        List<String> args = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            args.add(line);
+        }
+        if (workingDir == null) {
+            return true;
+        }
+        if (args.size() == 1 && args.get(0).equals(STOP)) {
+            writer.write("exit 0\n");
+            writer.flush();
+            return false;
+        }
+
+        if (args.contains("-w") || args.contains("--watch")) {
+            writer.write("err Watch mode is not supported by the daemon: it would block all the other requests\n");
+            writer.write("exit 1\n");
+            writer.flush();
+            return true;
+        }
+
+        ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream out = new PrintStream(outBuffer, true, Charsets.UTF_8.name());
+             PrintStream err = new PrintStream(errBuffer, true, Charsets.UTF_8.name())) {
+            try {
+                exitCode = Compiler.run(args.toArray(new String[args.size()]), new File(workingDir), out, err, typeResolverCache,
+                        Optional.of(parserPool));
+            } catch (IOException | RuntimeException e) {
+                err.println("Error: " + e.getMessage());
+                exitCode = 2;
+            }
+        }
+        writeLines(writer, "out ", outBuffer);
+        writeLines(writer, "err ", errBuffer);
+        writer.write("exit " + exitCode + "\n");
+        writer.flush();
+        return true;
+    }
+
+    private static void writeLines(Writer writer, String prefix, ByteArrayOutputStream buffer) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(new String(buffer.toByteArray(), Charsets.UTF_8)));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            writer.write(prefix + line + "\n");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        new CompilerDaemon(port()).serve();
+    }
+
+}
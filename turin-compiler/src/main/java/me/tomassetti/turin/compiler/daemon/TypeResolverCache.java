@@ -0,0 +1,42 @@
+package me.tomassetti.turin.compiler.daemon;
+
+import me.tomassetti.turin.compiler.Compiler;
+import me.tomassetti.turin.resolvers.TypeResolver;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keep the TypeResolvers of the classpath elements across compilations. A jar is scanned again only when its size or
+ * its last modification time change.
+ */
+class TypeResolverCache implements Function<String, TypeResolver> {
+
+    private static class Entry {
+        private long length;
+        private long lastModified;
+        private TypeResolver typeResolver;
+
+        Entry(long length, long lastModified, TypeResolver typeResolver) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.typeResolver = typeResolver;
+        }
+    }
+
+    private Map<String, Entry> entries = new HashMap<>();
+
+    @Override
+    public TypeResolver apply(String classPathElement) {
+        File file = new File(classPathElement).getAbsoluteFile();
+        String key = file.getPath();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.length != file.length() || entry.lastModified != file.lastModified()) {
+            entry = new Entry(file.length(), file.lastModified(), Compiler.toTypeResolver(key));
+            entries.put(key, entry);
+        }
+        return entry.typeResolver;
+    }
+}
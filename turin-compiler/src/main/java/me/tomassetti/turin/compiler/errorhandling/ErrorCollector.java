@@ -6,4 +6,12 @@ public interface ErrorCollector {
 
     void recordSemanticError(Position position, String description);
 
+    /**
+     * Syntax errors are reported only by files parsed in recovering mode. By default they are recorded as the
+     * semantic errors.
+     */
+    default void recordSyntaxError(Position position, String description) {
+        recordSemanticError(position, description);
+    }
+
 }
@@ -0,0 +1,138 @@
+package me.tomassetti.turin.compiler.incremental;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The dependency graph of a build, as stored in the output directory between two invocations of the compiler.
+ *
+ * It is saved as a simple line based text file:
+ * <pre>
+ * version &lt;compiler version&gt;
+ * classpath &lt;classpath fingerprint&gt;
+ * source &lt;path&gt;
+ * hash &lt;hash&gt;
+ * defines &lt;qualified names&gt;
+ * references &lt;simple names&gt;
+ * produces &lt;class names&gt;
+ * </pre>
+ * The last five lines are repeated for each source file.
+ */
+public class BuildState {
+
+    private static final String VERSION = "version";
+    private static final String CLASSPATH = "classpath";
+    private static final String SOURCE = "source";
+    private static final String HASH = "hash";
+    private static final String DEFINES = "defines";
+    private static final String REFERENCES = "references";
+    private static final String PRODUCES = "produces";
+
+    private String compilerVersion;
+    private String classPathFingerprint;
+    private Map<String, SourceEntry> entries = new LinkedHashMap<>();
+
+    public BuildState(String compilerVersion, String classPathFingerprint) {
+        this.compilerVersion = compilerVersion;
+        this.classPathFingerprint = classPathFingerprint;
+    }
+
+    public String getCompilerVersion() {
+        return compilerVersion;
+    }
+
+    public String getClassPathFingerprint() {
+        return classPathFingerprint;
+    }
+
+    public boolean isCompatibleWith(String compilerVersion, String classPathFingerprint) {
+        return this.compilerVersion.equals(compilerVersion) && this.classPathFingerprint.equals(classPathFingerprint);
+    }
+
+    public Collection<SourceEntry> getEntries() {
+        return entries.values();
+    }
+
+    public Optional<SourceEntry> getEntry(String path) {
+        return Optional.ofNullable(entries.get(path));
+    }
+
+    public void add(SourceEntry entry) {
+        entries.put(entry.getPath(), entry);
+    }
+
+    /**
+     * Read the state saved in the given file. If the file does not exist an empty state is returned.
+     */
+    public static Optional<BuildState> load(File file) throws IOException {
+        if (!file.exists()) {
+            return Optional.empty();
+        }
+        BuildState state = new BuildState("", "");
+        SourceEntry entry = null;
+        for (String line : Files.readLines(file, Charsets.UTF_8)) {
+            int separator = line.indexOf(' ');
+            String key = separator == -1 ? line : line.substring(0, separator);
+            String value = separator == -1 ? "" : line.substring(separator + 1);
+            switch (key) {
+                case VERSION:
+                    state.compilerVersion = value;
+                    break;
+                case CLASSPATH:
+                    state.classPathFingerprint = value;
+                    break;
+                case SOURCE:
+                    entry = new SourceEntry(value);
+                    state.add(entry);
+                    break;
+                case HASH:
+                    entry(entry, file).setHash(value.isEmpty() ? null : value);
+                    break;
+                case DEFINES:
+                    entry(entry, file).getDefinedNames().addAll(split(value));
+                    break;
+                case REFERENCES:
+                    entry(entry, file).getReferencedNames().addAll(split(value));
+                    break;
+                case PRODUCES:
+                    entry(entry, file).getProducedClasses().addAll(split(value));
+                    break;
+                default:
+                    throw new IOException("Corrupted build state " + file.getPath() + ": unexpected line '" + line + "'");
+            }
+        }
+        return Optional.of(state);
+    }
+
+    public void save(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(VERSION + " " + compilerVersion);
+        lines.add(CLASSPATH + " " + classPathFingerprint);
+        for (SourceEntry entry : entries.values()) {
+            lines.add(SOURCE + " " + entry.getPath());
+            lines.add(HASH + " " + (entry.getHash() == null ? "" : entry.getHash()));
+            lines.add(DEFINES + " " + Joiner.on(' ').join(entry.getDefinedNames()));
+            lines.add(REFERENCES + " " + Joiner.on(' ').join(entry.getReferencedNames()));
+            lines.add(PRODUCES + " " + Joiner.on(' ').join(entry.getProducedClasses()));
+        }
+        file.getParentFile().mkdirs();
+        Files.write(Joiner.on('\n').join(lines) + "\n", file, Charsets.UTF_8);
+    }
+
+    private static SourceEntry entry(SourceEntry entry, File file) throws IOException {
+        if (entry == null) {
+            throw new IOException("Corrupted build state " + file.getPath() + ": source not specified");
+        }
+        return entry;
+    }
+
+    private static List<String> split(String value) {
+        return Splitter.on(' ').omitEmptyStrings().splitToList(value);
+    }
+}
@@ -0,0 +1,125 @@
+package me.tomassetti.turin.compiler.incremental;
+
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Program;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.TypeDefinitionNode;
+import me.tomassetti.turin.parser.ast.annotations.AnnotationUsage;
+import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.parser.ast.expressions.ContextAccess;
+import me.tomassetti.turin.parser.ast.expressions.Creation;
+import me.tomassetti.turin.parser.ast.expressions.RelationSubset;
+import me.tomassetti.turin.parser.ast.expressions.TypeIdentifier;
+import me.tomassetti.turin.parser.ast.expressions.ValueReference;
+import me.tomassetti.turin.parser.ast.imports.AllFieldsImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.SingleFieldImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.TypeImportDeclaration;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.parser.ast.relations.RelationDefinition;
+import me.tomassetti.turin.parser.ast.statements.ContextAssignment;
+import me.tomassetti.turin.parser.ast.typeusage.ReferenceTypeUsageNode;
+import me.tomassetti.turin.parser.ast.typeusage.TypeVariableTypeNode;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Find the names defined and the names referred by a TurinFile, without resolving any symbol.
+ *
+ * References are recorded as simple names: a reference to a simple name could be resolved through the imports or
+ * the namespace of the file, so we conservatively consider it a reference to every definition with that simple name.
+ */
+public final class DependencyCollector {
+
+    private DependencyCollector() {
+        // prevent instantiation
+    }
+
+    /**
+     * The qualified names of the top level elements defined in the file, as collected by the SrcSymbolResolver.
+     */
+    public static Set<String> definedNames(TurinFile turinFile) {
+        Set<String> names = new TreeSet<>();
+        for (TypeDefinitionNode typeDefinition : turinFile.getTopLevelTypeDefinitions()) {
+            names.add(typeDefinition.getQualifiedName());
+        }
+        for (PropertyDefinition propertyDefinition : turinFile.getTopLevelPropertyDefinitions()) {
+            names.add(propertyDefinition.getQualifiedName());
+        }
+        for (Program program : turinFile.getTopLevelPrograms()) {
+            names.add(program.getQualifiedName());
+        }
+        for (FunctionDefinitionNode functionDefinition : turinFile.getTopLevelFunctionDefinitions()) {
+            names.add(functionDefinition.getQualifiedName());
+        }
+        for (ContextDefinitionNode contextDefinition : turinFile.getTopLevelContextDefinitions()) {
+            names.add(contextDefinition.getQualifiedName());
+        }
+        for (RelationDefinition relationDefinition : turinFile.getTopLevelRelationDefinitions()) {
+            names.add(relationDefinition.contextName() + "." + relationDefinition.getName());
+        }
+        return names;
+    }
+
+    /**
+     * The simple names referred anywhere in the file.
+     */
+    public static Set<String> referencedNames(TurinFile turinFile) {
+        Set<String> names = new TreeSet<>();
+        collectReferences(turinFile, names);
+        return names;
+    }
+
+    public static String simpleName(String name) {
+        int index = name.lastIndexOf('.');
+        return index == -1 ? name : name.substring(index + 1);
+    }
+
+    private static void collectReferences(Node node, Set<String> names) {
+        if (node instanceof TypeVariableTypeNode) {
+            // it does not expose its children and it can only refer to other types through its bounds
+            return;
+        }
+        String name = referencedName(node);
+        if (name != null) {
+            names.add(simpleName(name));
+        }
+        if (node instanceof Creation) {
+            // the type instantiated is not among the children
+            collectReferences(((Creation) node).getType(), names);
+        }
+        for (Node child : node.getChildren()) {
+            collectReferences(child, names);
+        }
+    }
+
+    private static String referencedName(Node node) {
+        if (node instanceof ReferenceTypeUsageNode) {
+            return ((ReferenceTypeUsageNode) node).getName();
+        } else if (node instanceof TypeIdentifier) {
+            return ((TypeIdentifier) node).qualifiedName();
+        } else if (node instanceof ValueReference) {
+            return ((ValueReference) node).getName();
+        } else if (node instanceof PropertyReference) {
+            return ((PropertyReference) node).getName();
+        } else if (node instanceof AnnotationUsage) {
+            return ((AnnotationUsage) node).getName();
+        } else if (node instanceof ContextAccess) {
+            return ((ContextAccess) node).getContextName();
+        } else if (node instanceof ContextAssignment) {
+            return ((ContextAssignment) node).getContextName();
+        } else if (node instanceof RelationSubset) {
+            return ((RelationSubset) node).getRelationName();
+        } else if (node instanceof TypeImportDeclaration) {
+            return ((TypeImportDeclaration) node).getTypeName();
+        } else if (node instanceof SingleFieldImportDeclaration) {
+            return ((SingleFieldImportDeclaration) node).getTypeName();
+        } else if (node instanceof AllFieldsImportDeclaration) {
+            return ((AllFieldsImportDeclaration) node).getTypeName();
+        } else {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package me.tomassetti.turin.compiler.incremental;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.CompiledFile;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Decide which files have to be compiled again, considering the state of the previous build stored in the
+ * destination directory.
+ *
+ * A file is compiled again when its content changed, when it did not compile cleanly the last time, when one of the
+ * class files it produced is missing or when it refers (directly or transitively) to a name defined by a file which
+ * is compiled again or which was removed. When the compiler version or the classpath changed everything is compiled.
+ */
+public class IncrementalBuild {
+
+    public static final String STATE_FILE_NAME = ".turin-build";
+
+    private File destinationDir;
+    private BuildState previousState;
+    private BuildState currentState;
+    private Map<String, String> currentHashes = new HashMap<>();
+
+    public IncrementalBuild(File destinationDir, String compilerVersion, List<String> classPathElements) throws IOException {
+        this.destinationDir = destinationDir;
+        String classPathFingerprint = classPathFingerprint(classPathElements);
+        Optional<BuildState> loaded = BuildState.load(stateFile());
+        if (loaded.isPresent() && loaded.get().isCompatibleWith(compilerVersion, classPathFingerprint)) {
+            this.previousState = loaded.get();
+        } else {
+            // the previous build is ignored, but we still remember it to clean the files it produced
+            this.previousState = new BuildState(compilerVersion, classPathFingerprint);
+            if (loaded.isPresent()) {
+                loaded.get().getEntries().forEach((e) -> {
+                    SourceEntry unusable = new SourceEntry(e.getPath());
+                    unusable.getDefinedNames().addAll(e.getDefinedNames());
+                    unusable.getProducedClasses().addAll(e.getProducedClasses());
+                    previousState.add(unusable);
+                });
+            }
+        }
+        this.currentState = new BuildState(compilerVersion, classPathFingerprint);
+    }
+
+    private File stateFile() {
+        return new File(destinationDir, STATE_FILE_NAME);
+    }
+
+    private static String classPathFingerprint(List<String> classPathElements) {
+        return classPathElements.stream().map((cp) -> {
+            File file = new File(cp);
+            return file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        }).collect(Collectors.joining(File.pathSeparator)).replace(' ', '_');
+    }
+
+    private static String key(TurinFileWithSource turinFile) throws IOException {
+        return turinFile.getSource().getCanonicalPath();
+    }
+
+    /**
+     * Calculate the new dependency graph and return the files which need to be compiled, in the given order.
+     */
+    public List<TurinFileWithSource> filesToCompile(List<TurinFileWithSource> turinFiles) throws IOException {
+        Set<String> dirty = new HashSet<>();
+        Set<String> affectedNames = new HashSet<>();
+        for (TurinFileWithSource turinFile : turinFiles) {
+            String key = key(turinFile);
+            String hash = Files.hash(turinFile.getSource(), Hashing.sha1()).toString();
+            currentHashes.put(key, hash);
+
+            SourceEntry entry = new SourceEntry(key);
+            entry.getDefinedNames().addAll(DependencyCollector.definedNames(turinFile.getTurinFile()));
+            entry.getReferencedNames().addAll(DependencyCollector.referencedNames(turinFile.getTurinFile()));
+            Optional<SourceEntry> previous = previousState.getEntry(key);
+            if (previous.isPresent()) {
+                entry.getProducedClasses().addAll(previous.get().getProducedClasses());
+                entry.setHash(previous.get().getHash());
+            }
+            currentState.add(entry);
+
+            if (!previous.isPresent() || !hash.equals(previous.get().getHash()) || anyClassFileMissing(previous.get())) {
+                dirty.add(key);
+                addSimpleNames(entry.getDefinedNames(), affectedNames);
+                previous.ifPresent((p) -> addSimpleNames(p.getDefinedNames(), affectedNames));
+            }
+        }
+        for (SourceEntry removed : removedEntries()) {
+            addSimpleNames(removed.getDefinedNames(), affectedNames);
+        }
+
+        // propagate to the files depending on the affected names, until nothing changes
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (SourceEntry entry : currentState.getEntries()) {
+                if (!dirty.contains(entry.getPath()) && !Collections.disjoint(entry.getReferencedNames(), affectedNames)) {
+                    dirty.add(entry.getPath());
+                    addSimpleNames(entry.getDefinedNames(), affectedNames);
+                    changed = true;
+                }
+            }
+        }
+
+        List<TurinFileWithSource> toCompile = new ArrayList<>();
+        for (TurinFileWithSource turinFile : turinFiles) {
+            if (dirty.contains(key(turinFile))) {
+                toCompile.add(turinFile);
+            }
+        }
+        return toCompile;
+    }
+
+    /**
+     * Record the result of compiling a file. The hash is remembered only when the file was compiled without errors,
+     * so that a file with errors is compiled again at the next build.
+     */
+    public void record(CompiledFile compiledFile) throws IOException {
+        String key = key(compiledFile.getTurinFile());
+        SourceEntry entry = currentState.getEntry(key).orElseThrow(() -> new IllegalArgumentException(key));
+        if (compiledFile.hasErrors()) {
+            entry.setHash(null);
+        } else {
+            entry.setHash(currentHashes.get(key));
+            entry.getProducedClasses().clear();
+            for (ClassFileDefinition classFileDefinition : compiledFile.getClassFileDefinitions()) {
+                entry.getProducedClasses().add(classFileDefinition.getName());
+            }
+        }
+    }
+
+    /**
+     * Delete the class files which are not produced anymore and save the new state.
+     */
+    public void complete() throws IOException {
+        Set<String> produced = new HashSet<>();
+        for (SourceEntry entry : currentState.getEntries()) {
+            produced.addAll(entry.getProducedClasses());
+        }
+        for (SourceEntry entry : previousState.getEntries()) {
+            for (String className : entry.getProducedClasses()) {
+                if (!produced.contains(className)) {
+                    classFile(className).delete();
+                }
+            }
+        }
+        currentState.save(stateFile());
+    }
+
+    private List<SourceEntry> removedEntries() {
+        return previousState.getEntries().stream()
+                .filter((e) -> !currentState.getEntry(e.getPath()).isPresent())
+                .collect(Collectors.toList());
+    }
+
+    private boolean anyClassFileMissing(SourceEntry entry) {
+        return entry.getProducedClasses().stream().anyMatch((className) -> !classFile(className).exists());
+    }
+
+    private File classFile(String className) {
+        return new File(destinationDir, className.replace('.', '/') + ".class");
+    }
+
+    private static void addSimpleNames(Set<String> qualifiedNames, Set<String> simpleNames) {
+        qualifiedNames.forEach((n) -> simpleNames.add(DependencyCollector.simpleName(n)));
+    }
+}
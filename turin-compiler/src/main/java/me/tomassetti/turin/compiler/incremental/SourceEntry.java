@@ -0,0 +1,47 @@
+package me.tomassetti.turin.compiler.incremental;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * What we remember about a source file between two builds.
+ */
+public class SourceEntry {
+
+    private String path;
+    private String hash;
+    private Set<String> definedNames = new TreeSet<>();
+    private Set<String> referencedNames = new TreeSet<>();
+    private Set<String> producedClasses = new TreeSet<>();
+
+    public SourceEntry(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * The hash of the content of the file when it was last compiled without errors, null otherwise.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Set<String> getDefinedNames() {
+        return definedNames;
+    }
+
+    public Set<String> getReferencedNames() {
+        return referencedNames;
+    }
+
+    public Set<String> getProducedClasses() {
+        return producedClasses;
+    }
+}
@@ -0,0 +1,65 @@
+package me.tomassetti.turin.compiler.output;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Perform the writes of another sink on a dedicated thread, so that the threads producing the class files do not
+ * wait for the I/O. The writes are executed in the order in which they are requested.
+ */
+public class AsyncClassFileSink implements ClassFileSink {
+
+    private ClassFileSink sink;
+    private ExecutorService executor = Executors.newSingleThreadExecutor((r) -> {
+        Thread thread = new Thread(r, "turin-class-file-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private List<Future<?>> pendingWrites = new ArrayList<>();
+
+    public AsyncClassFileSink(ClassFileSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public synchronized void write(ClassFileDefinition classFileDefinition) {
+        pendingWrites.add(executor.submit(() -> {
+            sink.write(classFileDefinition);
+            return null;
+        }));
+    }
+
+    /**
+     * Wait for all the writes to be completed and close the underlying sink. The first problem encountered while
+     * writing is reported.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            for (Future<?> pendingWrite : pendingWrites) {
+                pendingWrite.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new IOException(e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+            sink.close();
+        }
+    }
+}
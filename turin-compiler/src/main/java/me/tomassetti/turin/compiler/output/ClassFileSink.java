@@ -0,0 +1,18 @@
+package me.tomassetti.turin.compiler.output;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of the class files produced by the compiler. All the writes are completed when close returns.
+ */
+public interface ClassFileSink extends Closeable {
+
+    void write(ClassFileDefinition classFileDefinition) throws IOException;
+
+    static String classFilePath(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+}
@@ -0,0 +1,53 @@
+package me.tomassetti.turin.compiler.output;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Write each class file in a directory, following the package structure.
+ *
+ * A class file with exactly the same content of the existing one is not written, so its last modification time is
+ * preserved and tools looking at it do not consider it changed.
+ */
+public class DirectoryClassFileSink implements ClassFileSink {
+
+    private File directory;
+    private Set<File> createdDirectories = new HashSet<>();
+
+    public DirectoryClassFileSink(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void write(ClassFileDefinition classFileDefinition) throws IOException {
+        File classFile = new File(directory, ClassFileSink.classFilePath(classFileDefinition.getName()));
+        byte[] bytecode = classFileDefinition.getBytecode();
+        if (isUnchanged(classFile, bytecode)) {
+            return;
+        }
+        File parent = classFile.getParentFile();
+        if (createdDirectories.add(parent) && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent.getPath());
+        }
+        try (FileOutputStream fos = new FileOutputStream(classFile)) {
+            fos.write(bytecode);
+        }
+    }
+
+    private static boolean isUnchanged(File classFile, byte[] bytecode) throws IOException {
+        return classFile.isFile() && classFile.length() == bytecode.length
+                && Arrays.equals(Files.readAllBytes(classFile.toPath()), bytecode);
+    }
+
+    @Override
+    public void close() {
+        createdDirectories.clear();
+    }
+}
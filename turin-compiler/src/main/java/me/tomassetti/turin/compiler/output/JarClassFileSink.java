@@ -0,0 +1,88 @@
+package me.tomassetti.turin.compiler.output;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Write all the class files in a single jar, through one buffered stream.
+ *
+ * The entries have a fixed timestamp, so compiling the same sources produces the same jar: in that case the existing
+ * jar is left untouched. Entries can be stored without compression, which is faster to write and to read.
+ */
+public class JarClassFileSink implements ClassFileSink {
+
+    private static final long ENTRY_TIME = 315532800000L; // 1980-01-01, the minimum supported by the zip format
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private File jar;
+    private File temporaryJar;
+    private boolean stored;
+    private JarOutputStream jarOutputStream;
+
+    public JarClassFileSink(File jar, boolean stored) throws IOException {
+        this.jar = jar.getAbsoluteFile();
+        this.stored = stored;
+        File parent = this.jar.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent.getPath());
+        }
+        this.temporaryJar = new File(parent, this.jar.getName() + ".tmp");
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        this.jarOutputStream = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryJar), BUFFER_SIZE));
+        write(JarFile.MANIFEST_NAME, manifestBytes(manifest));
+    }
+
+    private static byte[] manifestBytes(Manifest manifest) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        manifest.write(baos);
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void write(ClassFileDefinition classFileDefinition) throws IOException {
+        write(ClassFileSink.classFilePath(classFileDefinition.getName()), classFileDefinition.getBytecode());
+    }
+
+    private void write(String name, byte[] content) throws IOException {
+        JarEntry entry = new JarEntry(name);
+        entry.setTime(ENTRY_TIME);
+        if (stored) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        jarOutputStream.putNextEntry(entry);
+        jarOutputStream.write(content);
+        jarOutputStream.closeEntry();
+    }
+
+    @Override
+    public void close() throws IOException {
+        jarOutputStream.close();
+        if (jar.isFile() && jar.length() == temporaryJar.length()
+                && Arrays.equals(Files.readAllBytes(jar.toPath()), Files.readAllBytes(temporaryJar.toPath()))) {
+            Files.delete(temporaryJar.toPath());
+        } else {
+            Files.move(temporaryJar.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
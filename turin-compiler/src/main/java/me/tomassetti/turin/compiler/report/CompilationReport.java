@@ -0,0 +1,189 @@
+package me.tomassetti.turin.compiler.report;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Collect the measurements of the phases of the compilation for each source file and write them as JSON.
+ *
+ * The report can be filled by several threads at the same time.
+ */
+public class CompilationReport {
+
+    @FunctionalInterface
+    public interface Activity<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    /**
+     * The measurements of a single source file.
+     */
+    public static class FileReport {
+
+        private String path;
+        private Map<Phase, Measurement> measurements = Collections.synchronizedMap(new EnumMap<>(Phase.class));
+
+        private FileReport(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Measurement getMeasurement(Phase phase) {
+            return measurements.computeIfAbsent(phase, (p) -> new Measurement());
+        }
+
+        /**
+         * Execute the activity on the current thread, attributing its cost to the given phase.
+         */
+        public <T, E extends Exception> T measure(Phase phase, Activity<T, E> activity) throws E {
+            long startWall = System.nanoTime();
+            long startCpu = Measurement.currentThreadCpuTime();
+            long startAllocated = Measurement.currentThreadAllocatedBytes();
+            try {
+                return activity.execute();
+            } finally {
+                long endAllocated = Measurement.currentThreadAllocatedBytes();
+                long endCpu = Measurement.currentThreadCpuTime();
+                long endWall = System.nanoTime();
+                getMeasurement(phase).add(endWall - startWall,
+                        startCpu < 0 ? -1 : endCpu - startCpu,
+                        startAllocated < 0 ? -1 : endAllocated - startAllocated);
+            }
+        }
+    }
+
+    private String compilerVersion;
+    private int jobs;
+    private long startWall = System.nanoTime();
+    private long endWall = -1;
+    private Map<String, FileReport> files = new LinkedHashMap<>();
+    private Map<String, FileReport> filesByClassName = new HashMap<>();
+
+    public CompilationReport(String compilerVersion, int jobs) {
+        this.compilerVersion = compilerVersion;
+        this.jobs = jobs;
+    }
+
+    public synchronized FileReport forFile(String path) {
+        return files.computeIfAbsent(path, FileReport::new);
+    }
+
+    /**
+     * Remember which file produced the class, so that writing the class file is attributed to the file.
+     */
+    public synchronized void recordOrigin(String className, FileReport fileReport) {
+        filesByClassName.put(className, fileReport);
+    }
+
+    public synchronized FileReport forClass(String className) {
+        FileReport fileReport = filesByClassName.get(className);
+        if (fileReport == null) {
+            throw new IllegalArgumentException("Unknown class " + className);
+        }
+        return fileReport;
+    }
+
+    /**
+     * Mark the end of the compilation: the total wall time is measured up to this point.
+     */
+    public synchronized void completed() {
+        endWall = System.nanoTime();
+    }
+
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"compilerVersion\": ").append(quote(compilerVersion)).append(",\n");
+        sb.append("  \"jobs\": ").append(jobs).append(",\n");
+        sb.append("  \"wallNanos\": ").append((endWall == -1 ? System.nanoTime() : endWall) - startWall).append(",\n");
+        Map<Phase, Measurement> totals = new EnumMap<>(Phase.class);
+        for (FileReport fileReport : files.values()) {
+            for (Phase phase : Phase.values()) {
+                totals.computeIfAbsent(phase, (p) -> new Measurement()).add(fileReport.getMeasurement(phase));
+            }
+        }
+        sb.append("  \"phases\": ");
+        appendPhases(sb, totals, "  ");
+        sb.append(",\n");
+        sb.append("  \"files\": [");
+        boolean first = true;
+        for (FileReport fileReport : files.values()) {
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append("    {\n");
+            sb.append("      \"path\": ").append(quote(fileReport.getPath())).append(",\n");
+            sb.append("      \"phases\": ");
+            Map<Phase, Measurement> measurements = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                measurements.put(phase, fileReport.getMeasurement(phase));
+            }
+            appendPhases(sb, measurements, "      ");
+            sb.append("\n    }");
+        }
+        sb.append(first ? "]\n" : "\n  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent.getPath());
+        }
+        Files.write(toJson(), file, Charsets.UTF_8);
+    }
+
+    private static void appendPhases(StringBuilder sb, Map<Phase, Measurement> measurements, String indentation) {
+        sb.append("{");
+        boolean first = true;
+        for (Map.Entry<Phase, Measurement> entry : measurements.entrySet()) {
+            Measurement measurement = entry.getValue();
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append(indentation).append("  ").append(quote(entry.getKey().getJsonName())).append(": {")
+                    .append("\"count\": ").append(measurement.getCount())
+                    .append(", \"wallNanos\": ").append(measurement.getWallNanos())
+                    .append(", \"cpuNanos\": ").append(measurement.getCpuNanos())
+                    .append(", \"allocatedBytes\": ").append(measurement.getAllocatedBytes())
+                    .append("}");
+        }
+        sb.append("\n").append(indentation).append("}");
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append("\"").toString();
+    }
+}
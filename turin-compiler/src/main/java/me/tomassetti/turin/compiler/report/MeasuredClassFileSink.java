@@ -0,0 +1,33 @@
+package me.tomassetti.turin.compiler.report;
+
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.output.ClassFileSink;
+
+import java.io.IOException;
+
+/**
+ * Attribute the time spent writing each class file to the source file which produced it.
+ */
+public class MeasuredClassFileSink implements ClassFileSink {
+
+    private ClassFileSink sink;
+    private CompilationReport report;
+
+    public MeasuredClassFileSink(ClassFileSink sink, CompilationReport report) {
+        this.sink = sink;
+        this.report = report;
+    }
+
+    @Override
+    public void write(ClassFileDefinition classFileDefinition) throws IOException {
+        report.forClass(classFileDefinition.getName()).measure(Phase.CLASS_FILE_WRITING, () -> {
+            sink.write(classFileDefinition);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        sink.close();
+    }
+}
@@ -0,0 +1,81 @@
+package me.tomassetti.turin.compiler.report;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Wall time, CPU time and bytes allocated by the activities of a phase, summed over all the times it was executed.
+ *
+ * CPU time and allocated bytes are measured on the thread executing the activity, so they are correct also when
+ * several files are compiled in parallel. They are negative when the JVM does not support measuring them.
+ */
+public class Measurement {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private int count;
+
+    public synchronized long getWallNanos() {
+        return wallNanos;
+    }
+
+    public synchronized long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    synchronized void add(long wallNanos, long cpuNanos, long allocatedBytes) {
+        add(wallNanos, cpuNanos, allocatedBytes, 1);
+    }
+
+    void add(Measurement other) {
+        long otherWallNanos;
+        long otherCpuNanos;
+        long otherAllocatedBytes;
+        int otherCount;
+        synchronized (other) {
+            otherWallNanos = other.wallNanos;
+            otherCpuNanos = other.cpuNanos;
+            otherAllocatedBytes = other.allocatedBytes;
+            otherCount = other.count;
+        }
+        synchronized (this) {
+            add(otherWallNanos, otherCpuNanos, otherAllocatedBytes, otherCount);
+        }
+    }
+
+    private void add(long wallNanos, long cpuNanos, long allocatedBytes, int count) {
+        this.wallNanos += wallNanos;
+        this.cpuNanos = this.cpuNanos < 0 || cpuNanos < 0 ? -1 : this.cpuNanos + cpuNanos;
+        this.allocatedBytes = this.allocatedBytes < 0 || allocatedBytes < 0 ? -1 : this.allocatedBytes + allocatedBytes;
+        this.count += count;
+    }
+
+    static long currentThreadCpuTime() {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        } else {
+            return -1;
+        }
+    }
+
+    static long currentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
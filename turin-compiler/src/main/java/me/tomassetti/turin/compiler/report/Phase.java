@@ -0,0 +1,23 @@
+package me.tomassetti.turin.compiler.report;
+
+/**
+ * The phases of the compilation which are measured separately.
+ */
+public enum Phase {
+    LEXING("lexing"),
+    PARSING("parsing"),
+    AST_CONVERSION("astConversion"),
+    VALIDATION("validation"),
+    BYTECODE_GENERATION("bytecodeGeneration"),
+    CLASS_FILE_WRITING("classFileWriting");
+
+    private String jsonName;
+
+    Phase(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+}
@@ -0,0 +1,130 @@
+package me.tomassetti.turin.compiler.watch;
+
+import me.tomassetti.turin.parser.Parser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watch the source files and directories, reporting the files which changed.
+ *
+ * Editors often write a file several times when saving it, so changes are collected until no new change arrives for
+ * the debounce interval and then they are reported together. Directories created later are watched as well.
+ * In the watched directories only the source files are reported, as Parser.findSources does, so backup files
+ * written by editors and class files written among the sources are ignored. Hidden files are always ignored, because
+ * they are usually temporary files written by editors.
+ */
+public class SourceWatcher implements Closeable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private WatchService watchService;
+    private Map<WatchKey, Path> watchedDirs = new HashMap<>();
+    private Set<Path> watchedFiles = new HashSet<>();
+    private Set<Path> recursivelyWatchedDirs = new HashSet<>();
+    private long debounceMillis;
+
+    /**
+     * The sources can be files or directories: directories are watched recursively.
+     */
+    public SourceWatcher(Iterable<File> sources, long debounceMillis) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounceMillis = debounceMillis;
+        for (File source : sources) {
+            Path path = source.toPath().toAbsolutePath().normalize();
+            if (Files.isDirectory(path)) {
+                watchRecursively(path);
+            } else {
+                // the WatchService works on directories, the other files there are filtered out
+                watchedFiles.add(path);
+                watchDir(path.getParent());
+            }
+        }
+    }
+
+    private void watchDir(Path dir) throws IOException {
+        if (!watchedDirs.containsValue(dir)) {
+            watchedDirs.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+        }
+    }
+
+    private void watchRecursively(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(root) && isHidden(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                watchDir(dir);
+                recursivelyWatchedDirs.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean isHidden(Path path) {
+        return path.getFileName().toString().startsWith(".");
+    }
+
+    private boolean isRelevantDir(Path path) {
+        return !isHidden(path) && recursivelyWatchedDirs.contains(path.getParent());
+    }
+
+    private boolean isRelevant(Path path) {
+        return !isHidden(path) && (watchedFiles.contains(path)
+                || (recursivelyWatchedDirs.contains(path.getParent()) && Parser.isSource(path)));
+    }
+
+    /**
+     * Block until some files change and return them. Deleted files are included: the caller can check whether they
+     * still exist.
+     */
+    public Set<File> awaitChanges() throws IOException, InterruptedException {
+        Set<File> changes = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            collect(key, changes);
+            key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+            if (key == null && changes.isEmpty()) {
+                // only irrelevant changes so far: keep waiting
+                key = watchService.take();
+            }
+        }
+        return changes;
+    }
+
+    private void collect(WatchKey key, Set<File> changes) throws IOException {
+        Path dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || dir == null) {
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path) && isRelevantDir(path)) {
+                // files created together with the directory are not notified, so they are collected here
+                watchRecursively(path);
+                try (Stream<Path> created = Files.walk(path)) {
+                    created.filter(Files::isRegularFile).filter(this::isRelevant).forEach((p) -> changes.add(p.toFile()));
+                }
+            } else if (!Files.isDirectory(path) && isRelevant(path)) {
+                changes.add(path.toFile());
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,168 @@
+package me.tomassetti.turin.compiler.watch;
+
+import me.tomassetti.turin.compiler.CompiledFile;
+import me.tomassetti.turin.compiler.Compiler;
+import me.tomassetti.turin.compiler.cache.CacheKeys;
+import me.tomassetti.turin.compiler.cache.DirectoryBuildCache;
+import me.tomassetti.turin.compiler.incremental.IncrementalBuild;
+import me.tomassetti.turin.compiler.output.AsyncClassFileSink;
+import me.tomassetti.turin.compiler.output.ClassFileSink;
+import me.tomassetti.turin.compiler.output.DirectoryClassFileSink;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.resolvers.SrcSymbolResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Keep the compiler running, recompiling the sources as they change.
+ *
+ * The ASTs of the files which did not change, the resolvers and the parser are kept between rebuilds. At each rebuild
+ * the changed files are parsed again and the SrcSymbolResolver is updated in place. Then the files to compile are
+ * chosen as in an incremental build. The files depending on the changed ones are parsed again as well, because their
+ * ASTs cache the definitions they resolved.
+ */
+public class WatchSession {
+
+    private Compiler compiler;
+    private Compiler.Options options;
+    private String compilerVersion;
+    private SrcSymbolResolver srcSymbolResolver;
+    private List<TurinFileWithSource> turinFiles;
+    private PrintStream out;
+    private PrintStream err;
+    private Parser parser;
+
+    /**
+     * The given list of files is updated at each rebuild. The compiler must use the given SrcSymbolResolver and it
+     * must have already registered the files.
+     */
+    public WatchSession(Compiler compiler, Compiler.Options options, String compilerVersion,
+                        SrcSymbolResolver srcSymbolResolver, List<TurinFileWithSource> turinFiles,
+                        PrintStream out, PrintStream err) {
+        this(compiler, options, compilerVersion, srcSymbolResolver, turinFiles, out, err, new Parser());
+    }
+
+    /**
+     * The changed files are parsed with the given parser, which can take its lexer and parser from a pool.
+     */
+    public WatchSession(Compiler compiler, Compiler.Options options, String compilerVersion,
+                        SrcSymbolResolver srcSymbolResolver, List<TurinFileWithSource> turinFiles,
+                        PrintStream out, PrintStream err, Parser parser) {
+        this.compiler = compiler;
+        this.options = options;
+        this.compilerVersion = compilerVersion;
+        this.srcSymbolResolver = srcSymbolResolver;
+        this.turinFiles = turinFiles;
+        this.out = out;
+        this.err = err;
+        this.parser = parser;
+    }
+
+    /**
+     * Rebuild each time the given files or directories change, until the thread is interrupted.
+     */
+    public void run(List<File> sources) throws IOException {
+        try (SourceWatcher watcher = new SourceWatcher(sources, SourceWatcher.DEFAULT_DEBOUNCE_MILLIS)) {
+            while (!Thread.currentThread().isInterrupted()) {
+                out.println(" [watching for changes]");
+                Set<File> changes = watcher.awaitChanges();
+                rebuild(changes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Apply the given changes and compile the affected files. As in the first build the changed files are parsed in
+     * recovering mode, so all their syntax errors are reported when they are compiled. Return the files compiled.
+     */
+    public List<CompiledFile> rebuild(Set<File> changes) throws IOException {
+        Set<Path> reparsed = new HashSet<>();
+        for (File change : changes) {
+            Path path = normalize(change);
+            if (change.isFile()) {
+                reparse(change, path);
+                reparsed.add(path);
+            } else {
+                // the file was deleted, or a directory containing some files
+                for (TurinFileWithSource turinFile : new ArrayList<>(turinFiles)) {
+                    if (normalize(turinFile.getSource()).startsWith(path)) {
+                        forget(turinFile);
+                        turinFiles.remove(turinFile);
+                    }
+                }
+            }
+        }
+
+        File destinationDir = new File(options.getDestinationDir());
+        IncrementalBuild incrementalBuild = new IncrementalBuild(destinationDir, compilerVersion, options.getClassPathElements());
+        List<TurinFileWithSource> toCompile = new ArrayList<>();
+        for (TurinFileWithSource turinFile : incrementalBuild.filesToCompile(turinFiles)) {
+            Path path = normalize(turinFile.getSource());
+            if (!reparsed.contains(path)) {
+                reparse(turinFile.getSource(), path);
+            }
+            toCompile.add(turinFiles.get(indexOf(path)));
+        }
+
+        if (options.getCache() != null) {
+            compiler.useBuildCache(new DirectoryBuildCache(new File(options.getCache())),
+                    CacheKeys.calculate(turinFiles, compilerVersion, options.getClassPathElements()));
+        }
+        List<CompiledFile> compiledFiles;
+        try (ClassFileSink sink = new AsyncClassFileSink(new DirectoryClassFileSink(destinationDir))) {
+            compiledFiles = compiler.compileAll(toCompile, Optional.of(sink));
+        }
+        for (CompiledFile compiledFile : compiledFiles) {
+            incrementalBuild.record(compiledFile);
+        }
+        incrementalBuild.complete();
+        long failed = compiledFiles.stream().filter(CompiledFile::hasErrors).count();
+        out.println(" [compiled " + compiledFiles.size() + " of " + turinFiles.size() + " files"
+                + (failed == 0 ? "" : ", " + failed + " with errors") + "]");
+        return compiledFiles;
+    }
+
+    /**
+     * Parse the file again and replace its previous version. The syntax errors are kept in the AST, to be reported
+     * by its validation.
+     */
+    private void reparse(File file, Path path) throws IOException {
+        TurinFile turinFile = parser.parseRecovering(file);
+        TurinFileWithSource replacement = new TurinFileWithSource(file, turinFile);
+        int index = indexOf(path);
+        if (index != -1) {
+            forget(turinFiles.get(index));
+            turinFiles.set(index, replacement);
+        } else {
+            turinFiles.add(replacement);
+        }
+        srcSymbolResolver.add(turinFile);
+        compiler.register(Collections.singletonList(replacement));
+    }
+
+    private void forget(TurinFileWithSource turinFile) {
+        srcSymbolResolver.remove(turinFile.getTurinFile());
+        compiler.unregister(Collections.singletonList(turinFile));
+    }
+
+    private int indexOf(Path path) {
+        for (int i = 0; i < turinFiles.size(); i++) {
+            if (normalize(turinFiles.get(i).getSource()).equals(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Path normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,205 @@
+package me.tomassetti.turin.parser;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import me.tomassetti.parser.antlr.TurinParser;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Point;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parse a file again after an edit, reusing the previous results. It is intended for editors, which parse the same
+ * file after each change.
+ *
+ * When the edit falls inside a single member of the file (a type, a function, a program, a relation, a property or a
+ * context) only that member is lexed and parsed again and its node is replaced in the existing TurinFile. The nodes
+ * and the tokens following it are moved to their new lines. In all the other cases the whole file is parsed again.
+ *
+ * Other nodes could have cached definitions resolved in the replaced member: they are not updated.
+ */
+public class IncrementalParser {
+
+    /**
+     * Replace the text between start (inclusive) and end (exclusive) with the given one.
+     */
+    public static class TextEdit {
+        private int start;
+        private int end;
+        private String replacement;
+
+        public TextEdit(int start, int end, String replacement) {
+            if (start < 0 || end < start) {
+                throw new IllegalArgumentException();
+            }
+            this.start = start;
+            this.end = end;
+            this.replacement = replacement;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public String getReplacement() {
+            return replacement;
+        }
+    }
+
+    /**
+     * The result of parsing a file, which can be updated after an edit.
+     */
+    public static class ParsedFile {
+        private String text;
+        private TurinFile turinFile;
+        private List<Token> tokens;
+        // first and last token of each member, in the same order of the top nodes of the TurinFile
+        private List<int[]> members;
+        private boolean incremental;
+
+        private ParsedFile(String text, TurinFile turinFile, List<Token> tokens, List<int[]> members, boolean incremental) {
+            this.text = text;
+            this.turinFile = turinFile;
+            this.tokens = tokens;
+            this.members = members;
+            this.incremental = incremental;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public TurinFile getTurinFile() {
+            return turinFile;
+        }
+
+        public List<Token> getTokens() {
+            return Collections.unmodifiableList(tokens);
+        }
+
+        /**
+         * Was only the edited member parsed again?
+         */
+        public boolean isIncremental() {
+            return incremental;
+        }
+    }
+
+    private InternalParser internalParser = new InternalParser();
+    // shared by all the versions of the file, weak because an editor session can be long
+    private Interner<String> names = Interners.newWeakInterner();
+
+    public ParsedFile parse(String text) {
+        CommonTokenStream tokenStream = internalParser.lex(new CharBufferCharStream(CharBuffer.wrap(text), "<editor>"));
+        TurinParser.TurinFileContext parseTree = internalParser.produceParseTree(tokenStream);
+        List<int[]> members = new ArrayList<>();
+        for (TurinParser.FileMemberContext memberCtx : parseTree.fileMember()) {
+            members.add(new int[]{memberCtx.start.getTokenIndex(), memberCtx.stop.getTokenIndex()});
+        }
+        return new ParsedFile(text, new ParseTreeToAst(false, names).toAst(parseTree), new ArrayList<>(tokenStream.getTokens()), members, false);
+    }
+
+    /**
+     * Apply the edit to the previous result. The previous result should not be used anymore, because the TurinFile
+     * is shared and updated in place.
+     */
+    public ParsedFile reparse(ParsedFile previous, TextEdit edit) {
+        String text = previous.text.substring(0, edit.start) + edit.replacement + previous.text.substring(edit.end);
+        for (int i = 0; i < previous.members.size(); i++) {
+            int firstToken = previous.members.get(i)[0];
+            int lastToken = previous.members.get(i)[1];
+            int start = previous.tokens.get(firstToken).getStartIndex();
+            int end = previous.tokens.get(lastToken).getStopIndex() + 1;
+            if (edit.start >= start && edit.end <= end) {
+                try {
+                    return reparseMember(previous, edit, text, i);
+                } catch (RuntimeException e) {
+                    // the edit changed more than the member: for example it split it in two
+                    break;
+                }
+            }
+        }
+        return parse(text);
+    }
+
+    private ParsedFile reparseMember(ParsedFile previous, TextEdit edit, String text, int memberIndex) {
+        int firstToken = previous.members.get(memberIndex)[0];
+        int lastToken = previous.members.get(memberIndex)[1];
+        Token first = previous.tokens.get(firstToken);
+        Token following = previous.tokens.get(lastToken + 1);
+        if (following.getType() != Token.EOF && following.getLine() == previous.tokens.get(lastToken).getLine()) {
+            throw new IllegalStateException("The following member starts on the same line");
+        }
+        int charsDelta = edit.replacement.length() - (edit.end - edit.start);
+        int linesDelta = countLines(edit.replacement) - countLines(previous.text.substring(edit.start, edit.end));
+        int start = first.getStartIndex();
+        int end = previous.tokens.get(lastToken).getStopIndex() + 1 + charsDelta;
+
+        CharBuffer region = CharBuffer.wrap(text, start, end).slice();
+        CommonTokenStream regionTokens = internalParser.lexRegion(new CharBufferCharStream(region, "<editor>"),
+                first.getLine(), first.getCharPositionInLine());
+        TurinParser.FileMemberContext memberCtx = internalParser.produceFileMemberParseTree(regionTokens);
+        Node member = new ParseTreeToAst(false, names).toAst(memberCtx);
+
+        // the tokens of the member are replaced, the following ones are moved
+        List<Token> tokens = new ArrayList<>(previous.tokens.subList(0, firstToken));
+        List<Token> newMemberTokens = regionTokens.getTokens();
+        for (Token token : newMemberTokens.subList(0, newMemberTokens.size() - 1)) {
+            tokens.add(moved(token, start, 0, firstToken));
+        }
+        int tokensDelta = newMemberTokens.size() - 1 - (lastToken - firstToken + 1);
+        for (Token token : previous.tokens.subList(lastToken + 1, previous.tokens.size())) {
+            tokens.add(moved(token, charsDelta, linesDelta, tokensDelta));
+        }
+        List<int[]> members = new ArrayList<>(previous.members.subList(0, memberIndex));
+        members.add(new int[]{firstToken, firstToken + newMemberTokens.size() - 2});
+        for (int[] followingMember : previous.members.subList(memberIndex + 1, previous.members.size())) {
+            members.add(new int[]{followingMember[0] + tokensDelta, followingMember[1] + tokensDelta});
+        }
+
+        TurinFile turinFile = previous.turinFile;
+        List<Node> topNodes = turinFile.getNodes();
+        for (Node node : topNodes.subList(memberIndex + 1, topNodes.size())) {
+            node.shiftLines(linesDelta);
+        }
+        turinFile.replace(topNodes.get(memberIndex), member);
+        Position position = turinFile.getPosition();
+        turinFile.setPosition(new Position(position.getStart(),
+                new Point(position.getEnd().getLine() + linesDelta, position.getEnd().getColumn())));
+        return new ParsedFile(text, turinFile, tokens, members, true);
+    }
+
+    private static Token moved(Token token, int charsDelta, int linesDelta, int tokensDelta) {
+        CommonToken moved = new CommonToken(token);
+        // the text is read before moving the token, while it still refers to its original input
+        moved.setText(token.getText());
+        moved.setStartIndex(token.getStartIndex() + charsDelta);
+        moved.setStopIndex(token.getStopIndex() + charsDelta);
+        moved.setLine(token.getLine() + linesDelta);
+        moved.setTokenIndex(token.getTokenIndex() + tokensDelta);
+        return moved;
+    }
+
+    private static int countLines(String text) {
+        int lines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+}
@@ -1,6 +1,8 @@
 package me.tomassetti.turin.parser;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import me.tomassetti.parser.antlr.TurinParser;
 import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
 import me.tomassetti.turin.parser.ast.typeusage.BasicTypeUsageNode;
@@ -22,22 +24,54 @@ import me.tomassetti.turin.parser.ast.typeusage.*;
 import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
 
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 class ParseTreeToAst {
 
+    private static final String PLACEHOLDER_NAMESPACE = "unparsed";
+
+    private boolean lazyBodies;
+    private Interner<String> names;
+
+    public ParseTreeToAst() {
+        this(false);
+    }
+
+    public ParseTreeToAst(boolean lazyBodies) {
+        this(lazyBodies, Interners.newStrongInterner());
+    }
+
+    /**
+     * With lazy bodies the statements of functions, methods and programs are converted only when first accessed.
+     * Until then the parse tree is kept.
+     *
+     * Identifiers and type names are interned with the given interner, so that each name is represented by the same
+     * String in all the files sharing it.
+     */
+    public ParseTreeToAst(boolean lazyBodies, Interner<String> names) {
+        this.lazyBodies = lazyBodies;
+        this.names = names;
+    }
+
     private Position getPosition(ParserRuleContext ctx) {
         return new Position(getStartPoint(ctx.start), getEndPoint(ctx.stop));
     }
 
     private void getPositionFrom(Node node, ParserRuleContext ctx) {
-        node.setPosition(getPosition(ctx));
+        // set directly, the position is packed by the node
+        node.setPosition(ctx.start.getLine(), ctx.start.getCharPositionInLine(),
+                ctx.stop.getLine(), ctx.stop.getCharPositionInLine() + ctx.stop.getText().length());
     }
 
     private Point getStartPoint(Token token) {
@@ -53,22 +87,7 @@ class ParseTreeToAst {
         getPositionFrom(turinFile, ctx);
         turinFile.setNameSpace(toAst(ctx.namespace));
         for (TurinParser.FileMemberContext memberCtx : ctx.fileMember()) {
-            Node memberNode = toAst(memberCtx);
-            if (memberNode instanceof TurinTypeDefinition) {
-                turinFile.add((TurinTypeDefinition)memberNode);
-            } else if (memberNode instanceof PropertyDefinition) {
-                turinFile.add((PropertyDefinition) memberNode);
-            } else if (memberNode instanceof Program) {
-                turinFile.add((Program) memberNode);
-            } else if (memberNode instanceof FunctionDefinitionNode) {
-                turinFile.add((FunctionDefinitionNode)memberNode);
-            } else if (memberNode instanceof RelationDefinition) {
-                turinFile.add((RelationDefinition) memberNode);
-            } else if (memberNode instanceof ContextDefinitionNode) {
-                turinFile.add((ContextDefinitionNode) memberNode);
-            } else {
-                throw new UnsupportedOperationException(memberNode.getClass().getCanonicalName());
-            }
+            addMember(turinFile, toAst(memberCtx));
         }
         for (TurinParser.ImportDeclarationContext importDeclarationContext : ctx.importDeclaration()) {
             turinFile.add(toAst(importDeclarationContext));
@@ -76,6 +95,81 @@ class ParseTreeToAst {
         return turinFile;
     }
 
+    /**
+     * Convert the parse tree produced by a recovering parse. The members and the imports containing syntax errors
+     * are left out and the syntax errors are added in their place, so the rest of the file can still be validated.
+     * When the namespace cannot be parsed a placeholder is used: the file is invalid anyway.
+     */
+    public TurinFile toAst(TurinParser.TurinFileContext ctx, List<SyntaxError> syntaxErrors){
+        TurinFile turinFile = new TurinFile();
+        getPositionFrom(turinFile, ctx);
+        if (ctx.namespace != null && !containsSyntaxErrors(ctx.namespace)) {
+            turinFile.setNameSpace(toAst(ctx.namespace));
+        } else {
+            turinFile.setNameSpace(new NamespaceDefinition(PLACEHOLDER_NAMESPACE));
+        }
+        // the syntax errors are placed among the members following their positions
+        Deque<SyntaxError> pending = syntaxErrors.stream()
+                .sorted(Comparator.comparing((SyntaxError e) -> e.getPosition().getStart().getLine())
+                        .thenComparing((SyntaxError e) -> e.getPosition().getStart().getColumn()))
+                .collect(Collectors.toCollection(ArrayDeque::new));
+        for (TurinParser.FileMemberContext memberCtx : ctx.fileMember()) {
+            if (!containsSyntaxErrors(memberCtx)) {
+                Point start = getStartPoint(memberCtx.start);
+                while (!pending.isEmpty() && isBefore(pending.peekFirst().getPosition().getStart(), start)) {
+                    turinFile.add(pending.removeFirst());
+                }
+                addMember(turinFile, toAst(memberCtx));
+            }
+        }
+        for (SyntaxError syntaxError : pending) {
+            turinFile.add(syntaxError);
+        }
+        for (TurinParser.ImportDeclarationContext importDeclarationContext : ctx.importDeclaration()) {
+            if (!containsSyntaxErrors(importDeclarationContext)) {
+                turinFile.add(toAst(importDeclarationContext));
+            }
+        }
+        return turinFile;
+    }
+
+    private static boolean isBefore(Point a, Point b) {
+        return a.getLine() < b.getLine() || (a.getLine() == b.getLine() && a.getColumn() < b.getColumn());
+    }
+
+    private static boolean containsSyntaxErrors(ParseTree tree) {
+        if (tree instanceof ErrorNode) {
+            return true;
+        }
+        if (tree instanceof ParserRuleContext && ((ParserRuleContext) tree).exception != null) {
+            return true;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (containsSyntaxErrors(tree.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addMember(TurinFile turinFile, Node memberNode) {
+        if (memberNode instanceof TurinTypeDefinition) {
+            turinFile.add((TurinTypeDefinition)memberNode);
+        } else if (memberNode instanceof PropertyDefinition) {
+            turinFile.add((PropertyDefinition) memberNode);
+        } else if (memberNode instanceof Program) {
+            turinFile.add((Program) memberNode);
+        } else if (memberNode instanceof FunctionDefinitionNode) {
+            turinFile.add((FunctionDefinitionNode)memberNode);
+        } else if (memberNode instanceof RelationDefinition) {
+            turinFile.add((RelationDefinition) memberNode);
+        } else if (memberNode instanceof ContextDefinitionNode) {
+            turinFile.add((ContextDefinitionNode) memberNode);
+        } else {
+            throw new UnsupportedOperationException(memberNode.getClass().getCanonicalName());
+        }
+    }
+
     private ImportDeclaration toAst(TurinParser.ImportDeclarationContext ctx) {
         if (ctx.allFieldsImportDeclaration() != null) {
             return toAst(ctx.allFieldsImportDeclaration());
@@ -121,12 +215,12 @@ class ParseTreeToAst {
     }
 
     private QualifiedName toAst(TurinParser.QualifiedIdContext ctx) {
-        QualifiedName qualifiedName = QualifiedName.create(ctx.parts.stream().map((p) -> p.getText()).collect(Collectors.toList()));
+        QualifiedName qualifiedName = QualifiedName.create(ctx.parts.stream().map((p) -> name(p)).collect(Collectors.toList()));
         getPositionFrom(qualifiedName, ctx);
         return qualifiedName;
     }
 
-    private Node toAst(TurinParser.FileMemberContext ctx) {
+    Node toAst(TurinParser.FileMemberContext ctx) {
         if (ctx.typeDeclaration() != null) {
             return toAst(ctx.typeDeclaration());
         } else if (ctx.topLevelPropertyDeclaration() != null) {
@@ -145,14 +239,14 @@ class ParseTreeToAst {
     }
 
     private ContextDefinitionNode toAst(TurinParser.ContextDeclarationContext ctx) {
-        ContextDefinitionNode contextDefinition = new ContextDefinitionNode(ctx.name.getText(), toAst(ctx.type));
+        ContextDefinitionNode contextDefinition = new ContextDefinitionNode(name(ctx.name), toAst(ctx.type));
         getPositionFrom(contextDefinition, ctx);
         return contextDefinition;
     }
 
     private RelationDefinition toAst(TurinParser.RelationContext ctx) {
         List<RelationFieldDefinition> fields = ctx.relationField().stream().map((fCtx)->toAst(fCtx)).collect(Collectors.toList());
-        RelationDefinition relationDefinition = new RelationDefinition(ctx.name.getText(), fields);
+        RelationDefinition relationDefinition = new RelationDefinition(name(ctx.name), fields);
         getPositionFrom(relationDefinition, ctx);
         return relationDefinition;
     }
@@ -166,14 +260,16 @@ class ParseTreeToAst {
         } else {
             throw new UnsupportedOperationException();
         }
-        RelationFieldDefinition relationFieldDefinition = new RelationFieldDefinition(cardinality, ctx.name.getText(), toAst(ctx.type));
+        RelationFieldDefinition relationFieldDefinition = new RelationFieldDefinition(cardinality, name(ctx.name), toAst(ctx.type));
         getPositionFrom(relationFieldDefinition, ctx);
         return relationFieldDefinition;
     }
 
     private FunctionDefinitionNode toAst(TurinParser.TopLevelFunctionDeclarationContext ctx) {
         List<FormalParameterNode> params = ctx.params.stream().map((p) -> toAst(p)).collect(Collectors.toList());
-        FunctionDefinitionNode functionDefinition = new FunctionDefinitionNode(idText(ctx.name), toAst(ctx.type), params, toAst(ctx.methodBody()));
+        FunctionDefinitionNode functionDefinition = lazyBodies
+                ? new FunctionDefinitionNode(idText(ctx.name), toAst(ctx.type), params, () -> toAst(ctx.methodBody()))
+                : new FunctionDefinitionNode(idText(ctx.name), toAst(ctx.type), params, toAst(ctx.methodBody()));
         getPositionFrom(functionDefinition, ctx);
         ctx.annotations.forEach((anCtx)->{
             AnnotationUsage annotationUsage = toAst(anCtx);
@@ -184,7 +280,7 @@ class ParseTreeToAst {
 
     private AnnotationUsage toAst(TurinParser.AnnotationUsageContext ctx) {
         // we skip the @ character
-        AnnotationUsage annotationUsage = new AnnotationUsage(ctx.annotation.getText().substring(1));
+        AnnotationUsage annotationUsage = new AnnotationUsage(names.intern(ctx.annotation.getText().substring(1)));
         getPositionFrom(annotationUsage, ctx);
         return annotationUsage;
     }
@@ -242,7 +338,9 @@ class ParseTreeToAst {
 
     private Node toAst(TurinParser.MethodDefinitionContext ctx) {
         List<FormalParameterNode> params = ctx.params.stream().map((p) -> toAst(p)).collect(Collectors.toList());
-        TurinTypeMethodDefinitionNode methodDefinition = new TurinTypeMethodDefinitionNode(idText(ctx.name), toAst(ctx.type), params, toAst(ctx.methodBody()));
+        TurinTypeMethodDefinitionNode methodDefinition = lazyBodies
+                ? new TurinTypeMethodDefinitionNode(idText(ctx.name), toAst(ctx.type), params, () -> toAst(ctx.methodBody()))
+                : new TurinTypeMethodDefinitionNode(idText(ctx.name), toAst(ctx.type), params, toAst(ctx.methodBody()));
         getPositionFrom(methodDefinition, ctx);
         return methodDefinition;
     }
@@ -310,13 +408,13 @@ class ParseTreeToAst {
 
     private TypeUsageNode toAst(TurinParser.TypeUsageContext type) {
         if (type.ref != null) {
-            ReferenceTypeUsageNode referenceTypeUsage = new ReferenceTypeUsageNode(type.ref.getText());
+            ReferenceTypeUsageNode referenceTypeUsage = new ReferenceTypeUsageNode(names.intern(type.ref.getText()));
             getPositionFrom(referenceTypeUsage, type);
             return referenceTypeUsage;
         } else if (type.primitiveType != null) {
             return TypeUsageNode.wrap(PrimitiveTypeUsage.getByName(type.primitiveType.getText()));
         } else if (type.basicType != null) {
-            return new BasicTypeUsageNode(type.basicType.getText());
+            return new BasicTypeUsageNode(name(type.basicType));
         } else if (type.arrayBase != null) {
             return new ArrayTypeUsageNode(toAst(type.arrayBase));
         } else {
@@ -325,13 +423,19 @@ class ParseTreeToAst {
     }
 
     private Node toAst(TurinParser.ProgramContext programCtx) {
+        Program program = lazyBodies
+                ? new Program(idText(programCtx.name), () -> toProgramBody(programCtx), idText(programCtx.formalParam.name))
+                : new Program(idText(programCtx.name), toProgramBody(programCtx), idText(programCtx.formalParam.name));
+        getPositionFrom(program, programCtx);
+        return program;
+    }
+
+    private Statement toProgramBody(TurinParser.ProgramContext programCtx) {
         List<Statement> statements = new ArrayList<>();
         for (TurinParser.StatementContext stmtCtx : programCtx.statements) {
             statements.add(toAst(stmtCtx));
         }
-        Program program = new Program(idText(programCtx.name), new BlockStatement(statements), idText(programCtx.formalParam.name));
-        getPositionFrom(program, programCtx);
-        return program;
+        return new BlockStatement(statements);
     }
 
     private Statement toAst(TurinParser.StatementContext stmtCtx) {
@@ -364,7 +468,7 @@ class ParseTreeToAst {
     }
 
     private ContextAssignment toAst(TurinParser.ContextAssignmentContext ctx) {
-        ContextAssignment ctxAssignment = new ContextAssignment(ctx.name.getText(), toAst(ctx.expression()));
+        ContextAssignment ctxAssignment = new ContextAssignment(name(ctx.name), toAst(ctx.expression()));
         getPositionFrom(ctxAssignment, ctx);
         return ctxAssignment;
     }
@@ -462,7 +566,7 @@ class ParseTreeToAst {
     }
 
     private Expression toAst(TurinParser.RelationSubsetContext ctx) {
-        RelationSubset relationSubset = new RelationSubset(ctx.relationName.getText(), ctx.field.getText(),
+        RelationSubset relationSubset = new RelationSubset(name(ctx.relationName), name(ctx.field),
                 ctx.actualParam().stream()
                         .map((apCtx) -> toAst(apCtx))
                         .collect(Collectors.toList()));
@@ -547,7 +651,7 @@ class ParseTreeToAst {
     }
 
     private ContextAccess toAst(TurinParser.ContextAccessContext ctx) {
-        ContextAccess contextAccess = new ContextAccess(ctx.field.getText());
+        ContextAccess contextAccess = new ContextAccess(name(ctx.field));
         getPositionFrom(contextAccess, ctx);
         return contextAccess;
     }
@@ -606,12 +710,16 @@ class ParseTreeToAst {
 
     private String idText(Token token) {
         if (token.getText().startsWith("v#") || token.getText().startsWith("T#")) {
-            return token.getText().substring(2);
+            return names.intern(token.getText().substring(2));
         } else {
-            return token.getText();
+            return name(token);
         }
     }
 
+    private String name(Token token) {
+        return names.intern(token.getText());
+    }
+
     private ValueReference toAst(TurinParser.ValueReferenceContext valueReferenceContext) {
         ValueReference expression = new ValueReference(idText(valueReferenceContext.name));
         getPositionFrom(expression, valueReferenceContext);
@@ -783,6 +891,6 @@ class ParseTreeToAst {
 
     private NamespaceDefinition toAst(TurinParser.NamespaceDeclContext namespaceContext) {
         // in this way we take care of the escaped IDs
-        return new NamespaceDefinition(toAst(namespaceContext.name).qualifiedName());
+        return new NamespaceDefinition(names.intern(toAst(namespaceContext.name).qualifiedName()));
     }
 }
@@ -1,25 +1,184 @@
 package me.tomassetti.turin.parser;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import me.tomassetti.parser.antlr.TurinLexer;
+import me.tomassetti.parser.antlr.TurinParser;
+import me.tomassetti.turin.compiler.report.CompilationReport;
+import me.tomassetti.turin.compiler.report.Phase;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.SyntaxError;
 import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.util.ParallelTasks;
+import org.antlr.v4.runtime.CommonTokenStream;
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Produce ASTs from the source code.
  */
 public class Parser {
 
-    private InternalParser internalParser = new InternalParser();
+    private static final String SOURCE_EXTENSION = ".to";
+
+    private InternalParser.PredictionStrategy predictionStrategy;
+    private InternalParser internalParser;
+    private ParserPool parserPool;
+    private boolean lazyBodies;
+    private Interner<String> names;
+
+    public Parser() {
+        this(InternalParser.PredictionStrategy.TWO_STAGE);
+    }
+
+    public Parser(InternalParser.PredictionStrategy predictionStrategy) {
+        this(predictionStrategy, false);
+    }
+
+    /**
+     * With lazy bodies the statements of functions, methods and programs are converted to AST nodes only when first
+     * accessed. It is convenient when only the declarations of the files are needed.
+     */
+    public Parser(InternalParser.PredictionStrategy predictionStrategy, boolean lazyBodies) {
+        this(predictionStrategy, lazyBodies, Interners.newWeakInterner());
+    }
+
+    /**
+     * The names found in the files are interned with the given interner. Parsers used for the same compilation can
+     * share one, so that a name used in many files is represented by a single String. By default each parser has
+     * its own weak interner.
+     */
+    public Parser(InternalParser.PredictionStrategy predictionStrategy, boolean lazyBodies, Interner<String> names) {
+        this.predictionStrategy = predictionStrategy;
+        this.internalParser = new InternalParser(predictionStrategy);
+        this.lazyBodies = lazyBodies;
+        this.names = names;
+    }
+
+    /**
+     * Take the lexer and the parser from the given pool for each file, so that the size of the DFA is checked. It is
+     * intended for long running processes. Such a parser can be used by many threads.
+     */
+    public Parser(ParserPool parserPool, boolean lazyBodies, Interner<String> names) {
+        this.parserPool = parserPool;
+        this.lazyBodies = lazyBodies;
+        this.names = names;
+    }
+
+    private <T> T withInternalParser(ParserPool.ParseTask<T> task) throws IOException {
+        return parserPool == null ? task.parse(internalParser) : parserPool.parse(task);
+    }
+
+    // for the sources already in memory, which cannot fail reading
+    private <T> T withInternalParserInMemory(ParserPool.ParseTask<T> task) {
+        try {
+            return withInternalParser(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
     public TurinFile parse(InputStream inputStream) throws IOException {
-        return new ParseTreeToAst().toAst(internalParser.produceParseTree(inputStream));
+        TurinParser.TurinFileContext parseTree = withInternalParser((p) -> p.produceParseTree(inputStream));
+        return astBuilder().toAst(parseTree);
+    }
+
+    public TurinFile parse(File file) throws IOException {
+        TurinParser.TurinFileContext parseTree = withInternalParser((p) -> p.produceParseTree(file));
+        return astBuilder().toAst(parseTree);
+    }
+
+    /**
+     * Parse source code which was already read. It is decoded as UTF-8.
+     */
+    public TurinFile parse(byte[] source, String sourceName) {
+        TurinParser.TurinFileContext parseTree = withInternalParserInMemory((p) ->
+                p.produceParseTree(p.lex(CharBufferCharStream.fromBytes(source, sourceName))));
+        return astBuilder().toAst(parseTree);
+    }
+
+    /**
+     * Parse, measuring separately lexing, parsing and the conversion of the parse tree into the AST.
+     */
+    public TurinFile parse(InputStream inputStream, CompilationReport.FileReport fileReport) throws IOException {
+        TurinParser.TurinFileContext parseTree = withInternalParser((p) -> {
+            CommonTokenStream tokens = fileReport.measure(Phase.LEXING, () -> p.lex(inputStream));
+            return fileReport.measure(Phase.PARSING, () -> p.produceParseTree(tokens));
+        });
+        return fileReport.measure(Phase.AST_CONVERSION, () -> astBuilder().toAst(parseTree));
+    }
+
+    /**
+     * Parse, measuring separately lexing, parsing and the conversion of the parse tree into the AST. Reading the
+     * file is considered part of lexing.
+     */
+    public TurinFile parse(File file, CompilationReport.FileReport fileReport) throws IOException {
+        TurinParser.TurinFileContext parseTree = withInternalParser((p) -> {
+            CommonTokenStream tokens = fileReport.measure(Phase.LEXING, () -> p.lex(file));
+            return fileReport.measure(Phase.PARSING, () -> p.produceParseTree(tokens));
+        });
+        return fileReport.measure(Phase.AST_CONVERSION, () -> astBuilder().toAst(parseTree));
+    }
+
+    /**
+     * Parse without stopping at the first syntax error. All the syntax errors are added to the AST as SyntaxError
+     * nodes, in place of the members containing them, so the rest of the file can still be validated.
+     */
+    public TurinFile parseRecovering(File file) throws IOException {
+        List<SyntaxError> syntaxErrors = new ArrayList<>();
+        TurinParser.TurinFileContext parseTree = withInternalParser((p) ->
+                recover(p, p.lex(CharBufferCharStream.fromFile(file), collectingTo(syntaxErrors)), syntaxErrors));
+        return astBuilder().toAst(parseTree, syntaxErrors);
+    }
+
+    public TurinFile parseRecovering(byte[] source, String sourceName) {
+        List<SyntaxError> syntaxErrors = new ArrayList<>();
+        TurinParser.TurinFileContext parseTree = withInternalParserInMemory((p) ->
+                recover(p, p.lex(CharBufferCharStream.fromBytes(source, sourceName), collectingTo(syntaxErrors)), syntaxErrors));
+        return astBuilder().toAst(parseTree, syntaxErrors);
+    }
+
+    /**
+     * Parse in recovering mode, measuring separately lexing, parsing and the conversion of the parse tree into
+     * the AST.
+     */
+    public TurinFile parseRecovering(File file, CompilationReport.FileReport fileReport) throws IOException {
+        List<SyntaxError> syntaxErrors = new ArrayList<>();
+        TurinParser.TurinFileContext parseTree = withInternalParser((p) -> {
+            CommonTokenStream tokens = fileReport.measure(Phase.LEXING,
+                    () -> p.lex(CharBufferCharStream.fromFile(file), collectingTo(syntaxErrors)));
+            return fileReport.measure(Phase.PARSING, () -> recover(p, tokens, syntaxErrors));
+        });
+        return fileReport.measure(Phase.AST_CONVERSION, () -> astBuilder().toAst(parseTree, syntaxErrors));
+    }
+
+    public Interner<String> getNameInterner() {
+        return names;
+    }
+
+    private ParseTreeToAst astBuilder() {
+        return new ParseTreeToAst(lazyBodies, names);
+    }
+
+    private static TurinParser.TurinFileContext recover(InternalParser internalParser, CommonTokenStream tokens,
+                                                        List<SyntaxError> syntaxErrors) {
+        return internalParser.produceRecoveringParseTree(tokens, collectingTo(syntaxErrors));
+    }
+
+    private static SyntaxErrorListener collectingTo(List<SyntaxError> syntaxErrors) {
+        return (line, charPositionInLine, length, message) -> syntaxErrors.add(new SyntaxError(message,
+                Position.create(line, charPositionInLine, line, charPositionInLine + length)));
     }
 
     /**
@@ -28,7 +187,7 @@ public class Parser {
      */
     public List<TurinFileWithSource> parseAllIn(File file) throws IOException {
         if (file.isFile()) {
-            return ImmutableList.of(new TurinFileWithSource(file, parse(new FileInputStream(file))));
+            return ImmutableList.of(new TurinFileWithSource(file, parse(file)));
         } else if (file.isDirectory()) {
             List<TurinFileWithSource> result = new ArrayList<>();
             for (File child : file.listFiles()) {
@@ -40,4 +199,43 @@ public class Parser {
         }
     }
 
+    /**
+     * Whether the path has the extension of the source files. The file is not required to exist.
+     */
+    public static boolean isSource(Path path) {
+        return path.toString().endsWith(SOURCE_EXTENSION);
+    }
+
+    /**
+     * Find the files with the .to extension walking the given directory, sorted by path. A file is returned as it is,
+     * whatever its extension.
+     */
+    public static List<File> findSources(File file) throws IOException {
+        if (file.isFile()) {
+            return ImmutableList.of(file);
+        } else if (file.isDirectory()) {
+            try (Stream<Path> paths = Files.walk(file.toPath())) {
+                return paths.filter((p) -> isSource(p) && Files.isRegularFile(p))
+                        .sorted()
+                        .map(Path::toFile)
+                        .collect(Collectors.toList());
+            }
+        } else {
+            throw new FileNotFoundException("Neither a file or a directory: " + file.getPath());
+        }
+    }
+
+    /**
+     * Parse all the files with the .to extension found walking the given directory, or the given file, using the given
+     * number of threads. Each thread uses its own lexer and parser, or the ones of the pool of this parser, sharing
+     * the name interner of this parser.
+     * The files are returned sorted by path, irrespectively of the order in which they are parsed.
+     */
+    public List<TurinFileWithSource> parseAllIn(File file, int threads) throws IOException {
+        ThreadLocal<Parser> parsers = ThreadLocal.withInitial(() ->
+                parserPool == null ? new Parser(predictionStrategy, lazyBodies, names) : this);
+        return ParallelTasks.executeAll(findSources(file),
+                (source) -> new TurinFileWithSource(source, parsers.get().parse(source)), threads);
+    }
+
 }
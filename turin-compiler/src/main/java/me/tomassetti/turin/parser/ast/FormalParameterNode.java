@@ -79,7 +79,7 @@ public class FormalParameterNode extends Node implements Symbol, FormalParameter
 
     public FormalParameterNode(TypeUsageNode type, String name, Optional<Expression> defaultValue) {
         this.type = type;
-        this.type.parent = this;
+        this.type.setParent(this);
         this.name = name;
         this.defaultValue = defaultValue;
         if (defaultValue.isPresent()) {
@@ -1,7 +1,7 @@
 package me.tomassetti.turin.parser.ast;
 
 import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.expressions.InvokableExpr;
 import me.tomassetti.turin.parser.ast.statements.BlockStatement;
@@ -13,6 +13,7 @@ import me.tomassetti.turin.typesystem.TypeUsage;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * A Node the Abstract Syntax Tree.
@@ -21,8 +22,29 @@ import java.util.Optional;
  */
 public abstract class Node implements Symbol {
 
-    protected Node parent;
-    private Position position;
+    /**
+     * A root together with the number of detachments from its tree when it was found: the cached root is valid while
+     * it is still a root and no node has been detached from its tree since then.
+     */
+    private static class CachedRoot {
+        private final Node root;
+        private final int detachments;
+
+        private CachedRoot(Node root, int detachments) {
+            this.root = root;
+            this.detachments = detachments;
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Node> detachmentsUpdater = AtomicIntegerFieldUpdater.newUpdater(Node.class, "detachments");
+
+    private Node parent;
+    private volatile CachedRoot cachedRoot;
+    // counted only on the roots, for the nodes detached from their tree
+    private volatile int detachments;
+    // positions are usually packed, the object is kept only for the ones which do not fit
+    private long packedPosition = PackedPosition.NONE;
+    private Position unpackedPosition;
     private Boolean valid;
 
     @Override
@@ -40,7 +62,7 @@ public abstract class Node implements Symbol {
     ///
 
     protected SymbolResolver symbolResolver() {
-        return ResolverRegistry.INSTANCE.requireResolver(this);
+        return CompilationSession.resolverOf(this);
     }
 
     ///
@@ -48,14 +70,54 @@ public abstract class Node implements Symbol {
     ///
 
     public Position getPosition() {
-        if (position == null) {
+        if (unpackedPosition != null) {
+            return unpackedPosition;
+        }
+        if (packedPosition == PackedPosition.NONE) {
             throw new IllegalStateException(this.toString()+ " has no position assigned");
         }
-        return position;
+        return PackedPosition.unpack(packedPosition);
+    }
+
+    public boolean hasPosition() {
+        return packedPosition != PackedPosition.NONE || unpackedPosition != null;
     }
 
     public void setPosition(Position position) {
-        this.position = position;
+        if (position == null) {
+            packedPosition = PackedPosition.NONE;
+            unpackedPosition = null;
+        } else {
+            setPosition(position.getStart().getLine(), position.getStart().getColumn(),
+                    position.getEnd().getLine(), position.getEnd().getColumn());
+        }
+    }
+
+    /**
+     * Set the position without creating a Position.
+     */
+    public void setPosition(int startLine, int startColumn, int endLine, int endColumn) {
+        if (PackedPosition.canPack(startLine, startColumn, endLine, endColumn)) {
+            packedPosition = PackedPosition.pack(startLine, startColumn, endLine, endColumn);
+            unpackedPosition = null;
+        } else {
+            packedPosition = PackedPosition.NONE;
+            unpackedPosition = Position.create(startLine, startColumn, endLine, endColumn);
+        }
+    }
+
+    /**
+     * Move this node and its descendants by the given number of lines.
+     */
+    public void shiftLines(int lines) {
+        if (hasPosition()) {
+            Position position = getPosition();
+            setPosition(position.getStart().getLine() + lines, position.getStart().getColumn(),
+                    position.getEnd().getLine() + lines, position.getEnd().getColumn());
+        }
+        for (Node child : getChildren()) {
+            child.shiftLines(lines);
+        }
     }
 
     ///
@@ -63,11 +125,18 @@ public abstract class Node implements Symbol {
     ///
 
     public Node getRoot() {
-        if (isRoot()) {
-            return this;
-        } else {
-            return getParent().getRoot();
+        return cachedRoot().root;
+    }
+
+    // the nodes of a tree share the same CachedRoot, which is published as a whole
+    private CachedRoot cachedRoot() {
+        CachedRoot cached = cachedRoot;
+        if (cached != null && cached.root.parent == null && cached.root.detachments == cached.detachments) {
+            return cached;
         }
+        cached = isRoot() ? new CachedRoot(this, detachments) : parent.cachedRoot();
+        cachedRoot = cached;
+        return cached;
     }
 
     public boolean isRoot() {
@@ -84,7 +153,12 @@ public abstract class Node implements Symbol {
         if (parent == this) {
             throw new IllegalArgumentException();
         }
+        if (this.parent != null && this.parent != parent) {
+            // the nodes below this one could have cached the root of the tree it is leaving
+            detachmentsUpdater.incrementAndGet(this.parent.getRoot());
+        }
         this.parent = parent;
+        this.cachedRoot = null;
     }
 
     public <T extends Node> List<T> findAll(Class<T> desiredClass) {
@@ -113,14 +187,12 @@ public abstract class Node implements Symbol {
     ///
 
     public String contextName() {
-        if (parent == null) {
-            return "";
-        }
-        if (parent instanceof TurinFile) {
-            TurinFile turinFile = (TurinFile)parent;
+        Node root = getRoot();
+        if (root != this && root instanceof TurinFile) {
+            TurinFile turinFile = (TurinFile)root;
             return turinFile.getNamespaceDefinition().getName();
         }
-        return parent.contextName();
+        return "";
     }
 
     ///
@@ -0,0 +1,57 @@
+package me.tomassetti.turin.parser.ast;
+
+/**
+ * Store a position in a single long, so that a node does not need a Position and two Points for it. The start line
+ * and column, the number of lines spanned and the end column use 22, 13, 15 and 13 bits. Positions which do not fit,
+ * for example because of very long lines, cannot be packed.
+ */
+final class PackedPosition {
+
+    /**
+     * No position: packed positions are never negative.
+     */
+    static final long NONE = -1L;
+
+    private static final int START_LINE_BITS = 22;
+    private static final int START_COLUMN_BITS = 13;
+    private static final int LINE_SPAN_BITS = 15;
+    private static final int END_COLUMN_BITS = 13;
+
+    private PackedPosition() {
+        // prevent instantiation
+    }
+
+    static boolean canPack(int startLine, int startColumn, int endLine, int endColumn) {
+        return fits(startLine, START_LINE_BITS) && fits(startColumn, START_COLUMN_BITS)
+                && fits(endLine - startLine, LINE_SPAN_BITS) && fits(endColumn, END_COLUMN_BITS);
+    }
+
+    static long pack(int startLine, int startColumn, int endLine, int endColumn) {
+        if (!canPack(startLine, startColumn, endLine, endColumn)) {
+            throw new IllegalArgumentException();
+        }
+        long packed = startLine;
+        packed = (packed << START_COLUMN_BITS) | startColumn;
+        packed = (packed << LINE_SPAN_BITS) | (endLine - startLine);
+        packed = (packed << END_COLUMN_BITS) | endColumn;
+        return packed;
+    }
+
+    static Position unpack(long packed) {
+        int endColumn = (int) (packed & mask(END_COLUMN_BITS));
+        packed >>>= END_COLUMN_BITS;
+        int lineSpan = (int) (packed & mask(LINE_SPAN_BITS));
+        packed >>>= LINE_SPAN_BITS;
+        int startColumn = (int) (packed & mask(START_COLUMN_BITS));
+        int startLine = (int) (packed >>> START_COLUMN_BITS);
+        return Position.create(startLine, startColumn, startLine + lineSpan, endColumn);
+    }
+
+    private static boolean fits(int value, int bits) {
+        return value >= 0 && value <= mask(bits);
+    }
+
+    private static long mask(int bits) {
+        return (1L << bits) - 1;
+    }
+}
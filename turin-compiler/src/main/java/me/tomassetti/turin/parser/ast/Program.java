@@ -9,11 +9,13 @@ import me.tomassetti.turin.typesystem.ArrayTypeUsage;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 public class Program extends Node implements Named, Symbol {
 
     private String name;
-    private Statement statement;
+    private volatile Statement statement;
+    private Supplier<Statement> statementSupplier;
     private FormalParameterSymbol formalParameter;
     private String paramName;
 
@@ -36,17 +38,39 @@ public class Program extends Node implements Named, Symbol {
         this.paramName = paramName;
     }
 
+    /**
+     * The statement is produced when first needed.
+     */
+    public Program(String name, Supplier<Statement> statementSupplier, String paramName) {
+        this.name = name;
+        this.statementSupplier = statementSupplier;
+        this.formalParameter = null;
+        this.paramName = paramName;
+    }
+
     public String getName() {
         return name;
     }
 
     public Statement getStatement() {
-        return statement;
+        Statement result = statement;
+        if (result == null) {
+            synchronized (this) {
+                if (statement == null) {
+                    Statement produced = statementSupplier.get();
+                    produced.setParent(this);
+                    statementSupplier = null;
+                    statement = produced;
+                }
+                result = statement;
+            }
+        }
+        return result;
     }
 
     @Override
     public Iterable<Node> getChildren() {
-        return ImmutableList.of(statement);
+        return ImmutableList.of(getStatement());
     }
 
     @Override
@@ -57,7 +81,7 @@ public class Program extends Node implements Named, Symbol {
         Program program = (Program) o;
 
         if (!name.equals(program.name)) return false;
-        if (!statement.equals(program.statement)) return false;
+        if (!getStatement().equals(program.getStatement())) return false;
 
         return true;
     }
@@ -66,7 +90,7 @@ public class Program extends Node implements Named, Symbol {
     public String toString() {
         return "Program{" +
                 "name='" + name + '\'' +
-                ", statement=" + statement +
+                ", statement=" + getStatement() +
                 ", formalParameter=" + formalParameter +
                 '}';
     }
@@ -74,7 +98,7 @@ public class Program extends Node implements Named, Symbol {
     @Override
     public int hashCode() {
         int result = name.hashCode();
-        result = 31 * result + statement.hashCode();
+        result = 31 * result + getStatement().hashCode();
         result = 31 * result + formalParameter.hashCode();
         return result;
     }
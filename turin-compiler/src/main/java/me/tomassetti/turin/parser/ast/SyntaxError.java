@@ -0,0 +1,62 @@
+package me.tomassetti.turin.parser.ast;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+
+/**
+ * Takes the place of the code which could not be parsed, when parsing in recovering mode. It is never valid: the
+ * validation reports the syntax error.
+ */
+public class SyntaxError extends Node {
+
+    private String message;
+
+    public SyntaxError(String message, Position position) {
+        this.message = message;
+        setPosition(position);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public Iterable<Node> getChildren() {
+        return ImmutableList.of();
+    }
+
+    @Override
+    protected boolean specificValidate(SymbolResolver resolver, ErrorCollector errorCollector) {
+        errorCollector.recordSyntaxError(getPosition(), message);
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "SyntaxError{" +
+                "message='" + message + '\'' +
+                ", position=" + getPosition() +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SyntaxError that = (SyntaxError) o;
+
+        if (!message.equals(that.message)) return false;
+        if (!getPosition().equals(that.getPosition())) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = message.hashCode();
+        result = 31 * result + getPosition().hashCode();
+        return result;
+    }
+}
@@ -4,8 +4,10 @@ import com.google.common.collect.ImmutableList;
 import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.imports.ImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.ImportIndex;
 import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
 import me.tomassetti.turin.parser.ast.relations.RelationDefinition;
@@ -20,10 +22,13 @@ public class TurinFile extends Node {
     private List<Node> topNodes = new ArrayList<>();
     private List<ImportDeclaration> imports = new ArrayList<>();
     private ContextDefinitionNode[] topLevelContextDefinitions;
+    private volatile ImportIndex importIndex;
+    private volatile CompilationSession session;
+    private volatile SymbolResolver resolver;
 
     public void add(PropertyDefinition propertyDefinition) {
         topNodes.add(propertyDefinition);
-        propertyDefinition.parent = this;
+        propertyDefinition.setParent(this);
     }
 
     @Override
@@ -50,7 +55,35 @@ public class TurinFile extends Node {
 
     public void add(ImportDeclaration importDeclaration) {
         imports.add(importDeclaration);
-        importDeclaration.parent = this;
+        importDeclaration.setParent(this);
+        importIndex = null;
+    }
+
+    /**
+     * The compilation session this file was recorded in, if any.
+     */
+    public CompilationSession getSession() {
+        return session;
+    }
+
+    /**
+     * The resolver used to compile this file, as recorded in its CompilationSession.
+     */
+    public SymbolResolver getResolver() {
+        return resolver;
+    }
+
+    /**
+     * Used by CompilationSession, which records and forgets the files.
+     */
+    public void setSession(CompilationSession session, SymbolResolver resolver) {
+        if (session == null) {
+            this.session = null;
+            this.resolver = null;
+        } else {
+            this.resolver = resolver;
+            this.session = session;
+        }
     }
 
     public NamespaceDefinition getNamespaceDefinition() {
@@ -59,7 +92,7 @@ public class TurinFile extends Node {
 
     public void add(TurinTypeDefinition typeDefinition) {
         topNodes.add(typeDefinition);
-        typeDefinition.parent = this;
+        typeDefinition.setParent(this);
     }
 
     @Override
@@ -94,12 +127,29 @@ public class TurinFile extends Node {
         return ImmutableList.copyOf(topNodes);
     }
 
+    public ImmutableList<ImportDeclaration> getImports() {
+        return ImmutableList.copyOf(imports);
+    }
+
+    /**
+     * The imports which could expose the given name, in the order in which they are declared. The index is built
+     * on the first lookup.
+     */
+    public List<ImportDeclaration> getImportsFor(String name) {
+        ImportIndex index = importIndex;
+        if (index == null) {
+            index = new ImportIndex(imports);
+            importIndex = index;
+        }
+        return index.getImportsFor(name);
+    }
+
     public void setNameSpace(NamespaceDefinition namespaceDefinition) {
         if (this.namespaceDefinition != null) {
-            this.namespaceDefinition.parent = null;
+            this.namespaceDefinition.setParent(null);
         }
         this.namespaceDefinition = namespaceDefinition;
-        this.namespaceDefinition.parent = this;
+        this.namespaceDefinition.setParent(this);
     }
 
     @Override
@@ -118,7 +168,7 @@ public class TurinFile extends Node {
 
     public void add(Program program) {
         topNodes.add(program);
-        program.parent = this;
+        program.setParent(this);
     }
 
     public List<TurinTypeDefinition> getTopLevelTypeDefinitions() {
@@ -139,7 +189,7 @@ public class TurinFile extends Node {
 
     @Override
     public Optional<Symbol> findSymbol(String name, SymbolResolver resolver) {
-        for (ImportDeclaration importDeclaration : imports) {
+        for (ImportDeclaration importDeclaration : getImportsFor(name)) {
             Optional<Symbol> imported = importDeclaration.findAmongImported(name, resolver);
             if (imported.isPresent()) {
                 return Optional.of(imported.get());
@@ -171,20 +221,48 @@ public class TurinFile extends Node {
 
     public void add(FunctionDefinitionNode functionDefinition) {
         topNodes.add(functionDefinition);
-        functionDefinition.parent = this;
+        functionDefinition.setParent(this);
     }
 
     public void add(RelationDefinition relationDefinition) {
         topNodes.add(relationDefinition);
-        relationDefinition.parent = this;
+        relationDefinition.setParent(this);
     }
 
     public void add(ContextDefinitionNode contextDefinition) {
         topNodes.add(contextDefinition);
-        contextDefinition.parent = this;
+        contextDefinition.setParent(this);
+    }
+
+    public void add(SyntaxError syntaxError) {
+        topNodes.add(syntaxError);
+        syntaxError.setParent(this);
+    }
+
+    public List<SyntaxError> getSyntaxErrors() {
+        return topNodes.stream().filter((n)-> (n instanceof SyntaxError)).map((n) -> (SyntaxError)n).collect(Collectors.toList());
+    }
+
+    /**
+     * Replace one of the top level nodes, keeping its place among the others.
+     */
+    public void replace(Node topNode, Node replacement) {
+        for (int i = 0; i < topNodes.size(); i++) {
+            if (topNodes.get(i) == topNode) {
+                topNodes.set(i, replacement);
+                topNode.setParent(null);
+                replacement.setParent(this);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Not a top level node of this file: " + topNode);
     }
 
     public List<ContextDefinitionNode> getTopLevelContextDefinitions() {
         return topNodes.stream().filter((n)-> (n instanceof ContextDefinitionNode)).map((n) -> (ContextDefinitionNode)n).collect(Collectors.toList());
     }
+
+    public List<RelationDefinition> getTopLevelRelationDefinitions() {
+        return topNodes.stream().filter((n)-> (n instanceof RelationDefinition)).map((n) -> (RelationDefinition)n).collect(Collectors.toList());
+    }
 }
@@ -130,14 +130,14 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
         }
     }
 
-    public List<InternalConstructorDefinition> getConstructors() {
+    public synchronized List<InternalConstructorDefinition> getConstructors() {
         if (constructors == null) {
             initializeConstructors(symbolResolver());
         }
         return constructors;
     }
 
-    public InternalConstructorDefinition getOnlyConstructor(SymbolResolver resolver) {
+    public synchronized InternalConstructorDefinition getOnlyConstructor(SymbolResolver resolver) {
         if (constructors == null) {
             initializeConstructors(resolver);
         }
@@ -217,7 +217,9 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
         constructors.add(new InternalConstructorDefinition(new ReferenceTypeUsage(this), allParams, constructorDefinition));
     }
 
-    private void ensureIsInitialized(SymbolResolver resolver) {
+    // Types defined in one file can be used while compiling other files concurrently, so the lazy initialization
+    // has to be performed under the lock
+    private synchronized void ensureIsInitialized(SymbolResolver resolver) {
         if (constructors == null) {
             initializeConstructors(resolver);
         }
@@ -252,7 +254,7 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
             throw new IllegalArgumentException();
         }
         members.add(propertyDefinition);
-        propertyDefinition.parent = this;
+        propertyDefinition.setParent(this);
     }
 
     public TurinTypeDefinition(String name) {
@@ -350,7 +352,7 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
 
     public void add(PropertyReference propertyReference) {
         members.add(propertyReference);
-        propertyReference.parent = this;
+        propertyReference.setParent(this);
     }
 
     @Override
@@ -463,6 +465,13 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
         return interfaces;
     }
 
+    /**
+     * Properties, property references, methods and constructors, in the order they are defined.
+     */
+    public List<Node> getMembers() {
+        return members;
+    }
+
     public Optional<TypeUsageNode> getBaseType() {
         return baseType;
     }
@@ -477,12 +486,12 @@ public class TurinTypeDefinition extends TypeDefinitionNode {
 
     public void add(TurinTypeMethodDefinitionNode methodDefinition) {
         members.add(methodDefinition);
-        methodDefinition.parent = this;
+        methodDefinition.setParent(this);
     }
 
     public void add(TurinTypeContructorDefinitionNode contructorDefinition) {
         members.add(contructorDefinition);
-        contructorDefinition.parent = this;
+        contructorDefinition.setParent(this);
     }
 
     @Override
@@ -22,6 +22,10 @@ public class ContextAccess extends Expression {
         this.contextName = contextName;
     }
 
+    public String getContextName() {
+        return contextName;
+    }
+
     @Override
     public Iterable<Node> getChildren() {
         return Collections.emptyList();
@@ -24,6 +24,17 @@ public class SemanticError extends Expression {
         this.position = position;
     }
 
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * The position where the error is reported.
+     */
+    public Position getErrorPosition() {
+        return position;
+    }
+
     @Override
     public Iterable<Node> getChildren() {
         return Collections.emptyList();
@@ -25,6 +25,14 @@ public class StaticFieldAccess extends Expression {
         this.field = field;
     }
 
+    public TypeIdentifier getSubject() {
+        return subject;
+    }
+
+    public String getField() {
+        return field;
+    }
+
     @Override
     public String toString() {
         return "StaticFieldAccess{" +
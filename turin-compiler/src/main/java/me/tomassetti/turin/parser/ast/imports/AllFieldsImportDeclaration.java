@@ -21,6 +21,14 @@ public class AllFieldsImportDeclaration extends ImportDeclaration {
         this.typeName = typeName;
     }
 
+    public QualifiedName getPackagePart() {
+        return packagePart;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
     private void lookForTypeDefinition(SymbolResolver resolver) {
         if (typeDefinitionCache != null) {
             return;
@@ -9,16 +9,23 @@ import me.tomassetti.turin.parser.ast.Node;
 import me.tomassetti.turin.parser.ast.QualifiedName;
 import me.tomassetti.turin.symbols.Symbol;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AllPackageImportDeclaration extends ImportDeclaration {
 
     private QualifiedName qualifiedName;
+    private Map<String, Optional<Symbol>> importedCache = new ConcurrentHashMap<>();
 
     public AllPackageImportDeclaration(QualifiedName qualifiedName) {
         this.qualifiedName = qualifiedName;
     }
 
+    public QualifiedName getPackageName() {
+        return qualifiedName;
+    }
+
     @Override
     protected boolean specificValidate(SymbolResolver resolver, ErrorCollector errorCollector) {
         if (!resolver.existPackage(qualifiedName.qualifiedName())) {
@@ -33,12 +40,15 @@ public class AllPackageImportDeclaration extends ImportDeclaration {
     public Optional<Symbol> findAmongImported(String name, SymbolResolver resolver) {
         // TODO correct the context passed
         if (JvmNameUtils.isSimpleName(name)) {
-            Optional<TypeDefinition> res = resolver.findTypeDefinitionIn(qualifiedName.qualifiedName() + "." + name, this, resolver);
-            if (res.isPresent()) {
-                return Optional.of(res.get());
-            } else {
-                return Optional.empty();
+            // not computeIfAbsent: resolving the type can look among the imports again
+            Optional<Symbol> cached = importedCache.get(name);
+            if (cached != null) {
+                return cached;
             }
+            Optional<TypeDefinition> res = resolver.findTypeDefinitionIn(qualifiedName.qualifiedName() + "." + name, this, resolver);
+            Optional<Symbol> imported = res.isPresent() ? Optional.of(res.get()) : Optional.empty();
+            importedCache.put(name, imported);
+            return imported;
         } else {
             return Optional.empty();
         }
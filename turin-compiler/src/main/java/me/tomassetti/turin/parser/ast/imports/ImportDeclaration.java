@@ -9,4 +9,12 @@ import java.util.Optional;
 public abstract class ImportDeclaration extends Node {
 
     public abstract Optional<Symbol> findAmongImported(String name, SymbolResolver resolver);
+
+    /**
+     * The only name this import can expose, or empty if it imports all the types of a package or all the fields
+     * of a type.
+     */
+    public Optional<String> getImportedName() {
+        return Optional.empty();
+    }
 }
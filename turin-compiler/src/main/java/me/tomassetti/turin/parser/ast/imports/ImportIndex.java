@@ -0,0 +1,52 @@
+package me.tomassetti.turin.parser.ast.imports;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Index of the imports of a file by the name they expose. The imports of all the types of a package or of all the
+ * fields of a type can expose any name, so they are candidates for every name.
+ */
+public class ImportIndex {
+
+    private List<ImportDeclaration> wildcardImports;
+    private Map<String, List<ImportDeclaration>> importsByName;
+
+    public ImportIndex(List<ImportDeclaration> imports) {
+        ImmutableList.Builder<ImportDeclaration> wildcardImports = ImmutableList.builder();
+        Map<String, ImmutableList.Builder<ImportDeclaration>> builders = new HashMap<>();
+        for (ImportDeclaration importDeclaration : imports) {
+            Optional<String> importedName = importDeclaration.getImportedName();
+            if (importedName.isPresent()) {
+                builders.computeIfAbsent(importedName.get(), (n) -> ImmutableList.builder());
+            }
+        }
+        for (ImportDeclaration importDeclaration : imports) {
+            Optional<String> importedName = importDeclaration.getImportedName();
+            if (importedName.isPresent()) {
+                builders.get(importedName.get()).add(importDeclaration);
+            } else {
+                wildcardImports.add(importDeclaration);
+                builders.values().forEach((b) -> b.add(importDeclaration));
+            }
+        }
+        this.wildcardImports = wildcardImports.build();
+        ImmutableMap.Builder<String, List<ImportDeclaration>> importsByName = ImmutableMap.builder();
+        builders.forEach((name, b) -> importsByName.put(name, b.build()));
+        this.importsByName = importsByName.build();
+    }
+
+    /**
+     * The imports which could expose the given name, in the order in which they are declared.
+     */
+    public List<ImportDeclaration> getImportsFor(String name) {
+        List<ImportDeclaration> imports = importsByName.get(name);
+        return imports == null ? wildcardImports : imports;
+    }
+
+}
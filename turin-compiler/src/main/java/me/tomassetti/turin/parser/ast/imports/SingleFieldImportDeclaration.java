@@ -34,6 +34,22 @@ public class SingleFieldImportDeclaration extends ImportDeclaration {
         this.alias = alias;
     }
 
+    public QualifiedName getPackagePart() {
+        return packagePart;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public QualifiedName getFieldsPath() {
+        return fieldsPath;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
     private String exposedName() {
         if (alias == null) {
             return fieldsPath.getName();
@@ -42,6 +58,11 @@ public class SingleFieldImportDeclaration extends ImportDeclaration {
         }
     }
 
+    @Override
+    public Optional<String> getImportedName() {
+        return Optional.of(exposedName());
+    }
+
     private Symbol importedValueCache = null;
 
     private void findImportedValue(SymbolResolver resolver) {
@@ -37,6 +37,18 @@ public class TypeImportDeclaration extends ImportDeclaration {
         this.alternativeName = alternativeName;
     }
 
+    public QualifiedName getPackagePart() {
+        return qualifiedName;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getAlternativeName() {
+        return alternativeName;
+    }
+
     @Override
     protected boolean specificValidate(SymbolResolver resolver, ErrorCollector errorCollector) {
         findTypeDefinition(resolver);
@@ -60,10 +72,14 @@ public class TypeImportDeclaration extends ImportDeclaration {
         typeDefinitionCache = resolver.findTypeDefinitionIn(canonicalName(), NoContext.getInstance(), resolver);
     }
 
+    @Override
+    public Optional<String> getImportedName() {
+        return Optional.of(alternativeName == null ? typeName : alternativeName);
+    }
+
     @Override
     public Optional<Symbol> findAmongImported(String name, SymbolResolver resolver) {
-        String targetName = alternativeName == null ? typeName : alternativeName;
-        if (name.equals(targetName)) {
+        if (name.equals(getImportedName().get())) {
             findTypeDefinition(resolver);
             if (typeDefinitionCache.isPresent()) {
                 return Optional.of(typeDefinitionCache.get());
@@ -21,6 +21,7 @@ import me.tomassetti.turin.typesystem.TypeUsage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class FunctionDefinitionNode extends InvokableDefinitionNode implements Named, Symbol {
@@ -53,6 +54,13 @@ public class FunctionDefinitionNode extends InvokableDefinitionNode implements N
         super(parameters, body, name, returnType);
     }
 
+    /**
+     * The body is produced when first needed.
+     */
+    public FunctionDefinitionNode(String name, TypeUsageNode returnType, List<FormalParameterNode> parameters, Supplier<Statement> bodySupplier) {
+        super(parameters, bodySupplier, name, returnType);
+    }
+
     @Override
     public TypeUsage calcType() {
         InvokableReferenceTypeUsage invokableReferenceTypeUsage = new InvokableReferenceTypeUsage(internalInvokableDefinition());
@@ -12,6 +12,7 @@ import me.tomassetti.turin.symbols.Symbol;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Either a function or a method.
@@ -20,7 +21,8 @@ public abstract class InvokableDefinitionNode extends Node implements InvokableD
     protected String name;
     protected TypeUsageNode returnType;
     protected List<FormalParameterNode> parameters;
-    protected Statement body;
+    private volatile Statement body;
+    private Supplier<Statement> bodySupplier;
 
     public InvokableDefinitionNode(List<FormalParameterNode> parameters, Statement body, String name, TypeUsageNode returnType) {
         this.parameters = parameters;
@@ -32,6 +34,18 @@ public abstract class InvokableDefinitionNode extends Node implements InvokableD
         this.returnType.setParent(this);
     }
 
+    /**
+     * The body is produced when first needed.
+     */
+    public InvokableDefinitionNode(List<FormalParameterNode> parameters, Supplier<Statement> bodySupplier, String name, TypeUsageNode returnType) {
+        this.parameters = parameters;
+        this.parameters.forEach((p) -> p.setParent(InvokableDefinitionNode.this) );
+        this.bodySupplier = bodySupplier;
+        this.name = name;
+        this.returnType = returnType;
+        this.returnType.setParent(this);
+    }
+
     @Override
     public TypeUsageNode getReturnType() {
         return returnType;
@@ -43,7 +57,19 @@ public abstract class InvokableDefinitionNode extends Node implements InvokableD
     }
 
     public Statement getBody() {
-        return body;
+        Statement result = body;
+        if (result == null) {
+            synchronized (this) {
+                if (body == null) {
+                    Statement produced = bodySupplier.get();
+                    produced.setParent(this);
+                    bodySupplier = null;
+                    body = produced;
+                }
+                result = body;
+            }
+        }
+        return result;
     }
 
     @Override
@@ -63,6 +89,6 @@ public abstract class InvokableDefinitionNode extends Node implements InvokableD
 
     @Override
     public Iterable<Node> getChildren() {
-        return ImmutableList.<Node>builder().add(returnType).addAll(parameters).add(body).build();
+        return ImmutableList.<Node>builder().add(returnType).addAll(parameters).add(getBody()).build();
     }
 }
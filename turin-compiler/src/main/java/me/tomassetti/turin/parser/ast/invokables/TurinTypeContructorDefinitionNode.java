@@ -4,7 +4,6 @@ import com.google.common.collect.ImmutableList;
 import me.tomassetti.turin.parser.ast.FormalParameterNode;
 import me.tomassetti.turin.parser.ast.Node;
 import me.tomassetti.turin.parser.ast.statements.BlockStatement;
-import me.tomassetti.turin.parser.ast.statements.Statement;
 import me.tomassetti.turin.parser.ast.typeusage.VoidTypeUsageNode;
 
 import java.util.List;
@@ -14,10 +13,6 @@ import java.util.List;
  */
 public class TurinTypeContructorDefinitionNode extends InvokableDefinitionNode {
 
-    public Statement getBody() {
-        return body;
-    }
-
     public TurinTypeContructorDefinitionNode(List<FormalParameterNode> parameters, BlockStatement body) {
         super(parameters, body, "<init>", new VoidTypeUsageNode());
     }
@@ -26,7 +21,7 @@ public class TurinTypeContructorDefinitionNode extends InvokableDefinitionNode {
     public Iterable<Node> getChildren() {
         return ImmutableList.<Node>builder()
                 .addAll(parameters)
-                .add(body)
+                .add(getBody())
                 .build();
     }
 }
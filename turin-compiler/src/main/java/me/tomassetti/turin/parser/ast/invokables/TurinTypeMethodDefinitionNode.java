@@ -5,6 +5,7 @@ import me.tomassetti.turin.parser.ast.statements.Statement;
 import me.tomassetti.turin.parser.ast.typeusage.TypeUsageNode;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Definition of a method in a Turin Type.
@@ -15,7 +16,14 @@ public class TurinTypeMethodDefinitionNode extends InvokableDefinitionNode {
         super(parameters, body, name, returnType);
         this.returnType.setParent(this);
         this.parameters.forEach((p) -> p.setParent(TurinTypeMethodDefinitionNode.this) );
-        this.body.setParent(this);
+        this.getBody().setParent(this);
+    }
+
+    /**
+     * The body is produced when first needed.
+     */
+    public TurinTypeMethodDefinitionNode(String name, TypeUsageNode returnType, List<FormalParameterNode> parameters, Supplier<Statement> bodySupplier) {
+        super(parameters, bodySupplier, name, returnType);
     }
 
 }
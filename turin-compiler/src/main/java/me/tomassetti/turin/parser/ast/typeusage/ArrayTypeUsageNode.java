@@ -13,6 +13,10 @@ public class ArrayTypeUsageNode extends TypeUsageWrapperNode {
         this.componentTypeNode = componentType;
     }
 
+    public TypeUsageNode getComponentTypeNode() {
+        return componentTypeNode;
+    }
+
     @Override
     public String toString() {
         return "ArrayTypeUsage{" +
@@ -23,7 +27,7 @@ public class ArrayTypeUsageNode extends TypeUsageWrapperNode {
     @Override
     public TypeUsageNode copy() {
         ArrayTypeUsageNode copy = new ArrayTypeUsageNode(this.componentTypeNode);
-        copy.parent = this.parent;
+        copy.setParent(getParent());
         return copy;
     }
 
@@ -65,7 +65,7 @@ public class PrimitiveTypeUsageNode extends TypeUsageWrapperNode {
     @Override
     public TypeUsageNode copy() {
         PrimitiveTypeUsageNode copy = new PrimitiveTypeUsageNode(this.name);
-        copy.parent = this.parent;
+        copy.setParent(getParent());
         return copy;
     }
 
@@ -5,7 +5,7 @@ import me.tomassetti.jvm.JvmNameUtils;
 import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.parser.analysis.exceptions.UnsolvedSymbolException;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.Node;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
@@ -33,10 +33,14 @@ public class ReferenceTypeUsageNode extends TypeUsageWrapperNode {
         this.typeParams = Collections.emptyList();
     }
 
+    public String getName() {
+        return name;
+    }
+
     @Override
     public TypeUsage typeUsage() {
         if (typeUsage == null) {
-            SymbolResolver resolver = ResolverRegistry.INSTANCE.requireResolver(this);
+            SymbolResolver resolver = CompilationSession.resolverOf(this);
             typeUsage = new ReferenceTypeUsage(getTypeDefinition(resolver));
         }
         return super.typeUsage();
@@ -116,7 +120,7 @@ public class ReferenceTypeUsageNode extends TypeUsageWrapperNode {
     @Override
     public TypeUsageNode copy() {
         ReferenceTypeUsageNode copy = new ReferenceTypeUsageNode(name);
-        copy.parent = this.parent;
+        copy.setParent(getParent());
         copy.cachedTypeDefinition = this.cachedTypeDefinition;
         copy.typeParams = this.typeParams;
         return copy;
@@ -0,0 +1,106 @@
+package me.tomassetti.turin.parser.cache;
+
+import com.google.common.collect.Interner;
+import com.google.common.hash.Hashing;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.TurinFile;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of the ASTs of the source files, stored in a local directory. Each entry is named after the hash of the
+ * content of the source file, so a file is parsed again only when it changes.
+ *
+ * As in DirectoryBuildCache entries are written to a temporary file and then moved in place, and an entry which
+ * cannot be read is treated as missing.
+ */
+public class AstCache {
+
+    private File directory;
+    private AtomicInteger hits = new AtomicInteger();
+    private AtomicInteger misses = new AtomicInteger();
+
+    public AstCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Return the AST of the file, loading it from the cache or parsing it in recovering mode with the given parser.
+     * Parsed ASTs are added to the cache, including their syntax errors. Loaded ASTs share the names interned by
+     * the parser.
+     */
+    public TurinFile parse(File file, Parser parser) throws IOException {
+        byte[] source = Files.readAllBytes(file.toPath());
+        String key = Hashing.sha256().hashBytes(source).toString();
+        Optional<TurinFile> cached = get(key, Optional.of(parser.getNameInterner()));
+        if (cached.isPresent()) {
+            hits.incrementAndGet();
+            return cached.get();
+        }
+        misses.incrementAndGet();
+        TurinFile turinFile = parser.parseRecovering(source, file.getPath());
+        put(key, turinFile);
+        return turinFile;
+    }
+
+    public Optional<TurinFile> get(String key) throws IOException {
+        return get(key, Optional.empty());
+    }
+
+    private Optional<TurinFile> get(String key, Optional<Interner<String>> names) throws IOException {
+        File entry = entryFile(key);
+        if (!entry.isFile()) {
+            return Optional.empty();
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(entry))) {
+            return new AstReader(in, names).read();
+        } catch (EOFException | FileNotFoundException e) {
+            // truncated or removed in the meantime
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, TurinFile turinFile) throws IOException {
+        File entry = entryFile(key);
+        File parent = entry.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Cannot create directory " + parent.getPath());
+        }
+        File tmp = File.createTempFile(key, ".tmp", parent);
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+                new AstWriter(out).write(turinFile);
+            } catch (UTFDataFormatException e) {
+                // a string too long for the format: the file is just not cached
+                return;
+            }
+            try {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    public int getHitsCount() {
+        return hits.get();
+    }
+
+    public int getMissesCount() {
+        return misses.get();
+    }
+
+    private File entryFile(String key) {
+        if (key.length() < 3 || !key.chars().allMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("Invalid key " + key);
+        }
+        return new File(new File(directory, key.substring(0, 2)), key + ".ast");
+    }
+}
@@ -0,0 +1,96 @@
+package me.tomassetti.turin.parser.cache;
+
+/**
+ * Constants of the binary format used to store ASTs. The version has to be changed each time the format or the
+ * nodes produced by the parser change, so that the entries written before are ignored.
+ */
+final class AstFormat {
+
+    static final int MAGIC = 0x7475A57F;
+    static final int VERSION = 1;
+
+    // strings: null, first occurrence, later occurrences are written as STRING_REFERENCE + index
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+    static final int STRING_REFERENCE = 2;
+
+    // top level and definitions
+    static final byte TURIN_FILE = 1;
+    static final byte NAMESPACE_DEFINITION = 2;
+    static final byte QUALIFIED_NAME = 3;
+    static final byte TYPE_IMPORT = 4;
+    static final byte SINGLE_FIELD_IMPORT = 5;
+    static final byte ALL_FIELDS_IMPORT = 6;
+    static final byte ALL_PACKAGE_IMPORT = 7;
+    static final byte TYPE_DEFINITION = 8;
+    static final byte PROPERTY_DEFINITION = 9;
+    static final byte PROPERTY_REFERENCE = 10;
+    static final byte PROPERTY_CONSTRAINT = 11;
+    static final byte METHOD_DEFINITION = 12;
+    static final byte CONSTRUCTOR_DEFINITION = 13;
+    static final byte FUNCTION_DEFINITION = 14;
+    static final byte FORMAL_PARAMETER = 15;
+    static final byte PROGRAM = 16;
+    static final byte RELATION_DEFINITION = 17;
+    static final byte RELATION_FIELD_DEFINITION = 18;
+    static final byte CONTEXT_DEFINITION = 19;
+    static final byte ANNOTATION_USAGE = 20;
+    static final byte SYNTAX_ERROR = 21;
+
+    // type usages
+    static final byte REFERENCE_TYPE_USAGE = 30;
+    static final byte PRIMITIVE_TYPE_USAGE = 31;
+    static final byte BASIC_TYPE_USAGE = 32;
+    static final byte ARRAY_TYPE_USAGE = 33;
+    static final byte VOID_TYPE_USAGE = 34;
+
+    // statements
+    static final byte BLOCK = 40;
+    static final byte EXPRESSION_STATEMENT = 41;
+    static final byte VARIABLE_DECLARATION = 42;
+    static final byte IF = 43;
+    static final byte ELIF = 44;
+    static final byte RETURN = 45;
+    static final byte THROW = 46;
+    static final byte TRY_CATCH = 47;
+    static final byte CATCH = 48;
+    static final byte CONTEXT_SCOPE = 49;
+    static final byte CONTEXT_ASSIGNMENT = 50;
+
+    // expressions
+    static final byte ACTUAL_PARAM = 60;
+    static final byte FUNCTION_CALL = 61;
+    static final byte CREATION = 62;
+    static final byte INSTANCE_METHOD_INVOKATION = 63;
+    static final byte SUPER_INVOKATION = 64;
+    static final byte INSTANCE_FIELD_ACCESS = 65;
+    static final byte STATIC_FIELD_ACCESS = 66;
+    static final byte TYPE_IDENTIFIER = 67;
+    static final byte VALUE_REFERENCE = 68;
+    static final byte ARRAY_ACCESS = 69;
+    static final byte ASSIGNMENT = 70;
+    static final byte MATH_OPERATION = 71;
+    static final byte LOGIC_OPERATION = 72;
+    static final byte RELATIONAL_OPERATION = 73;
+    static final byte NOT_OPERATION = 74;
+    static final byte STRING_INTERPOLATION = 75;
+    static final byte CONTEXT_ACCESS = 76;
+    static final byte RELATION_SUBSET = 77;
+    static final byte THIS = 78;
+    static final byte PLACEHOLDER = 79;
+    static final byte SEMANTIC_ERROR = 80;
+
+    // literals
+    static final byte STRING_LITERAL = 90;
+    static final byte BOOLEAN_LITERAL = 91;
+    static final byte BYTE_LITERAL = 92;
+    static final byte SHORT_LITERAL = 93;
+    static final byte INT_LITERAL = 94;
+    static final byte LONG_LITERAL = 95;
+    static final byte FLOAT_LITERAL = 96;
+    static final byte DOUBLE_LITERAL = 97;
+
+    private AstFormat() {
+        // prevent instantiation
+    }
+}
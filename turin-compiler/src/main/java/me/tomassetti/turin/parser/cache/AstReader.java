@@ -0,0 +1,445 @@
+package me.tomassetti.turin.parser.cache;
+
+import com.google.common.collect.Interner;
+import me.tomassetti.turin.parser.ast.*;
+import me.tomassetti.turin.parser.ast.annotations.AnnotationUsage;
+import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.parser.ast.expressions.*;
+import me.tomassetti.turin.parser.ast.expressions.literals.*;
+import me.tomassetti.turin.parser.ast.imports.*;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeContructorDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeMethodDefinitionNode;
+import me.tomassetti.turin.parser.ast.properties.PropertyConstraint;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.parser.ast.relations.RelationDefinition;
+import me.tomassetti.turin.parser.ast.relations.RelationFieldDefinition;
+import me.tomassetti.turin.parser.ast.statements.*;
+import me.tomassetti.turin.parser.ast.typeusage.*;
+import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static me.tomassetti.turin.parser.cache.AstFormat.*;
+
+/**
+ * Read a TurinFile written by AstWriter.
+ *
+ * The nodes are built using the same constructors and methods used by the parser, so they get the same parent
+ * links and positions they had when they were written.
+ */
+public class AstReader {
+
+    private DataInputStream in;
+    private List<String> strings = new ArrayList<>();
+    private Optional<Interner<String>> names;
+
+    public AstReader(InputStream in) {
+        this(in, Optional.empty());
+    }
+
+    /**
+     * The strings read are interned with the given interner, as the parser does with names.
+     */
+    public AstReader(InputStream in, Optional<Interner<String>> names) {
+        this.in = new DataInputStream(in);
+        this.names = names;
+    }
+
+    /**
+     * Return empty if the data was written using a different format.
+     */
+    public Optional<TurinFile> read() throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            return Optional.empty();
+        }
+        return Optional.of(readNode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <N extends Node> N readNode() throws IOException {
+        byte tag = in.readByte();
+        if (tag == 0) {
+            return null;
+        }
+        Position position = readPosition();
+        Node node = buildNode(tag);
+        if (position != null) {
+            node.setPosition(position);
+        }
+        return (N) node;
+    }
+
+    private <N extends Node> Optional<N> readOptionalNode() throws IOException {
+        return Optional.ofNullable(readNode());
+    }
+
+    private <N extends Node> List<N> readNodes() throws IOException {
+        int size = readVarInt();
+        List<N> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(readNode());
+        }
+        return nodes;
+    }
+
+    private Node buildNode(byte tag) throws IOException {
+        switch (tag) {
+            case TURIN_FILE: {
+                TurinFile turinFile = new TurinFile();
+                turinFile.setNameSpace(readNode());
+                for (Node topNode : readNodes()) {
+                    addTopNode(turinFile, topNode);
+                }
+                for (ImportDeclaration importDeclaration : this.<ImportDeclaration>readNodes()) {
+                    turinFile.add(importDeclaration);
+                }
+                return turinFile;
+            }
+            case NAMESPACE_DEFINITION:
+                return new NamespaceDefinition(readString());
+            case QUALIFIED_NAME: {
+                QualifiedName base = readNode();
+                String name = readString();
+                return base == null ? new QualifiedName(name) : new QualifiedName(base, name);
+            }
+            case TYPE_IMPORT: {
+                QualifiedName packagePart = readNode();
+                String typeName = readString();
+                String alternativeName = readString();
+                return alternativeName == null ? new TypeImportDeclaration(packagePart, typeName)
+                        : new TypeImportDeclaration(packagePart, typeName, alternativeName);
+            }
+            case SINGLE_FIELD_IMPORT: {
+                QualifiedName packagePart = readNode();
+                String typeName = readString();
+                QualifiedName fieldsPath = readNode();
+                String alias = readString();
+                return alias == null ? new SingleFieldImportDeclaration(packagePart, typeName, fieldsPath)
+                        : new SingleFieldImportDeclaration(packagePart, typeName, fieldsPath, alias);
+            }
+            case ALL_FIELDS_IMPORT: {
+                QualifiedName packagePart = readNode();
+                return new AllFieldsImportDeclaration(packagePart, readString());
+            }
+            case ALL_PACKAGE_IMPORT:
+                return new AllPackageImportDeclaration(readNode());
+            case TYPE_DEFINITION:
+                return readTypeDefinition();
+            case PROPERTY_DEFINITION: {
+                String name = readString();
+                TypeUsageNode type = readNode();
+                Optional<Expression> initialValue = readOptionalNode();
+                Optional<Expression> defaultValue = readOptionalNode();
+                return new PropertyDefinition(name, type, initialValue, defaultValue, readNodes());
+            }
+            case PROPERTY_REFERENCE:
+                return new PropertyReference(readString());
+            case PROPERTY_CONSTRAINT: {
+                Expression condition = readNode();
+                return new PropertyConstraint(condition, readNode());
+            }
+            case METHOD_DEFINITION: {
+                String name = readString();
+                TypeUsageNode returnType = readNode();
+                List<FormalParameterNode> parameters = readNodes();
+                Statement body = readNode();
+                return new TurinTypeMethodDefinitionNode(name, returnType, parameters, body);
+            }
+            case CONSTRUCTOR_DEFINITION: {
+                List<FormalParameterNode> parameters = readNodes();
+                BlockStatement body = readNode();
+                return new TurinTypeContructorDefinitionNode(parameters, body);
+            }
+            case FUNCTION_DEFINITION: {
+                String name = readString();
+                TypeUsageNode returnType = readNode();
+                List<FormalParameterNode> parameters = readNodes();
+                Statement body = readNode();
+                FunctionDefinitionNode functionDefinition = new FunctionDefinitionNode(name, returnType, parameters, body);
+                for (AnnotationUsage annotationUsage : this.<AnnotationUsage>readNodes()) {
+                    functionDefinition.addAnnotation(annotationUsage);
+                }
+                return functionDefinition;
+            }
+            case FORMAL_PARAMETER: {
+                TypeUsageNode type = readNode();
+                String name = readString();
+                return new FormalParameterNode(type, name, readOptionalNode());
+            }
+            case PROGRAM: {
+                String name = readString();
+                Statement statement = readNode();
+                return new Program(name, statement, readString());
+            }
+            case RELATION_DEFINITION: {
+                String name = readString();
+                return new RelationDefinition(name, readNodes());
+            }
+            case RELATION_FIELD_DEFINITION: {
+                RelationFieldDefinition.Cardinality cardinality = RelationFieldDefinition.Cardinality.values()[in.readByte()];
+                String name = readString();
+                return new RelationFieldDefinition(cardinality, name, readNode());
+            }
+            case CONTEXT_DEFINITION: {
+                String name = readString();
+                return new ContextDefinitionNode(name, readNode());
+            }
+            case ANNOTATION_USAGE:
+                return new AnnotationUsage(readString());
+            case SYNTAX_ERROR:
+                // the position is set from the header
+                return new SyntaxError(readString(), null);
+
+            case REFERENCE_TYPE_USAGE:
+                return new ReferenceTypeUsageNode(readString());
+            case PRIMITIVE_TYPE_USAGE:
+                return TypeUsageNode.wrap(PrimitiveTypeUsage.getByName(readString()));
+            case BASIC_TYPE_USAGE:
+                return new BasicTypeUsageNode(readString());
+            case ARRAY_TYPE_USAGE:
+                return new ArrayTypeUsageNode(readNode());
+            case VOID_TYPE_USAGE:
+                return new VoidTypeUsageNode();
+
+            case BLOCK:
+                return new BlockStatement(readNodes());
+            case EXPRESSION_STATEMENT:
+                return new ExpressionStatement(readNode());
+            case VARIABLE_DECLARATION: {
+                String name = readString();
+                Expression value = readNode();
+                TypeUsageNode type = readNode();
+                return type == null ? new VariableDeclaration(name, value) : new VariableDeclaration(name, value, type);
+            }
+            case IF: {
+                Expression condition = readNode();
+                BlockStatement ifBody = readNode();
+                List<ElifClause> elifClauses = readNodes();
+                BlockStatement elseBody = readNode();
+                return elseBody == null ? new IfStatement(condition, ifBody, elifClauses)
+                        : new IfStatement(condition, ifBody, elifClauses, elseBody);
+            }
+            case ELIF: {
+                Expression condition = readNode();
+                return new ElifClause(condition, readNode());
+            }
+            case RETURN: {
+                Expression value = readNode();
+                return value == null ? new ReturnStatement() : new ReturnStatement(value);
+            }
+            case THROW:
+                return new ThrowStatement(readNode());
+            case TRY_CATCH: {
+                BlockStatement body = readNode();
+                return new TryCatchStatement(body, readNodes());
+            }
+            case CATCH: {
+                TypeIdentifier exceptionType = readNode();
+                String variableName = readString();
+                return new CatchClause(exceptionType, variableName, readNode());
+            }
+            case CONTEXT_SCOPE: {
+                List<ContextAssignment> assignments = readNodes();
+                return new ContextScope(assignments, readNodes());
+            }
+            case CONTEXT_ASSIGNMENT: {
+                String contextName = readString();
+                return new ContextAssignment(contextName, readNode());
+            }
+
+            case ACTUAL_PARAM: {
+                String name = readString();
+                Expression value = readNode();
+                boolean asterisk = in.readBoolean();
+                return name == null ? new ActualParam(value, asterisk) : new ActualParam(name, value);
+            }
+            case FUNCTION_CALL: {
+                Expression function = readNode();
+                return new FunctionCall(function, readNodes());
+            }
+            case CREATION: {
+                TypeUsageNode type = readNode();
+                return new Creation(type, readNodes());
+            }
+            case INSTANCE_METHOD_INVOKATION: {
+                Expression subject = readNode();
+                String methodName = readString();
+                return new InstanceMethodInvokation(subject, methodName, readNodes());
+            }
+            case SUPER_INVOKATION:
+                return new SuperInvokation(readNodes());
+            case INSTANCE_FIELD_ACCESS: {
+                Expression subject = readNode();
+                return new InstanceFieldAccess(subject, readString());
+            }
+            case STATIC_FIELD_ACCESS: {
+                TypeIdentifier subject = readNode();
+                return new StaticFieldAccess(subject, readString());
+            }
+            case TYPE_IDENTIFIER: {
+                QualifiedName packageName = readNode();
+                String typeName = readString();
+                return packageName == null ? new TypeIdentifier(typeName) : new TypeIdentifier(packageName, typeName);
+            }
+            case VALUE_REFERENCE:
+                return new ValueReference(readString());
+            case ARRAY_ACCESS: {
+                Expression array = readNode();
+                return new ArrayAccess(array, readNode());
+            }
+            case ASSIGNMENT: {
+                Expression target = readNode();
+                return new AssignmentExpression(target, readNode());
+            }
+            case MATH_OPERATION: {
+                MathOperation.Operator operator = MathOperation.Operator.values()[in.readByte()];
+                Expression left = readNode();
+                return new MathOperation(operator, left, readNode());
+            }
+            case LOGIC_OPERATION: {
+                LogicOperation.Operator operator = LogicOperation.Operator.values()[in.readByte()];
+                Expression left = readNode();
+                return new LogicOperation(operator, left, readNode());
+            }
+            case RELATIONAL_OPERATION: {
+                RelationalOperation.Operator operator = RelationalOperation.Operator.values()[in.readByte()];
+                Expression left = readNode();
+                return new RelationalOperation(operator, left, readNode());
+            }
+            case NOT_OPERATION:
+                return new NotOperation(readNode());
+            case STRING_INTERPOLATION: {
+                StringInterpolation stringInterpolation = new StringInterpolation();
+                for (Expression element : this.<Expression>readNodes()) {
+                    stringInterpolation.add(element);
+                }
+                return stringInterpolation;
+            }
+            case CONTEXT_ACCESS:
+                return new ContextAccess(readString());
+            case RELATION_SUBSET: {
+                String relationName = readString();
+                String fieldName = readString();
+                return new RelationSubset(relationName, fieldName, readNodes());
+            }
+            case THIS:
+                return new ThisExpression();
+            case PLACEHOLDER:
+                return new Placeholder();
+            case SEMANTIC_ERROR: {
+                String message = readString();
+                return new SemanticError(message, readPosition());
+            }
+
+            case STRING_LITERAL:
+                return new StringLiteral(readString());
+            case BOOLEAN_LITERAL:
+                return new BooleanLiteral(in.readBoolean());
+            case BYTE_LITERAL:
+                return new ByteLiteral(in.readByte());
+            case SHORT_LITERAL:
+                return new ShortLiteral(in.readShort());
+            case INT_LITERAL:
+                return new IntLiteral(in.readInt());
+            case LONG_LITERAL:
+                return new LongLiteral(in.readLong());
+            case FLOAT_LITERAL:
+                return new FloatLiteral(in.readFloat());
+            case DOUBLE_LITERAL:
+                return new DoubleLiteral(in.readDouble());
+            default:
+                throw new IOException("Unknown tag " + tag);
+        }
+    }
+
+    private TurinTypeDefinition readTypeDefinition() throws IOException {
+        TurinTypeDefinition typeDefinition = new TurinTypeDefinition(readString());
+        for (Node member : readNodes()) {
+            if (member instanceof PropertyReference) {
+                typeDefinition.add((PropertyReference) member);
+            } else if (member instanceof PropertyDefinition) {
+                typeDefinition.add((PropertyDefinition) member);
+            } else if (member instanceof TurinTypeMethodDefinitionNode) {
+                typeDefinition.add((TurinTypeMethodDefinitionNode) member);
+            } else if (member instanceof TurinTypeContructorDefinitionNode) {
+                typeDefinition.add((TurinTypeContructorDefinitionNode) member);
+            } else {
+                throw new IOException("Unexpected member " + member);
+            }
+        }
+        for (AnnotationUsage annotationUsage : this.<AnnotationUsage>readNodes()) {
+            typeDefinition.addAnnotation(annotationUsage);
+        }
+        TypeUsageNode baseType = readNode();
+        if (baseType != null) {
+            typeDefinition.setBaseType(baseType);
+        }
+        for (TypeUsageNode interfaze : this.<TypeUsageNode>readNodes()) {
+            typeDefinition.addInterface(interfaze);
+        }
+        return typeDefinition;
+    }
+
+    private void addTopNode(TurinFile turinFile, Node topNode) throws IOException {
+        if (topNode instanceof TurinTypeDefinition) {
+            turinFile.add((TurinTypeDefinition) topNode);
+        } else if (topNode instanceof PropertyDefinition) {
+            turinFile.add((PropertyDefinition) topNode);
+        } else if (topNode instanceof Program) {
+            turinFile.add((Program) topNode);
+        } else if (topNode instanceof FunctionDefinitionNode) {
+            turinFile.add((FunctionDefinitionNode) topNode);
+        } else if (topNode instanceof RelationDefinition) {
+            turinFile.add((RelationDefinition) topNode);
+        } else if (topNode instanceof ContextDefinitionNode) {
+            turinFile.add((ContextDefinitionNode) topNode);
+        } else if (topNode instanceof SyntaxError) {
+            turinFile.add((SyntaxError) topNode);
+        } else {
+            throw new IOException("Unexpected top node " + topNode);
+        }
+    }
+
+    private Position readPosition() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Point start = new Point(readVarInt(), readVarInt());
+        return new Position(start, new Point(readVarInt(), readVarInt()));
+    }
+
+    private String readString() throws IOException {
+        int code = readVarInt();
+        if (code == NULL_STRING) {
+            return null;
+        } else if (code == NEW_STRING) {
+            String string = in.readUTF();
+            if (names.isPresent()) {
+                string = names.get().intern(string);
+            }
+            strings.add(string);
+            return string;
+        } else {
+            return strings.get(code - STRING_REFERENCE);
+        }
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed integer");
+    }
+}
@@ -0,0 +1,443 @@
+package me.tomassetti.turin.parser.cache;
+
+import me.tomassetti.turin.parser.ast.*;
+import me.tomassetti.turin.parser.ast.annotations.AnnotationUsage;
+import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.parser.ast.expressions.*;
+import me.tomassetti.turin.parser.ast.expressions.literals.*;
+import me.tomassetti.turin.parser.ast.imports.AllFieldsImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.AllPackageImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.SingleFieldImportDeclaration;
+import me.tomassetti.turin.parser.ast.imports.TypeImportDeclaration;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.InvokableDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeContructorDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.TurinTypeMethodDefinitionNode;
+import me.tomassetti.turin.parser.ast.properties.PropertyConstraint;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.parser.ast.relations.RelationDefinition;
+import me.tomassetti.turin.parser.ast.relations.RelationFieldDefinition;
+import me.tomassetti.turin.parser.ast.statements.*;
+import me.tomassetti.turin.parser.ast.typeusage.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static me.tomassetti.turin.parser.cache.AstFormat.*;
+
+/**
+ * Write a TurinFile, as produced by the parser, in the binary format read by AstReader.
+ *
+ * Each node is written as a tag identifying its class, followed by its position and by the arguments needed to
+ * build it again. Each string is written once and then referred to by its index. Integers are written using a
+ * variable number of bytes, so that most positions take four bytes.
+ */
+public class AstWriter {
+
+    private DataOutputStream out;
+    private Map<String, Integer> strings = new HashMap<>();
+
+    public AstWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    public void write(TurinFile turinFile) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeNode(turinFile);
+        out.flush();
+    }
+
+    private void writeNode(Node node) throws IOException {
+        if (node instanceof TurinFile) {
+            TurinFile turinFile = (TurinFile) node;
+            writeHeader(TURIN_FILE, node);
+            writeNode(turinFile.getNamespaceDefinition());
+            writeNodes(turinFile.getNodes());
+            writeNodes(turinFile.getImports());
+        } else if (node instanceof NamespaceDefinition) {
+            writeHeader(NAMESPACE_DEFINITION, node);
+            writeString(((NamespaceDefinition) node).getName());
+        } else if (node instanceof QualifiedName) {
+            QualifiedName qualifiedName = (QualifiedName) node;
+            writeHeader(QUALIFIED_NAME, node);
+            writeOptionalNode(qualifiedName.getBase());
+            writeString(qualifiedName.getName());
+        } else if (node instanceof TypeImportDeclaration) {
+            TypeImportDeclaration importDeclaration = (TypeImportDeclaration) node;
+            writeHeader(TYPE_IMPORT, node);
+            writeNode(importDeclaration.getPackagePart());
+            writeString(importDeclaration.getTypeName());
+            writeString(importDeclaration.getAlternativeName());
+        } else if (node instanceof SingleFieldImportDeclaration) {
+            SingleFieldImportDeclaration importDeclaration = (SingleFieldImportDeclaration) node;
+            writeHeader(SINGLE_FIELD_IMPORT, node);
+            writeNode(importDeclaration.getPackagePart());
+            writeString(importDeclaration.getTypeName());
+            writeNode(importDeclaration.getFieldsPath());
+            writeString(importDeclaration.getAlias());
+        } else if (node instanceof AllFieldsImportDeclaration) {
+            AllFieldsImportDeclaration importDeclaration = (AllFieldsImportDeclaration) node;
+            writeHeader(ALL_FIELDS_IMPORT, node);
+            writeNode(importDeclaration.getPackagePart());
+            writeString(importDeclaration.getTypeName());
+        } else if (node instanceof AllPackageImportDeclaration) {
+            writeHeader(ALL_PACKAGE_IMPORT, node);
+            writeNode(((AllPackageImportDeclaration) node).getPackageName());
+        } else if (node instanceof TurinTypeDefinition) {
+            TurinTypeDefinition typeDefinition = (TurinTypeDefinition) node;
+            writeHeader(TYPE_DEFINITION, node);
+            writeString(typeDefinition.getName());
+            writeNodes(typeDefinition.getMembers());
+            writeNodes(typeDefinition.getAnnotations());
+            writeOptionalNode(typeDefinition.getBaseType().orElse(null));
+            writeNodes(typeDefinition.getInterfaces());
+        } else if (node instanceof PropertyDefinition) {
+            PropertyDefinition propertyDefinition = (PropertyDefinition) node;
+            writeHeader(PROPERTY_DEFINITION, node);
+            writeString(propertyDefinition.getName());
+            writeNode(propertyDefinition.getType());
+            writeOptionalNode(propertyDefinition.getInitialValue());
+            writeOptionalNode(propertyDefinition.getDefaultValue());
+            writeNodes(propertyDefinition.getConstraints());
+        } else if (node instanceof PropertyReference) {
+            writeHeader(PROPERTY_REFERENCE, node);
+            writeString(((PropertyReference) node).getName());
+        } else if (node instanceof PropertyConstraint) {
+            PropertyConstraint propertyConstraint = (PropertyConstraint) node;
+            writeHeader(PROPERTY_CONSTRAINT, node);
+            writeNode(propertyConstraint.getCondition());
+            writeNode(propertyConstraint.getMessage());
+        } else if (node instanceof TurinTypeMethodDefinitionNode) {
+            writeHeader(METHOD_DEFINITION, node);
+            writeInvokable((InvokableDefinitionNode) node);
+        } else if (node instanceof TurinTypeContructorDefinitionNode) {
+            TurinTypeContructorDefinitionNode constructorDefinition = (TurinTypeContructorDefinitionNode) node;
+            writeHeader(CONSTRUCTOR_DEFINITION, node);
+            writeNodes(constructorDefinition.getParameters());
+            writeNode(constructorDefinition.getBody());
+        } else if (node instanceof FunctionDefinitionNode) {
+            FunctionDefinitionNode functionDefinition = (FunctionDefinitionNode) node;
+            writeHeader(FUNCTION_DEFINITION, node);
+            writeInvokable(functionDefinition);
+            writeNodes(functionDefinition.getAnnotations());
+        } else if (node instanceof FormalParameterNode) {
+            FormalParameterNode formalParameter = (FormalParameterNode) node;
+            writeHeader(FORMAL_PARAMETER, node);
+            writeNode(formalParameter.getType());
+            writeString(formalParameter.getName());
+            writeOptionalNode(formalParameter.getDefaultValue());
+        } else if (node instanceof Program) {
+            Program program = (Program) node;
+            writeHeader(PROGRAM, node);
+            writeString(program.getName());
+            writeNode(program.getStatement());
+            writeString(program.getParamName());
+        } else if (node instanceof RelationDefinition) {
+            RelationDefinition relationDefinition = (RelationDefinition) node;
+            writeHeader(RELATION_DEFINITION, node);
+            writeString(relationDefinition.getName());
+            writeNodes(relationDefinition.getFields());
+        } else if (node instanceof RelationFieldDefinition) {
+            RelationFieldDefinition fieldDefinition = (RelationFieldDefinition) node;
+            writeHeader(RELATION_FIELD_DEFINITION, node);
+            out.writeByte(fieldDefinition.getCardinality().ordinal());
+            writeString(fieldDefinition.getName());
+            writeNode(fieldDefinition.getType());
+        } else if (node instanceof ContextDefinitionNode) {
+            ContextDefinitionNode contextDefinition = (ContextDefinitionNode) node;
+            writeHeader(CONTEXT_DEFINITION, node);
+            writeString(contextDefinition.getName());
+            writeNode(contextDefinition.getType());
+        } else if (node instanceof AnnotationUsage) {
+            writeHeader(ANNOTATION_USAGE, node);
+            writeString(((AnnotationUsage) node).getName());
+        } else if (node instanceof SyntaxError) {
+            writeHeader(SYNTAX_ERROR, node);
+            writeString(((SyntaxError) node).getMessage());
+        } else if (node instanceof TypeUsageNode) {
+            writeTypeUsage((TypeUsageNode) node);
+        } else if (node instanceof Statement) {
+            writeStatement((Statement) node);
+        } else if (node instanceof CatchClause) {
+            CatchClause catchClause = (CatchClause) node;
+            writeHeader(CATCH, node);
+            writeNode(catchClause.getExceptionType());
+            writeString(catchClause.getVariableName());
+            writeNode(catchClause.getBody());
+        } else if (node instanceof ElifClause) {
+            ElifClause elifClause = (ElifClause) node;
+            writeHeader(ELIF, node);
+            writeNode(elifClause.getCondition());
+            writeNode(elifClause.getBody());
+        } else if (node instanceof ContextAssignment) {
+            ContextAssignment contextAssignment = (ContextAssignment) node;
+            writeHeader(CONTEXT_ASSIGNMENT, node);
+            writeString(contextAssignment.getContextName());
+            writeNode(contextAssignment.getContextValue());
+        } else if (node instanceof ActualParam) {
+            ActualParam actualParam = (ActualParam) node;
+            writeHeader(ACTUAL_PARAM, node);
+            writeString(actualParam.getName());
+            writeNode(actualParam.getValue());
+            out.writeBoolean(actualParam.isAsterisk());
+        } else if (node instanceof TypeIdentifier) {
+            TypeIdentifier typeIdentifier = (TypeIdentifier) node;
+            writeHeader(TYPE_IDENTIFIER, node);
+            writeOptionalNode(typeIdentifier.getPackageName());
+            writeString(typeIdentifier.getTypeName());
+        } else if (node instanceof Expression) {
+            writeExpression((Expression) node);
+        } else {
+            throw new UnsupportedOperationException("Cannot write " + node.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeInvokable(InvokableDefinitionNode invokable) throws IOException {
+        writeString(invokable.getName());
+        writeNode(invokable.getReturnType());
+        writeNodes(invokable.getParameters());
+        writeNode(invokable.getBody());
+    }
+
+    private void writeTypeUsage(TypeUsageNode typeUsage) throws IOException {
+        if (typeUsage instanceof ReferenceTypeUsageNode) {
+            writeHeader(REFERENCE_TYPE_USAGE, typeUsage);
+            writeString(((ReferenceTypeUsageNode) typeUsage).getName());
+        } else if (typeUsage instanceof BasicTypeUsageNode) {
+            writeHeader(BASIC_TYPE_USAGE, typeUsage);
+            writeString(typeUsage.typeUsage().describe());
+        } else if (typeUsage instanceof ArrayTypeUsageNode) {
+            writeHeader(ARRAY_TYPE_USAGE, typeUsage);
+            writeNode(((ArrayTypeUsageNode) typeUsage).getComponentTypeNode());
+        } else if (typeUsage instanceof VoidTypeUsageNode) {
+            writeHeader(VOID_TYPE_USAGE, typeUsage);
+        } else if (typeUsage.isPrimitive()) {
+            writeHeader(PRIMITIVE_TYPE_USAGE, typeUsage);
+            writeString(typeUsage.asPrimitiveTypeUsage().describe());
+        } else {
+            throw new UnsupportedOperationException("Cannot write " + typeUsage.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeStatement(Statement statement) throws IOException {
+        if (statement instanceof BlockStatement) {
+            writeHeader(BLOCK, statement);
+            writeNodes(((BlockStatement) statement).getStatements());
+        } else if (statement instanceof ExpressionStatement) {
+            writeHeader(EXPRESSION_STATEMENT, statement);
+            writeNode(((ExpressionStatement) statement).getExpression());
+        } else if (statement instanceof VariableDeclaration) {
+            VariableDeclaration variableDeclaration = (VariableDeclaration) statement;
+            writeHeader(VARIABLE_DECLARATION, statement);
+            writeString(variableDeclaration.getName());
+            writeNode(variableDeclaration.getValue());
+            writeOptionalNode(variableDeclaration.getType());
+        } else if (statement instanceof IfStatement) {
+            IfStatement ifStatement = (IfStatement) statement;
+            writeHeader(IF, statement);
+            writeNode(ifStatement.getCondition());
+            writeNode(ifStatement.getIfBody());
+            writeNodes(ifStatement.getElifStatements());
+            writeOptionalNode(ifStatement.hasElse() ? ifStatement.getElseBody() : null);
+        } else if (statement instanceof ReturnStatement) {
+            writeHeader(RETURN, statement);
+            writeOptionalNode(((ReturnStatement) statement).getValue());
+        } else if (statement instanceof ThrowStatement) {
+            writeHeader(THROW, statement);
+            writeNode(((ThrowStatement) statement).getException());
+        } else if (statement instanceof TryCatchStatement) {
+            TryCatchStatement tryCatchStatement = (TryCatchStatement) statement;
+            writeHeader(TRY_CATCH, statement);
+            writeNode(tryCatchStatement.getBody());
+            writeNodes(tryCatchStatement.getCatchClauses());
+        } else if (statement instanceof ContextScope) {
+            ContextScope contextScope = (ContextScope) statement;
+            writeHeader(CONTEXT_SCOPE, statement);
+            writeNodes(contextScope.getAssignments());
+            writeNodes(contextScope.getStatements());
+        } else {
+            throw new UnsupportedOperationException("Cannot write " + statement.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeExpression(Expression expression) throws IOException {
+        if (expression instanceof FunctionCall) {
+            FunctionCall functionCall = (FunctionCall) expression;
+            writeHeader(FUNCTION_CALL, expression);
+            writeNode(functionCall.getFunction());
+            writeNodes(functionCall.getActualParams());
+        } else if (expression instanceof Creation) {
+            Creation creation = (Creation) expression;
+            writeHeader(CREATION, expression);
+            writeNode(creation.getType());
+            writeNodes(creation.getActualParams());
+        } else if (expression instanceof InstanceMethodInvokation) {
+            InstanceMethodInvokation invokation = (InstanceMethodInvokation) expression;
+            writeHeader(INSTANCE_METHOD_INVOKATION, expression);
+            writeNode(invokation.getSubject());
+            writeString(invokation.getMethodName());
+            writeNodes(invokation.getActualParams());
+        } else if (expression instanceof SuperInvokation) {
+            writeHeader(SUPER_INVOKATION, expression);
+            writeNodes(((SuperInvokation) expression).getActualParams());
+        } else if (expression instanceof InstanceFieldAccess) {
+            InstanceFieldAccess fieldAccess = (InstanceFieldAccess) expression;
+            writeHeader(INSTANCE_FIELD_ACCESS, expression);
+            writeNode(fieldAccess.getSubject());
+            writeString(fieldAccess.getField());
+        } else if (expression instanceof StaticFieldAccess) {
+            StaticFieldAccess fieldAccess = (StaticFieldAccess) expression;
+            writeHeader(STATIC_FIELD_ACCESS, expression);
+            writeNode(fieldAccess.getSubject());
+            writeString(fieldAccess.getField());
+        } else if (expression instanceof ValueReference) {
+            writeHeader(VALUE_REFERENCE, expression);
+            writeString(((ValueReference) expression).getName());
+        } else if (expression instanceof ArrayAccess) {
+            ArrayAccess arrayAccess = (ArrayAccess) expression;
+            writeHeader(ARRAY_ACCESS, expression);
+            writeNode(arrayAccess.getArray());
+            writeNode(arrayAccess.getIndex());
+        } else if (expression instanceof AssignmentExpression) {
+            AssignmentExpression assignment = (AssignmentExpression) expression;
+            writeHeader(ASSIGNMENT, expression);
+            writeNode(assignment.getTarget());
+            writeNode(assignment.getValue());
+        } else if (expression instanceof MathOperation) {
+            MathOperation operation = (MathOperation) expression;
+            writeHeader(MATH_OPERATION, expression);
+            out.writeByte(operation.getOperator().ordinal());
+            writeNode(operation.getLeft());
+            writeNode(operation.getRight());
+        } else if (expression instanceof LogicOperation) {
+            LogicOperation operation = (LogicOperation) expression;
+            writeHeader(LOGIC_OPERATION, expression);
+            out.writeByte(operation.getOperator().ordinal());
+            writeNode(operation.getLeft());
+            writeNode(operation.getRight());
+        } else if (expression instanceof RelationalOperation) {
+            RelationalOperation operation = (RelationalOperation) expression;
+            writeHeader(RELATIONAL_OPERATION, expression);
+            out.writeByte(operation.getOperator().ordinal());
+            writeNode(operation.getLeft());
+            writeNode(operation.getRight());
+        } else if (expression instanceof NotOperation) {
+            writeHeader(NOT_OPERATION, expression);
+            writeNode(((NotOperation) expression).getValue());
+        } else if (expression instanceof StringInterpolation) {
+            writeHeader(STRING_INTERPOLATION, expression);
+            writeNodes(((StringInterpolation) expression).getElements());
+        } else if (expression instanceof ContextAccess) {
+            writeHeader(CONTEXT_ACCESS, expression);
+            writeString(((ContextAccess) expression).getContextName());
+        } else if (expression instanceof RelationSubset) {
+            RelationSubset relationSubset = (RelationSubset) expression;
+            writeHeader(RELATION_SUBSET, expression);
+            writeString(relationSubset.getRelationName());
+            writeString(relationSubset.getFieldName());
+            writeNodes(relationSubset.getMatchingConditions());
+        } else if (expression instanceof ThisExpression) {
+            writeHeader(THIS, expression);
+        } else if (expression instanceof Placeholder) {
+            writeHeader(PLACEHOLDER, expression);
+        } else if (expression instanceof SemanticError) {
+            SemanticError semanticError = (SemanticError) expression;
+            writeHeader(SEMANTIC_ERROR, expression);
+            writeString(semanticError.getMessage());
+            writePosition(semanticError.getErrorPosition());
+        } else if (expression instanceof StringLiteral) {
+            writeHeader(STRING_LITERAL, expression);
+            writeString(((StringLiteral) expression).getValue());
+        } else if (expression instanceof BooleanLiteral) {
+            writeHeader(BOOLEAN_LITERAL, expression);
+            out.writeBoolean(((BooleanLiteral) expression).getValue());
+        } else if (expression instanceof ByteLiteral) {
+            writeHeader(BYTE_LITERAL, expression);
+            out.writeByte(((ByteLiteral) expression).getValue());
+        } else if (expression instanceof ShortLiteral) {
+            writeHeader(SHORT_LITERAL, expression);
+            out.writeShort(((ShortLiteral) expression).getValue());
+        } else if (expression instanceof IntLiteral) {
+            writeHeader(INT_LITERAL, expression);
+            out.writeInt(((IntLiteral) expression).getValue());
+        } else if (expression instanceof LongLiteral) {
+            writeHeader(LONG_LITERAL, expression);
+            out.writeLong(((LongLiteral) expression).getValue());
+        } else if (expression instanceof FloatLiteral) {
+            writeHeader(FLOAT_LITERAL, expression);
+            out.writeFloat(((FloatLiteral) expression).getValue());
+        } else if (expression instanceof DoubleLiteral) {
+            writeHeader(DOUBLE_LITERAL, expression);
+            out.writeDouble(((DoubleLiteral) expression).getValue());
+        } else {
+            throw new UnsupportedOperationException("Cannot write " + expression.getClass().getCanonicalName());
+        }
+    }
+
+    private void writeHeader(byte tag, Node node) throws IOException {
+        out.writeByte(tag);
+        writePosition(node.hasPosition() ? node.getPosition() : null);
+    }
+
+    private void writePosition(Position position) throws IOException {
+        out.writeBoolean(position != null);
+        if (position != null) {
+            writeVarInt(position.getStart().getLine());
+            writeVarInt(position.getStart().getColumn());
+            writeVarInt(position.getEnd().getLine());
+            writeVarInt(position.getEnd().getColumn());
+        }
+    }
+
+    private void writeOptionalNode(Optional<? extends Node> node) throws IOException {
+        writeOptionalNode(node.orElse(null));
+    }
+
+    private void writeOptionalNode(Node node) throws IOException {
+        if (node == null) {
+            out.writeByte(0);
+        } else {
+            writeNode(node);
+        }
+    }
+
+    private void writeNodes(List<?> nodes) throws IOException {
+        writeVarInt(nodes.size());
+        for (Object node : nodes) {
+            writeNode((Node) node);
+        }
+    }
+
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            writeVarInt(NULL_STRING);
+            return;
+        }
+        Integer index = strings.get(string);
+        if (index == null) {
+            strings.put(string, strings.size());
+            writeVarInt(NEW_STRING);
+            out.writeUTF(string);
+        } else {
+            writeVarInt(STRING_REFERENCE + index);
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
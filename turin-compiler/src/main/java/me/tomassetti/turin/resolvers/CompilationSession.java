@@ -0,0 +1,93 @@
+package me.tomassetti.turin.resolvers;
+
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Associate the TurinFiles of a compilation to the resolver used to compile them. Each Compiler owns its session, so
+ * compilations running in the same JVM do not share any state, and a file belongs to at most one session at a time.
+ * The resolver is kept on the file, so that the nodes find it from their root without any lookup, while the session
+ * keeps track of its files to release them all at once.
+ */
+public class CompilationSession implements ResolverProvider {
+
+    // files can be compiled concurrently, they are compared by identity
+    private final Set<TurinFile> files = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Return the resolver of the session the root of the given node belongs to.
+     */
+    public static SymbolResolver resolverOf(Node node) {
+        Node root = node.getRoot();
+        if (root instanceof TurinFile) {
+            CompilationSession session = ((TurinFile) root).getSession();
+            if (session != null) {
+                return session.requireResolver(root);
+            }
+        }
+        throw new IllegalStateException(node.toString());
+    }
+
+    public void record(TurinFile turinFile, SymbolResolver resolver) {
+        synchronized (turinFile) {
+            CompilationSession session = turinFile.getSession();
+            if (session != null && session != this) {
+                throw new IllegalStateException("The file is already part of another compilation session");
+            }
+            turinFile.setSession(this, resolver);
+            files.add(turinFile);
+        }
+    }
+
+    public void forget(TurinFile turinFile) {
+        synchronized (turinFile) {
+            if (turinFile.getSession() == this) {
+                turinFile.setSession(null, null);
+                files.remove(turinFile);
+            }
+        }
+    }
+
+    /**
+     * Forget all the files of the session, so that they can be recorded in another one or garbage collected.
+     */
+    public void close() {
+        List<TurinFile> recorded;
+        synchronized (files) {
+            recorded = new ArrayList<>(files);
+        }
+        recorded.forEach(this::forget);
+    }
+
+    public int getFilesCount() {
+        return files.size();
+    }
+
+    @Override
+    public Optional<SymbolResolver> findResolver(Node node) {
+        Node root = node.getRoot();
+        if (root instanceof TurinFile && ((TurinFile) root).getSession() == this) {
+            return Optional.ofNullable(((TurinFile) root).getResolver());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public SymbolResolver requireResolver(Node node) {
+        Optional<SymbolResolver> or = findResolver(node);
+        if (or.isPresent()) {
+            return or.get();
+        } else {
+            throw new IllegalStateException(node.toString());
+        }
+    }
+
+}
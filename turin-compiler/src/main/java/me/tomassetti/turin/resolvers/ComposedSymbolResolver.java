@@ -114,4 +114,8 @@ public class ComposedSymbolResolver implements SymbolResolver {
         return Optional.empty();
     }
 
+    @Override
+    public void clearCaches() {
+        elements.forEach(SymbolResolver::clearCaches);
+    }
 }
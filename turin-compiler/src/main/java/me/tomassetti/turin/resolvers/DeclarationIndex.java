@@ -0,0 +1,100 @@
+package me.tomassetti.turin.resolvers;
+
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Program;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.TypeDefinitionNode;
+import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * The qualified names of the top level definitions of a set of files, each one associated to the file defining it.
+ *
+ * It takes a small fraction of the memory needed by the ASTs, so it can be built for a whole codebase and used to
+ * load the ASTs only when they are needed.
+ */
+public class DeclarationIndex {
+
+    public enum Kind {
+        TYPE,
+        PROPERTY,
+        PROGRAM,
+        FUNCTION,
+        CONTEXT
+    }
+
+    /**
+     * The declarations of a single file.
+     */
+    public static class Declarations {
+
+        private Map<Kind, List<String>> qualifiedNames = new EnumMap<>(Kind.class);
+        private Set<String> packages = new HashSet<>();
+
+        private void add(Kind kind, String qualifiedName, Node definition) {
+            qualifiedNames.computeIfAbsent(kind, (k) -> new ArrayList<>()).add(qualifiedName);
+            packages.add(definition.contextName());
+        }
+
+        public List<String> getQualifiedNames(Kind kind) {
+            return qualifiedNames.getOrDefault(kind, Collections.emptyList());
+        }
+
+        public Set<String> getPackages() {
+            return packages;
+        }
+    }
+
+    private Map<Kind, Map<String, File>> files = new EnumMap<>(Kind.class);
+    private Set<String> packages = new HashSet<>();
+
+    public DeclarationIndex() {
+        for (Kind kind : Kind.values()) {
+            files.put(kind, new HashMap<>());
+        }
+    }
+
+    /**
+     * Extract the declarations from the AST: the AST is not referred by the result.
+     */
+    public static Declarations extract(TurinFile turinFile) {
+        Declarations declarations = new Declarations();
+        for (TypeDefinitionNode typeDefinition : turinFile.getTopLevelTypeDefinitions()) {
+            declarations.add(Kind.TYPE, typeDefinition.getQualifiedName(), typeDefinition);
+        }
+        for (PropertyDefinition propertyDefinition : turinFile.getTopLevelPropertyDefinitions()) {
+            declarations.add(Kind.PROPERTY, propertyDefinition.getQualifiedName(), propertyDefinition);
+        }
+        for (Program program : turinFile.getTopLevelPrograms()) {
+            declarations.add(Kind.PROGRAM, program.getQualifiedName(), program);
+        }
+        for (FunctionDefinitionNode functionDefinition : turinFile.getTopLevelFunctionDefinitions()) {
+            declarations.add(Kind.FUNCTION, functionDefinition.getQualifiedName(), functionDefinition);
+        }
+        for (ContextDefinitionNode contextDefinition : turinFile.getTopLevelContextDefinitions()) {
+            declarations.add(Kind.CONTEXT, contextDefinition.getQualifiedName(), contextDefinition);
+        }
+        return declarations;
+    }
+
+    public synchronized void add(File file, Declarations declarations) {
+        for (Kind kind : Kind.values()) {
+            for (String qualifiedName : declarations.getQualifiedNames(kind)) {
+                files.get(kind).put(qualifiedName, file);
+            }
+        }
+        packages.addAll(declarations.getPackages());
+    }
+
+    public synchronized Optional<File> findFile(Kind kind, String qualifiedName) {
+        return Optional.ofNullable(files.get(kind).get(qualifiedName));
+    }
+
+    public synchronized boolean existPackage(String packageName) {
+        return packages.contains(packageName);
+    }
+}
@@ -1,11 +1,13 @@
 package me.tomassetti.turin.resolvers;
 
+import com.google.common.collect.Iterables;
 import me.tomassetti.jvm.JvmMethodDefinition;
 import me.tomassetti.jvm.JvmNameUtils;
 import me.tomassetti.turin.compiler.errorhandling.SemanticErrorException;
 import me.tomassetti.turin.definitions.ContextDefinition;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
 import me.tomassetti.turin.parser.ast.context.ContextDefinitionNode;
 import me.tomassetti.turin.parser.ast.expressions.ActualParam;
 import me.tomassetti.turin.parser.ast.expressions.Expression;
@@ -21,17 +23,34 @@ import me.tomassetti.turin.typesystem.PrimitiveTypeUsage;
 import me.tomassetti.turin.typesystem.ReferenceTypeUsage;
 import me.tomassetti.turin.typesystem.TypeUsage;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Resolve symbols by looking in the file where the context node is contained.
+ *
+ * The type names resolved in each file, and through the type resolver, are cached, including the names which are
+ * not found. The cache refers to the files, so it has to be cleared when the files change or are released.
  */
 public class InFileSymbolResolver implements SymbolResolver {
 
     private TypeResolver typeResolver;
 
+    // type names resolved at the level of a file, when the root resolver is used
+    // the files are compared by identity: distinct files with the same content have distinct definitions
+    private Map<Node, Map<String, Optional<TypeDefinition>>> fileTypeDefinitions =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+    // type names resolved through the type resolver
+    private Map<String, Optional<TypeDefinition>> absoluteTypeDefinitions = new ConcurrentHashMap<>();
+    private AtomicLong cacheHits = new AtomicLong();
+    private AtomicLong cacheMisses = new AtomicLong();
+
     @Override
     public String toString() {
         return "InFileSymbolResolver{" +
@@ -57,6 +76,20 @@ public class InFileSymbolResolver implements SymbolResolver {
         this.typeResolver.setSymbolResolver(this);
     }
 
+    @Override
+    public void clearCaches() {
+        fileTypeDefinitions.clear();
+        absoluteTypeDefinitions.clear();
+    }
+
+    public long getCacheHitsCount() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMissesCount() {
+        return cacheMisses.get();
+    }
+
     @Override
     public Optional<PropertyDefinition> findDefinition(PropertyReference propertyReference) {
         return findDefinitionIn(propertyReference, propertyReference.getParent());
@@ -166,17 +199,17 @@ public class InFileSymbolResolver implements SymbolResolver {
                         || contextDefinition.getQualifiedName().equals(contextName)) {
                     return Optional.of(contextDefinition);
                 }
-            } else if (child instanceof ImportDeclaration) {
-                // this is necessary to avoid infinite recursion
-                if (child != previousContext) {
-                    ImportDeclaration importDeclaration = (ImportDeclaration) child;
-                    Optional<Symbol> resolvedNode = importDeclaration.findAmongImported(contextName, this.getRoot());
-                    if (resolvedNode.isPresent()) {
-                        if (resolvedNode.get() instanceof ContextDefinition) {
-                            return Optional.of((ContextDefinition) resolvedNode.get());
-                        } else {
-                            throw new SemanticErrorException(context, "" + contextName + " is not a context");
-                        }
+            }
+        }
+        for (ImportDeclaration importDeclaration : importsIn(context, contextName)) {
+            // this is necessary to avoid infinite recursion
+            if (importDeclaration != previousContext) {
+                Optional<Symbol> resolvedNode = importDeclaration.findAmongImported(contextName, this.getRoot());
+                if (resolvedNode.isPresent()) {
+                    if (resolvedNode.get() instanceof ContextDefinition) {
+                        return Optional.of((ContextDefinition) resolvedNode.get());
+                    } else {
+                        throw new SemanticErrorException(context, "" + contextName + " is not a context");
                     }
                 }
             }
@@ -197,14 +230,56 @@ public class InFileSymbolResolver implements SymbolResolver {
             throw new IllegalArgumentException(typeName);
         }
         if (context == null) {
-            // implicitly look into java.lang package
-            Optional<TypeDefinition> result = typeResolver.resolveAbsoluteTypeName("java.lang." + typeName);
-            if (result.isPresent()) {
-                return result;
+            Optional<TypeDefinition> cached = absoluteTypeDefinitions.get(typeName);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
             }
+            cacheMisses.incrementAndGet();
+            Optional<TypeDefinition> result = resolveAbsoluteTypeName(typeName);
+            absoluteTypeDefinitions.put(typeName, result);
+            return result;
+        }
+        // the result depends on the previous context only when it is an import, which is then skipped
+        if (context.isRoot() && resolver == getRoot() && !(previousContext instanceof ImportDeclaration)) {
+            Map<String, Optional<TypeDefinition>> fileCache = fileTypeDefinitions.computeIfAbsent(context,
+                    (file) -> new ConcurrentHashMap<>());
+            Optional<TypeDefinition> cached = fileCache.get(typeName);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            cacheMisses.incrementAndGet();
+            // not computed inside the map: resolving an import can look up other names in the same file
+            Optional<TypeDefinition> result = findTypeDefinitionInScope(typeName, context, previousContext, resolver);
+            fileCache.put(typeName, result);
+            return result;
+        }
+        return findTypeDefinitionInScope(typeName, context, previousContext, resolver);
+    }
+
+    private Optional<TypeDefinition> resolveAbsoluteTypeName(String typeName) {
+        // implicitly look into java.lang package
+        Optional<TypeDefinition> result = typeResolver.resolveAbsoluteTypeName("java.lang." + typeName);
+        if (result.isPresent()) {
+            return result;
+        }
+        return typeResolver.resolveAbsoluteTypeName(typeName);
+    }
 
-            return typeResolver.resolveAbsoluteTypeName(typeName);
+    /**
+     * The imports among the children of the context which could expose the given name: files answer from their
+     * import index.
+     */
+    private static Iterable<ImportDeclaration> importsIn(Node context, String name) {
+        if (context instanceof TurinFile) {
+            return ((TurinFile) context).getImportsFor(name);
         }
+        return Iterables.filter(context.getChildren(), ImportDeclaration.class);
+    }
+
+    private Optional<TypeDefinition> findTypeDefinitionInScope(String typeName, Node context,
+                                                               Node previousContext, SymbolResolver resolver) {
         for (Node child : context.getChildren()) {
             if (child instanceof TypeDefinition) {
                 TypeDefinition typeDefinition = (TypeDefinition)child;
@@ -212,17 +287,17 @@ public class InFileSymbolResolver implements SymbolResolver {
                         || typeDefinition.getQualifiedName().equals(typeName)) {
                     return Optional.of(typeDefinition);
                 }
-            } else if (child instanceof ImportDeclaration) {
-                // this is necessary to avoid infinite recursion
-                if (child != previousContext) {
-                    ImportDeclaration importDeclaration = (ImportDeclaration) child;
-                    Optional<Symbol> resolvedNode = importDeclaration.findAmongImported(typeName, resolver);
-                    if (resolvedNode.isPresent()) {
-                        if (resolvedNode.get() instanceof TypeDefinition) {
-                            return Optional.of((TypeDefinition) resolvedNode.get());
-                        } else {
-                            throw new SemanticErrorException(context, "" + typeName + " is not a type");
-                        }
+            }
+        }
+        for (ImportDeclaration importDeclaration : importsIn(context, typeName)) {
+            // this is necessary to avoid infinite recursion
+            if (importDeclaration != previousContext) {
+                Optional<Symbol> resolvedNode = importDeclaration.findAmongImported(typeName, resolver);
+                if (resolvedNode.isPresent()) {
+                    if (resolvedNode.get() instanceof TypeDefinition) {
+                        return Optional.of((TypeDefinition) resolvedNode.get());
+                    } else {
+                        throw new SemanticErrorException(context, "" + typeName + " is not a type");
                     }
                 }
             }
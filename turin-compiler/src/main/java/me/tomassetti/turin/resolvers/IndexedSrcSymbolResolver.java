@@ -0,0 +1,181 @@
+package me.tomassetti.turin.resolvers;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.jvm.JvmMethodDefinition;
+import me.tomassetti.turin.definitions.ContextDefinition;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+import me.tomassetti.turin.parser.analysis.exceptions.UnsolvedMethodException;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.expressions.FunctionCall;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.parser.ast.properties.PropertyReference;
+import me.tomassetti.turin.symbols.Symbol;
+import me.tomassetti.turin.typesystem.TypeUsage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Solve symbols considering TurinFiles, like SrcSymbolResolver, but keeping in memory only some of the ASTs.
+ *
+ * The files defining each name are found using a DeclarationIndex and they are parsed when first needed. The loaded
+ * ASTs are recorded in the CompilationSession given to this resolver. They are released, least recently used first, only
+ * when releaseUnused is invoked: the caller invokes it when no AST is in use, because the ASTs being compiled refer to
+ * the definitions they resolved in other ASTs.
+ */
+public class IndexedSrcSymbolResolver implements SymbolResolver {
+
+    private static class LoadedFile {
+        private TurinFileWithSource turinFile;
+        private SrcSymbolResolver srcSymbolResolver;
+
+        private LoadedFile(TurinFileWithSource turinFile) {
+            this.turinFile = turinFile;
+            this.srcSymbolResolver = new SrcSymbolResolver(ImmutableList.of(turinFile.getTurinFile()));
+        }
+    }
+
+    private DeclarationIndex declarationIndex;
+    private int maxLoadedFiles;
+    private Parser parser = new Parser();
+    private Map<File, LoadedFile> loadedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private CompilationSession session;
+
+    private SymbolResolver parent = null;
+
+    @Override
+    public SymbolResolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(SymbolResolver parent) {
+        this.parent = parent;
+    }
+
+    public IndexedSrcSymbolResolver(DeclarationIndex declarationIndex, int maxLoadedFiles) {
+        this(declarationIndex, maxLoadedFiles, new CompilationSession());
+    }
+
+    /**
+     * The loaded ASTs are recorded in the given session, which is shared with the Compiler compiling them.
+     */
+    public IndexedSrcSymbolResolver(DeclarationIndex declarationIndex, int maxLoadedFiles, CompilationSession session) {
+        this.declarationIndex = declarationIndex;
+        this.maxLoadedFiles = maxLoadedFiles;
+        this.session = session;
+    }
+
+    /**
+     * Return the AST of the file, parsing it if it is not already loaded.
+     */
+    public synchronized TurinFileWithSource load(File file) throws IOException {
+        return loadedFile(file).turinFile;
+    }
+
+    private LoadedFile loadedFile(File file) throws IOException {
+        LoadedFile loadedFile = loadedFiles.get(file);
+        if (loadedFile == null) {
+            TurinFile turinFile = parser.parse(file);
+            loadedFile = new LoadedFile(new TurinFileWithSource(file, turinFile));
+            loadedFiles.put(file, loadedFile);
+            session.record(turinFile, getRoot());
+        }
+        return loadedFile;
+    }
+
+    public synchronized int getLoadedFilesCount() {
+        return loadedFiles.size();
+    }
+
+    /**
+     * Release the least recently used ASTs exceeding the maximum number of loaded files.
+     */
+    public synchronized void releaseUnused() {
+        Iterator<LoadedFile> iterator = loadedFiles.values().iterator();
+        boolean released = false;
+        while (loadedFiles.size() > maxLoadedFiles && iterator.hasNext()) {
+            session.forget(iterator.next().turinFile.getTurinFile());
+            iterator.remove();
+            released = true;
+        }
+        if (released) {
+            // the other resolvers could cache names referring to the released files
+            getRoot().clearCaches();
+        }
+    }
+
+    /**
+     * Release all the ASTs.
+     */
+    public synchronized void releaseAll() {
+        loadedFiles.values().forEach((f) -> session.forget(f.turinFile.getTurinFile()));
+        loadedFiles.clear();
+        getRoot().clearCaches();
+    }
+
+    private synchronized <T> Optional<T> find(DeclarationIndex.Kind kind, String qualifiedName, Function<SrcSymbolResolver, Optional<T>> lookup) {
+        Optional<File> file = declarationIndex.findFile(kind, qualifiedName);
+        if (!file.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return lookup.apply(loadedFile(file.get()).srcSymbolResolver);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<PropertyDefinition> findDefinition(PropertyReference propertyReference) {
+        String name = propertyReference.contextName() + "." + propertyReference.getName();
+        return find(DeclarationIndex.Kind.PROPERTY, name, (r) -> r.findDefinition(propertyReference));
+    }
+
+    @Override
+    public Optional<TypeDefinition> findTypeDefinitionIn(String typeName, Node context, SymbolResolver resolver) {
+        return find(DeclarationIndex.Kind.TYPE, typeName, (r) -> r.findTypeDefinitionIn(typeName, context, resolver));
+    }
+
+    @Override
+    public Optional<TypeUsage> findTypeUsageIn(String typeName, Node context, SymbolResolver resolver) {
+        return find(DeclarationIndex.Kind.TYPE, typeName, (r) -> r.findTypeUsageIn(typeName, context, resolver));
+    }
+
+    @Override
+    public Optional<JvmMethodDefinition> findJvmDefinition(FunctionCall functionCall) {
+        throw new UnsolvedMethodException(functionCall);
+    }
+
+    @Override
+    public Optional<Symbol> findSymbol(String name, Node context) {
+        for (DeclarationIndex.Kind kind : new DeclarationIndex.Kind[]{DeclarationIndex.Kind.TYPE,
+                DeclarationIndex.Kind.PROPERTY, DeclarationIndex.Kind.FUNCTION, DeclarationIndex.Kind.PROGRAM}) {
+            Optional<Symbol> symbol = find(kind, name, (r) -> r.findSymbol(name, context));
+            if (symbol.isPresent()) {
+                return symbol;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existPackage(String packageName) {
+        return declarationIndex.existPackage(packageName);
+    }
+
+    @Override
+    public Optional<ContextDefinition> findContextSymbol(String contextName, Node context) {
+        return find(DeclarationIndex.Kind.CONTEXT, contextName, (r) -> r.findContextSymbol(contextName, context));
+    }
+
+}
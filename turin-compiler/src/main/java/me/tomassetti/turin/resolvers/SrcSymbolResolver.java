@@ -1,5 +1,7 @@
 package me.tomassetti.turin.resolvers;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 import me.tomassetti.jvm.JvmMethodDefinition;
 import me.tomassetti.turin.definitions.ContextDefinition;
 import me.tomassetti.turin.definitions.TypeDefinition;
@@ -21,7 +23,8 @@ import java.util.*;
  */
 public class SrcSymbolResolver implements SymbolResolver {
 
-    private Set<String> packages = new HashSet<>();
+    // a package exists as long as one definition is in it
+    private Multiset<String> packages = HashMultiset.create();
     private Map<String, TypeDefinition> typeDefinitions;
     private Map<String, PropertyDefinition> propertyDefinitions;
     private Map<String, Program> programsDefinitions;
@@ -46,27 +49,59 @@ public class SrcSymbolResolver implements SymbolResolver {
         this.programsDefinitions = new HashMap<>();
         this.functionDefinitions = new HashMap<>();
         this.contextDefinitions = new HashMap<>();
-        for (TurinFile turinFile : turinFiles) {
-            for (TypeDefinitionNode typeDefinition : turinFile.getTopLevelTypeDefinitions()) {
-                packages.add(typeDefinition.contextName());
-                typeDefinitions.put(typeDefinition.getQualifiedName(), typeDefinition);
-            }
-            for (PropertyDefinition propertyDefinition : turinFile.getTopLevelPropertyDefinitions()) {
-                packages.add(propertyDefinition.contextName());
-                propertyDefinitions.put(propertyDefinition.getQualifiedName(), propertyDefinition);
-            }
-            for (Program program : turinFile.getTopLevelPrograms()) {
-                packages.add(program.contextName());
-                programsDefinitions.put(program.getQualifiedName(), program);
-            }
-            for (FunctionDefinitionNode functionDefinition : turinFile.getTopLevelFunctionDefinitions()) {
-                packages.add(functionDefinition.contextName());
-                functionDefinitions.put(functionDefinition.getQualifiedName(), functionDefinition);
-            }
-            for (ContextDefinitionNode contextDefinition : turinFile.getTopLevelContextDefinitions()) {
-                packages.add(contextDefinition.contextName());
-                contextDefinitions.put(contextDefinition.getQualifiedName(), contextDefinition);
-            }
+        turinFiles.forEach(this::add);
+    }
+
+    /**
+     * Make the definitions of the file available.
+     */
+    public void add(TurinFile turinFile) {
+        for (TypeDefinitionNode typeDefinition : turinFile.getTopLevelTypeDefinitions()) {
+            packages.add(typeDefinition.contextName());
+            typeDefinitions.put(typeDefinition.getQualifiedName(), typeDefinition);
+        }
+        for (PropertyDefinition propertyDefinition : turinFile.getTopLevelPropertyDefinitions()) {
+            packages.add(propertyDefinition.contextName());
+            propertyDefinitions.put(propertyDefinition.getQualifiedName(), propertyDefinition);
+        }
+        for (Program program : turinFile.getTopLevelPrograms()) {
+            packages.add(program.contextName());
+            programsDefinitions.put(program.getQualifiedName(), program);
+        }
+        for (FunctionDefinitionNode functionDefinition : turinFile.getTopLevelFunctionDefinitions()) {
+            packages.add(functionDefinition.contextName());
+            functionDefinitions.put(functionDefinition.getQualifiedName(), functionDefinition);
+        }
+        for (ContextDefinitionNode contextDefinition : turinFile.getTopLevelContextDefinitions()) {
+            packages.add(contextDefinition.contextName());
+            contextDefinitions.put(contextDefinition.getQualifiedName(), contextDefinition);
+        }
+    }
+
+    /**
+     * Forget the definitions of a file previously added. Definitions with the same name coming from other files
+     * are not touched.
+     */
+    public void remove(TurinFile turinFile) {
+        for (TypeDefinitionNode typeDefinition : turinFile.getTopLevelTypeDefinitions()) {
+            packages.remove(typeDefinition.contextName());
+            typeDefinitions.remove(typeDefinition.getQualifiedName(), typeDefinition);
+        }
+        for (PropertyDefinition propertyDefinition : turinFile.getTopLevelPropertyDefinitions()) {
+            packages.remove(propertyDefinition.contextName());
+            propertyDefinitions.remove(propertyDefinition.getQualifiedName(), propertyDefinition);
+        }
+        for (Program program : turinFile.getTopLevelPrograms()) {
+            packages.remove(program.contextName());
+            programsDefinitions.remove(program.getQualifiedName(), program);
+        }
+        for (FunctionDefinitionNode functionDefinition : turinFile.getTopLevelFunctionDefinitions()) {
+            packages.remove(functionDefinition.contextName());
+            functionDefinitions.remove(functionDefinition.getQualifiedName(), functionDefinition);
+        }
+        for (ContextDefinitionNode contextDefinition : turinFile.getTopLevelContextDefinitions()) {
+            packages.remove(contextDefinition.contextName());
+            contextDefinitions.remove(contextDefinition.getQualifiedName(), contextDefinition);
         }
     }
 
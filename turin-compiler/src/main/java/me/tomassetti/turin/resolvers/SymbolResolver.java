@@ -46,7 +46,7 @@ public interface SymbolResolver {
      *                 because it is not a valid identifier and there are no TypeDefinition associated
      */
     default TypeDefinition getTypeDefinitionIn(String typeName, Node context) {
-        SymbolResolver resolver = ResolverRegistry.INSTANCE.requireResolver(context);
+        SymbolResolver resolver = CompilationSession.resolverOf(context);
         Optional<TypeDefinition> result = findTypeDefinitionIn(typeName, context, resolver.getRoot());
         if (result.isPresent()) {
             return result.get();
@@ -83,4 +83,10 @@ public interface SymbolResolver {
     boolean existPackage(String packageName);
 
     Optional<ContextDefinition> findContextSymbol(String contextName, Node context);
+
+    /**
+     * Discard the results cached by this resolver. It has to be called when the resolvable sources change.
+     */
+    default void clearCaches() {
+    }
 }
@@ -0,0 +1,115 @@
+package me.tomassetti.turin.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Execute the same task on many elements using a pool of threads.
+ */
+public class ParallelTasks {
+
+    @FunctionalInterface
+    public interface Task<T, R> {
+        R execute(T element) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ResultHandler<R> {
+        void handle(R result) throws IOException;
+    }
+
+    /**
+     * Pass the results to the handler in the order of the elements: a result is held until the results of all the
+     * previous elements have been handled.
+     */
+    private static class InOrder<R> {
+        private ResultHandler<R> handler;
+        private List<R> results;
+        private boolean[] completed;
+        private int next = 0;
+
+        private InOrder(int size, ResultHandler<R> handler) {
+            this.handler = handler;
+            this.results = new ArrayList<>(Collections.nCopies(size, null));
+            this.completed = new boolean[size];
+        }
+
+        private synchronized void completed(int index, R result) throws IOException {
+            results.set(index, result);
+            completed[index] = true;
+            while (next < completed.length && completed[next]) {
+                handler.handle(results.get(next));
+                results.set(next, null);
+                next++;
+            }
+        }
+    }
+
+    private ParallelTasks() {
+        // not instantiable
+    }
+
+    /**
+     * Execute the task on all the elements, using the given number of threads. The results are returned in the same
+     * order of the elements, irrespectively of the order of completion. The exception thrown by the first failing
+     * element is rethrown.
+     */
+    public static <T, R> List<R> executeAll(List<T> elements, Task<T, R> task, int threads) throws IOException {
+        return executeAll(elements, task, threads, (result) -> { });
+    }
+
+    /**
+     * Execute the task on all the elements, like executeAll, passing each result to the handler as soon as the
+     * results of the previous elements have been passed. The handler is never invoked concurrently and it receives
+     * the results in the order of the elements, so what it produces does not depend on the order of completion.
+     */
+    public static <T, R> List<R> executeAll(List<T> elements, Task<T, R> task, int threads, ResultHandler<R> handler) throws IOException {
+        List<R> results = new ArrayList<>();
+        if (threads <= 1 || elements.size() <= 1) {
+            for (T element : elements) {
+                R result = task.execute(element);
+                handler.handle(result);
+                results.add(result);
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, elements.size()));
+        InOrder<R> inOrder = new InOrder<>(elements.size(), handler);
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (int i = 0; i < elements.size(); i++) {
+                int index = i;
+                T element = elements.get(i);
+                futures.add(executor.submit(() -> {
+                    R result = task.execute(element);
+                    inOrder.completed(index, result);
+                    return result;
+                }));
+            }
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new RuntimeException(e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
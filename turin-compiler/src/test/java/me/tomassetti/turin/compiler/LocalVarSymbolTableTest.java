@@ -103,4 +103,30 @@ public class LocalVarSymbolTableTest {
         assertEquals(14, index.get().intValue());
     }
 
+    @Test
+    public void addReturnsTheIndexFoundLater() {
+        LocalVarsSymbolTable localVarsSymbolTable = LocalVarsSymbolTable.forInstanceMethod();
+        int index = localVarsSymbolTable.add("foo1", new ValueReference("foo1"));
+        assertEquals(1, index);
+        assertEquals(index, localVarsSymbolTable.findIndex("foo1").get().intValue());
+    }
+
+    @Test
+    public void indexesOfAbandonedScopeAreReused() {
+        LocalVarsSymbolTable localVarsSymbolTable = LocalVarsSymbolTable.forInstanceMethod();
+        localVarsSymbolTable.add("foo1", new ValueReference("foo1"));
+        localVarsSymbolTable.enterBlock();
+        localVarsSymbolTable.add("foo2", new ValueReference("foo2"));
+        localVarsSymbolTable.add("foo3", new ValueReference("foo3"));
+        localVarsSymbolTable.exitBlock();
+        localVarsSymbolTable.enterBlock();
+        ValueReference foo4 = new ValueReference("foo4");
+        assertEquals(2, localVarsSymbolTable.add("foo4", foo4));
+        assertEquals(false, localVarsSymbolTable.findIndex("foo2").isPresent());
+        assertSame(foo4, localVarsSymbolTable.findDeclaration("foo4").get());
+        localVarsSymbolTable.exitBlock();
+        assertEquals(2, localVarsSymbolTable.add("foo5", new ValueReference("foo5")));
+        assertEquals(4, localVarsSymbolTable.getIndexesCount());
+    }
+
 }
@@ -0,0 +1,61 @@
+package me.tomassetti.turin.compiler;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.classloading.TurinClassLoader;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelCompilationTest extends AbstractCompilerTest {
+
+    private TurinFileWithSource parse(String path) throws IOException {
+        File file = new File(path);
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return new TurinFileWithSource(file, new Parser().parse(inputStream));
+        }
+    }
+
+    @Test
+    public void compileAllKeepsTheOrderOfTheFiles() throws IOException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        List<TurinFileWithSource> turinFiles = new ArrayList<>();
+        turinFiles.add(parse("src/test/resources/scenarios/referencetypefromothersrcfile/foo.to"));
+        turinFiles.add(parse("src/test/resources/scenarios/referencetypefromothersrcfile/foo_test.to"));
+        turinFiles.add(parse("src/test/resources/ranma.to"));
+        turinFiles.add(parse("src/test/resources/scenarios/constructor_extends1/points.to"));
+
+        SymbolResolver resolver = getResolverFor(turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()),
+                Collections.emptyList(),
+                Collections.emptyList());
+        Compiler.Options options = new Compiler.Options();
+        options.setJobs(4);
+        Compiler instance = new Compiler(resolver, options);
+        List<List<ClassFileDefinition>> classFileDefinitions = instance.compileAll(turinFiles).stream()
+                .map(CompiledFile::getClassFileDefinitions)
+                .collect(Collectors.toList());
+
+        assertEquals(4, classFileDefinitions.size());
+        assertEquals(ImmutableList.of("refsrc.Abc"), classFileDefinitions.get(0).stream().map(ClassFileDefinition::getName).collect(Collectors.toList()));
+        assertEquals(ImmutableList.of("refsrc.Function_ref"), classFileDefinitions.get(1).stream().map(ClassFileDefinition::getName).collect(Collectors.toList()));
+        assertEquals(2, classFileDefinitions.get(2).size());
+
+        TurinClassLoader turinClassLoader = new TurinClassLoader();
+        turinClassLoader.addClass(classFileDefinitions.get(0).get(0));
+        Class testClass = turinClassLoader.addClass(classFileDefinitions.get(1).get(0));
+        assertEquals(9876, testClass.getMethod("invoke").invoke(null));
+    }
+
+}
@@ -0,0 +1,38 @@
+package me.tomassetti.turin.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingCompilationTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void filesReferringToOtherFilesAreCompiledOneAtATime() throws Exception {
+        File destinationDir = temporaryFolder.newFolder("classes");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        int exitCode = Compiler.run(new String[]{"--streaming", "--max-loaded-files", "1", "-o", destinationDir.getPath(),
+                "src/test/resources/scenarios/referencetypefromothersrcfile"}, null, out, new PrintStream(errors), Compiler::toTypeResolver);
+        assertEquals("", errors.toString());
+        assertEquals(0, exitCode);
+        assertTrue(new File(destinationDir, "refsrc/Abc.class").exists());
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{destinationDir.toURI().toURL()})) {
+            Class<?> functionClass = classLoader.loadClass("refsrc.Function_ref");
+            assertEquals(9876, functionClass.getMethod("invoke").invoke(null));
+        }
+    }
+
+}
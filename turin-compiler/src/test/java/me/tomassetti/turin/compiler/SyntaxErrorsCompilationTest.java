@@ -0,0 +1,112 @@
+package me.tomassetti.turin.compiler;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import me.tomassetti.turin.compiler.errorhandling.ErrorCollector;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SyntaxErrorsCompilationTest extends AbstractCompilerTest {
+
+    private static final String CODE = "namespace recovering\n" +
+            "\n" +
+            "type A {\n" +
+            "    int a\n" +
+            "}\n" +
+            "\n" +
+            "int broken(int x) = x * )\n" +
+            "\n" +
+            "int twice(int x) = y * 2\n" +
+            "\n" +
+            "type B {\n" +
+            "    String name ==\n" +
+            "}\n" +
+            "\n" +
+            "int fine(int x) = x\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static class RecordingErrorCollector implements ErrorCollector {
+        private List<String> errors = new ArrayList<>();
+
+        @Override
+        public void recordSemanticError(Position position, String description) {
+            errors.add("semantic " + position.getStart().getLine());
+        }
+
+        @Override
+        public void recordSyntaxError(Position position, String description) {
+            errors.add("syntax " + position.getStart().getLine());
+        }
+    }
+
+    private TurinFile parseRecovering(String code) {
+        return new Parser().parseRecovering(code.getBytes(Charsets.UTF_8), "recovering.to");
+    }
+
+    @Test
+    public void allTheSyntaxErrorsAreReportedWithTheSemanticOnes() {
+        TurinFile turinFile = parseRecovering(CODE);
+        assertEquals(2, turinFile.getSyntaxErrors().size());
+
+        Compiler instance = new Compiler(getResolverFor(turinFile), new Compiler.Options());
+        RecordingErrorCollector errorCollector = new RecordingErrorCollector();
+        assertTrue(instance.compile(turinFile, errorCollector).isEmpty());
+        assertEquals(Arrays.asList("syntax 7", "semantic 9", "syntax 12"), errorCollector.errors);
+    }
+
+    @Test
+    public void theMembersWithoutSyntaxErrorsAreKept() {
+        TurinFile turinFile = parseRecovering(CODE);
+        assertEquals("recovering", turinFile.getNamespaceDefinition().getName());
+        assertEquals(1, turinFile.getTopLevelTypeDefinitions().size());
+        assertEquals("A", turinFile.getTopLevelTypeDefinitions().get(0).getName());
+        assertEquals(2, turinFile.getTopLevelFunctionDefinitions().size());
+        assertEquals("twice", turinFile.getTopLevelFunctionDefinitions().get(0).getName());
+        assertEquals("fine", turinFile.getTopLevelFunctionDefinitions().get(1).getName());
+    }
+
+    @Test
+    public void anUnterminatedStringIsASyntaxError() {
+        TurinFile turinFile = parseRecovering("namespace recovering\n\nString s() = \"abc\n");
+        assertFalse(turinFile.getSyntaxErrors().isEmpty());
+    }
+
+    @Test
+    public void aValidFileIsParsedAsWithoutRecovering() {
+        String code = "namespace recovering\n\nint fine(int x) = x\n";
+        TurinFile turinFile = parseRecovering(code);
+        assertTrue(turinFile.getSyntaxErrors().isEmpty());
+        // some nodes print the identity of the nodes they refer to
+        assertEquals(new Parser().parse(code.getBytes(Charsets.UTF_8), "valid.to").toString().replaceAll("@[0-9a-f]+", ""),
+                turinFile.toString().replaceAll("@[0-9a-f]+", ""));
+    }
+
+    @Test
+    public void theBuildFailsWhenAFileHasSyntaxErrors() throws IOException {
+        File source = temporaryFolder.newFile("recovering.to");
+        Files.write(CODE, source, Charsets.UTF_8);
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        int exitCode = Compiler.run(new String[]{"-o", temporaryFolder.newFolder("classes").getPath(), source.getPath()},
+                null, out, new PrintStream(errors), Compiler::toTypeResolver);
+        assertEquals(1, exitCode);
+        assertTrue(errors.toString().contains("(syntax error)"));
+    }
+
+}
@@ -0,0 +1,148 @@
+package me.tomassetti.turin.compiler.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.AbstractCompilerTest;
+import me.tomassetti.turin.compiler.CompiledFile;
+import me.tomassetti.turin.compiler.Compiler;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class BuildCacheTest extends AbstractCompilerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File sourcesDir;
+    private File cacheDir;
+
+    private static class CountingBuildCache implements BuildCache {
+
+        private BuildCache buildCache;
+        private int hits;
+        private int puts;
+
+        public CountingBuildCache(BuildCache buildCache) {
+            this.buildCache = buildCache;
+        }
+
+        @Override
+        public synchronized Optional<List<ClassFileDefinition>> get(String key) throws IOException {
+            Optional<List<ClassFileDefinition>> result = buildCache.get(key);
+            if (result.isPresent()) {
+                hits++;
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized void put(String key, List<ClassFileDefinition> classFileDefinitions) throws IOException {
+            puts++;
+            buildCache.put(key, classFileDefinitions);
+        }
+    }
+
+    @Before
+    public void setup() throws IOException {
+        sourcesDir = temporaryFolder.newFolder("src");
+        cacheDir = temporaryFolder.newFolder("cache");
+        Files.copy(new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo.to"), new File(sourcesDir, "foo.to"));
+        Files.copy(new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo_test.to"), new File(sourcesDir, "foo_test.to"));
+        Files.copy(new File("src/test/resources/ranma.to"), new File(sourcesDir, "ranma.to"));
+    }
+
+    private List<TurinFileWithSource> parseSources() throws IOException {
+        List<TurinFileWithSource> turinFiles = new ArrayList<>();
+        for (String name : ImmutableList.of("foo.to", "foo_test.to", "ranma.to")) {
+            File file = new File(sourcesDir, name);
+            try (InputStream inputStream = new FileInputStream(file)) {
+                turinFiles.add(new TurinFileWithSource(file, new Parser().parse(inputStream)));
+            }
+        }
+        return turinFiles;
+    }
+
+    private Map<String, String> keysByName() throws IOException {
+        Map<String, String> keys = new HashMap<>();
+        CacheKeys.calculate(parseSources(), "test", Collections.emptyList()).forEach((f, k) -> keys.put(f.getName(), k));
+        return keys;
+    }
+
+    private List<CompiledFile> build(BuildCache buildCache) throws IOException {
+        List<TurinFileWithSource> turinFiles = parseSources();
+        SymbolResolver resolver = getResolverFor(turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()),
+                Collections.emptyList(),
+                Collections.emptyList());
+        Compiler compiler = new Compiler(resolver, new Compiler.Options());
+        compiler.useBuildCache(buildCache, CacheKeys.calculate(turinFiles, "test", Collections.emptyList()));
+        List<CompiledFile> compiledFiles = compiler.compileAll(turinFiles);
+        compiler.unregister(turinFiles);
+        return compiledFiles;
+    }
+
+    @Test
+    public void directoryCacheStoresTheClassFiles() throws IOException {
+        DirectoryBuildCache buildCache = new DirectoryBuildCache(cacheDir);
+        assertFalse(buildCache.get("abc123").isPresent());
+
+        buildCache.put("abc123", ImmutableList.of(new ClassFileDefinition("a.B", new byte[]{1, 2, 3}),
+                new ClassFileDefinition("a.C", new byte[0])));
+        List<ClassFileDefinition> classFileDefinitions = buildCache.get("abc123").get();
+        assertEquals(2, classFileDefinitions.size());
+        assertEquals("a.B", classFileDefinitions.get(0).getName());
+        assertArrayEquals(new byte[]{1, 2, 3}, classFileDefinitions.get(0).getBytecode());
+        assertEquals("a.C", classFileDefinitions.get(1).getName());
+        assertEquals(0, classFileDefinitions.get(1).getBytecode().length);
+    }
+
+    @Test
+    public void keysChangeWhenTheFileOrItsDependenciesChange() throws IOException {
+        Map<String, String> before = keysByName();
+        assertEquals(before, keysByName());
+
+        Files.append("\nint another() = 1\n", new File(sourcesDir, "foo.to"), Charsets.UTF_8);
+        Map<String, String> after = keysByName();
+        assertNotEquals(before.get("foo.to"), after.get("foo.to"));
+        assertNotEquals(before.get("foo_test.to"), after.get("foo_test.to"));
+        assertEquals(before.get("ranma.to"), after.get("ranma.to"));
+    }
+
+    @Test
+    public void cachedClassFilesAreReused() throws IOException {
+        CountingBuildCache firstCache = new CountingBuildCache(new DirectoryBuildCache(cacheDir));
+        List<CompiledFile> first = build(firstCache);
+        assertEquals(0, firstCache.hits);
+        assertEquals(3, firstCache.puts);
+
+        CountingBuildCache secondCache = new CountingBuildCache(new DirectoryBuildCache(cacheDir));
+        List<CompiledFile> second = build(secondCache);
+        assertEquals(3, secondCache.hits);
+        assertEquals(0, secondCache.puts);
+        for (int i = 0; i < first.size(); i++) {
+            List<ClassFileDefinition> expected = first.get(i).getClassFileDefinitions();
+            List<ClassFileDefinition> actual = second.get(i).getClassFileDefinitions();
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j).getName(), actual.get(j).getName());
+                assertArrayEquals(expected.get(j).getBytecode(), actual.get(j).getBytecode());
+            }
+        }
+    }
+
+}
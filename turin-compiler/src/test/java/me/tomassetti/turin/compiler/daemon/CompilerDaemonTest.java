@@ -0,0 +1,56 @@
+package me.tomassetti.turin.compiler.daemon;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompilerDaemonTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void compileSeveralTimesUsingTheSameDaemon() throws IOException, InterruptedException {
+        File destinationDir = temporaryFolder.newFolder("classes");
+        String[] args = new String[]{"-o", destinationDir.getPath(), "src/test/resources/scenarios/referencetypefromothersrcfile"};
+
+        ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        Thread daemonThread = new Thread(() -> new CompilerDaemon(serverSocket.getLocalPort()).serve(serverSocket));
+        daemonThread.start();
+        try {
+            CompilerClient client = new CompilerClient(serverSocket.getLocalPort());
+            PrintStream out = new PrintStream(new ByteArrayOutputStream());
+            ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+            PrintStream err = new PrintStream(errBuffer);
+            for (int i = 0; i < 2; i++) {
+                assertEquals(0, client.compile(args, new File("."), out, err));
+                assertTrue(new File(destinationDir, "refsrc/Abc.class").delete());
+                assertTrue(new File(destinationDir, "refsrc/Function_ref.class").delete());
+            }
+            assertEquals(1, client.compile(new String[]{"not_existing"}, new File("."), out, err));
+            assertTrue(errBuffer.toString().contains("not_existing"));
+
+            // a request in watch mode would never complete, blocking the daemon
+            String[] watchArgs = new String[]{"--watch", "-o", destinationDir.getPath(), "src/test/resources/scenarios/referencetypefromothersrcfile"};
+            assertEquals(1, client.compile(watchArgs, new File("."), out, err));
+            assertTrue(errBuffer.toString().contains("Watch mode is not supported"));
+            assertEquals(0, client.compile(args, new File("."), out, err));
+
+            assertEquals(0, client.compile(new String[]{CompilerDaemon.STOP}, new File("."), out, err));
+            daemonThread.join(10000);
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package me.tomassetti.turin.compiler.incremental;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import me.tomassetti.turin.compiler.AbstractCompilerTest;
+import me.tomassetti.turin.compiler.CompiledFile;
+import me.tomassetti.turin.compiler.Compiler;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+import me.tomassetti.turin.resolvers.SymbolResolver;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalBuildTest extends AbstractCompilerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File sourcesDir;
+    private File destinationDir;
+
+    @Before
+    public void setup() throws IOException {
+        sourcesDir = temporaryFolder.newFolder("src");
+        destinationDir = temporaryFolder.newFolder("classes");
+        Files.copy(new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo.to"), new File(sourcesDir, "foo.to"));
+        Files.copy(new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo_test.to"), new File(sourcesDir, "foo_test.to"));
+        Files.copy(new File("src/test/resources/ranma.to"), new File(sourcesDir, "ranma.to"));
+    }
+
+    private List<TurinFileWithSource> parseSources() throws IOException {
+        List<TurinFileWithSource> turinFiles = new ArrayList<>();
+        for (String name : ImmutableList.of("foo.to", "foo_test.to", "ranma.to")) {
+            File file = new File(sourcesDir, name);
+            if (file.exists()) {
+                try (InputStream inputStream = new FileInputStream(file)) {
+                    turinFiles.add(new TurinFileWithSource(file, new Parser().parse(inputStream)));
+                }
+            }
+        }
+        return turinFiles;
+    }
+
+    /**
+     * Perform an incremental build and return the names of the files compiled.
+     */
+    private List<String> build() throws IOException {
+        List<TurinFileWithSource> turinFiles = parseSources();
+        IncrementalBuild incrementalBuild = new IncrementalBuild(destinationDir, "test", Collections.emptyList());
+        List<TurinFileWithSource> toCompile = incrementalBuild.filesToCompile(turinFiles);
+
+        SymbolResolver resolver = getResolverFor(turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()),
+                Collections.emptyList(),
+                Collections.emptyList());
+        Compiler compiler = new Compiler(resolver, new Compiler.Options());
+        compiler.register(turinFiles);
+        for (CompiledFile compiledFile : compiler.compileAll(toCompile)) {
+            for (ClassFileDefinition classFileDefinition : compiledFile.getClassFileDefinitions()) {
+                saveClassFile(classFileDefinition, destinationDir.getPath());
+            }
+            incrementalBuild.record(compiledFile);
+        }
+        incrementalBuild.complete();
+        return toCompile.stream().map((f) -> f.getSource().getName()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void unchangedFilesAreNotCompiledAgain() throws IOException {
+        assertEquals(ImmutableList.of("foo.to", "foo_test.to", "ranma.to"), build());
+        assertTrue(new File(destinationDir, "refsrc/Abc.class").exists());
+        assertEquals(ImmutableList.of(), build());
+    }
+
+    @Test
+    public void reverseDependenciesOfChangedFilesAreCompiledAgain() throws IOException {
+        build();
+        Files.append("\n", new File(sourcesDir, "foo.to"), Charsets.UTF_8);
+        assertEquals(ImmutableList.of("foo.to", "foo_test.to"), build());
+        Files.append("\n", new File(sourcesDir, "foo_test.to"), Charsets.UTF_8);
+        assertEquals(ImmutableList.of("foo_test.to"), build());
+    }
+
+    @Test
+    public void filesWithMissingClassFilesAreCompiledAgain() throws IOException {
+        build();
+        assertTrue(new File(destinationDir, "refsrc/Function_ref.class").delete());
+        assertEquals(ImmutableList.of("foo_test.to"), build());
+        assertTrue(new File(destinationDir, "refsrc/Function_ref.class").exists());
+    }
+
+    @Test
+    public void classFilesOfRemovedSourcesAreDeleted() throws IOException {
+        build();
+        assertTrue(new File(sourcesDir, "foo_test.to").delete());
+        assertEquals(ImmutableList.of(), build());
+        assertFalse(new File(destinationDir, "refsrc/Function_ref.class").exists());
+        assertTrue(new File(destinationDir, "refsrc/Abc.class").exists());
+    }
+
+}
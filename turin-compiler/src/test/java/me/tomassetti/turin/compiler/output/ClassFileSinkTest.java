@@ -0,0 +1,89 @@
+package me.tomassetti.turin.compiler.output;
+
+import com.google.common.io.ByteStreams;
+import me.tomassetti.turin.classloading.ClassFileDefinition;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+public class ClassFileSinkTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ClassFileDefinition a = new ClassFileDefinition("foo.bar.A", new byte[]{1, 2, 3});
+    private ClassFileDefinition b = new ClassFileDefinition("foo.B", new byte[]{4, 5});
+
+    @Test
+    public void directorySinkSkipsUnchangedClassFiles() throws IOException {
+        File dir = temporaryFolder.newFolder();
+        try (ClassFileSink sink = new AsyncClassFileSink(new DirectoryClassFileSink(dir))) {
+            sink.write(a);
+            sink.write(b);
+        }
+        File classFileA = new File(dir, "foo/bar/A.class");
+        File classFileB = new File(dir, "foo/B.class");
+        assertArrayEquals(a.getBytecode(), Files.readAllBytes(classFileA.toPath()));
+        assertArrayEquals(b.getBytecode(), Files.readAllBytes(classFileB.toPath()));
+        classFileA.setLastModified(1000L);
+        classFileB.setLastModified(1000L);
+
+        try (ClassFileSink sink = new DirectoryClassFileSink(dir)) {
+            sink.write(a);
+            sink.write(new ClassFileDefinition("foo.B", new byte[]{4, 6}));
+        }
+        assertEquals(1000L, classFileA.lastModified());
+        assertArrayEquals(new byte[]{4, 6}, Files.readAllBytes(classFileB.toPath()));
+    }
+
+    @Test
+    public void jarSinkCanStoreEntries() throws IOException {
+        File jar = new File(temporaryFolder.getRoot(), "out/classes.jar");
+        try (ClassFileSink sink = new JarClassFileSink(jar, true)) {
+            sink.write(a);
+            sink.write(b);
+        }
+        try (JarFile jarFile = new JarFile(jar)) {
+            assertNotNull(jarFile.getManifest());
+            JarEntry entry = jarFile.getJarEntry("foo/bar/A.class");
+            assertEquals(ZipEntry.STORED, entry.getMethod());
+            try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                assertArrayEquals(a.getBytecode(), ByteStreams.toByteArray(inputStream));
+            }
+        }
+    }
+
+    @Test
+    public void jarSinkDoesNotReplaceAnIdenticalJar() throws IOException {
+        File jar = new File(temporaryFolder.getRoot(), "classes.jar");
+        try (ClassFileSink sink = new JarClassFileSink(jar, false)) {
+            sink.write(a);
+        }
+        jar.setLastModified(1000L);
+        try (ClassFileSink sink = new JarClassFileSink(jar, false)) {
+            sink.write(a);
+        }
+        assertEquals(1000L, jar.lastModified());
+        assertFalse(new File(temporaryFolder.getRoot(), "classes.jar.tmp").exists());
+        try (ClassFileSink sink = new JarClassFileSink(jar, false)) {
+            sink.write(b);
+        }
+        try (JarFile jarFile = new JarFile(jar)) {
+            assertEquals(ZipEntry.DEFLATED, jarFile.getJarEntry("foo/B.class").getMethod());
+        }
+    }
+
+}
@@ -13,7 +13,7 @@ import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.parser.ast.statements.BlockStatement;
 import me.tomassetti.turin.parser.ast.statements.ReturnStatement;
 import me.tomassetti.turin.parser.ast.statements.Statement;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.typesystem.TypeUsage;
 import org.junit.Test;
@@ -107,7 +107,7 @@ public class RelationsCompilationTest extends AbstractCompilerTest {
     public void relationsReturnCorrectType() throws IOException, NoSuchMethodException, InvocationTargetException, IllegalAccessException, InstantiationException {
         TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/relations/relation_usage.to"));
         SymbolResolver resolver = getResolverFor(turinFile);
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         FunctionDefinitionNode foo2 = turinFile.getTopLevelFunctionDefinitions().get(1);
         assertEquals("foo2", foo2.getName());
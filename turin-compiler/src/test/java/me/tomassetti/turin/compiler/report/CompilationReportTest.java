@@ -0,0 +1,54 @@
+package me.tomassetti.turin.compiler.report;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import me.tomassetti.turin.compiler.Compiler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompilationReportTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void measurementsAreSummedForEachPhase() {
+        CompilationReport report = new CompilationReport("test", 1);
+        CompilationReport.FileReport fileReport = report.forFile("a\\b \"c\".to");
+        assertEquals("x", fileReport.measure(Phase.PARSING, () -> "x"));
+        fileReport.measure(Phase.PARSING, () -> new byte[1024]);
+        assertEquals(2, fileReport.getMeasurement(Phase.PARSING).getCount());
+        assertEquals(0, fileReport.getMeasurement(Phase.LEXING).getCount());
+        assertTrue(fileReport.getMeasurement(Phase.PARSING).getWallNanos() >= 0);
+
+        String json = report.toJson();
+        assertTrue(json.contains("\"path\": \"a\\\\b \\\"c\\\".to\""));
+        assertTrue(json.contains("\"parsing\": {\"count\": 2,"));
+    }
+
+    @Test
+    public void compilerWritesTheReport() throws IOException {
+        File reportFile = new File(temporaryFolder.getRoot(), "report.json");
+        File destinationDir = temporaryFolder.newFolder("classes");
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        int exitCode = Compiler.run(new String[]{"--report", reportFile.getPath(), "-o", destinationDir.getPath(),
+                "src/test/resources/scenarios/referencetypefromothersrcfile"}, null, out, out, Compiler::toTypeResolver);
+        assertEquals(0, exitCode);
+
+        String json = Files.toString(reportFile, Charsets.UTF_8);
+        assertTrue(json.contains("foo_test.to"));
+        for (Phase phase : Phase.values()) {
+            assertTrue(phase.name(), json.contains("\"" + phase.getJsonName() + "\": {\"count\": 2,"));
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package me.tomassetti.turin.compiler.watch;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class SourceWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test(timeout = 30000)
+    public void changesAreReportedTogether() throws Exception {
+        File sourcesDir = temporaryFolder.newFolder("src").getCanonicalFile();
+        File existing = new File(sourcesDir, "a.to");
+        Files.write("namespace a\n", existing, Charsets.UTF_8);
+        try (SourceWatcher watcher = new SourceWatcher(ImmutableList.of(sourcesDir), 500)) {
+            File created = new File(sourcesDir, "sub/b.to");
+            Files.createParentDirs(created);
+            Files.write("namespace b\n", created, Charsets.UTF_8);
+            Files.append("\n", existing, Charsets.UTF_8);
+            Files.write("", new File(sourcesDir, ".a.to.swp"), Charsets.UTF_8);
+
+            Set<File> changes = watcher.awaitChanges();
+            assertEquals(ImmutableSet.of(existing, created), changes);
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void onlySourceFilesAreReported() throws Exception {
+        File sourcesDir = temporaryFolder.newFolder("src").getCanonicalFile();
+        try (SourceWatcher watcher = new SourceWatcher(ImmutableList.of(sourcesDir), 500)) {
+            Files.write("", new File(sourcesDir, "a.to~"), Charsets.UTF_8);
+            File classFile = new File(sourcesDir, "out/a/A.class");
+            Files.createParentDirs(classFile);
+            Files.write(new byte[]{1, 2, 3}, classFile);
+            File created = new File(sourcesDir, "b.to");
+            Files.write("namespace b\n", created, Charsets.UTF_8);
+
+            Set<File> changes = watcher.awaitChanges();
+            assertEquals(ImmutableSet.of(created), changes);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package me.tomassetti.turin.compiler.watch;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import me.tomassetti.turin.compiler.CompiledFile;
+import me.tomassetti.turin.compiler.Compiler;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.TurinFileWithSource;
+import me.tomassetti.turin.resolvers.*;
+import me.tomassetti.turin.resolvers.compiled.JarTypeResolver;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class WatchSessionTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File sourcesDir;
+    private File destinationDir;
+    private List<TurinFileWithSource> turinFiles = new ArrayList<>();
+    private Compiler compiler;
+    private WatchSession watchSession;
+    private ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+    @Before
+    public void setup() throws IOException {
+        sourcesDir = temporaryFolder.newFolder("src");
+        destinationDir = temporaryFolder.newFolder("classes");
+        Files.copy(new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo.to"), new File(sourcesDir, "foo.to"));
+        Files.copy(new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo_test.to"), new File(sourcesDir, "foo_test.to"));
+        Files.copy(new File("src/test/resources/ranma.to"), new File(sourcesDir, "ranma.to"));
+        for (String name : ImmutableList.of("foo.to", "foo_test.to", "ranma.to")) {
+            File file = new File(sourcesDir, name);
+            try (InputStream inputStream = new FileInputStream(file)) {
+                turinFiles.add(new TurinFileWithSource(file, new Parser().parse(inputStream)));
+            }
+        }
+
+        SrcSymbolResolver srcSymbolResolver = new SrcSymbolResolver(turinFiles.stream().map(TurinFileWithSource::getTurinFile).collect(Collectors.toList()));
+        TypeResolver typeResolver = new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance(),
+                new JarTypeResolver(new File("../turin-standard-library/target/turin-standard-library-0.0.3-SNAPSHOT.jar"))));
+        SymbolResolver resolver = new ComposedSymbolResolver(ImmutableList.of(new InFileSymbolResolver(typeResolver), srcSymbolResolver));
+        Compiler.Options options = new Compiler.Options();
+        options.setDestinationDir(destinationDir.getPath());
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        compiler = new Compiler(resolver, options, new PrintStream(errors), java.util.Optional.empty());
+        compiler.register(turinFiles);
+        watchSession = new WatchSession(compiler, options, "test", srcSymbolResolver, turinFiles, out, new PrintStream(errors));
+        assertEquals(ImmutableList.of("foo.to", "foo_test.to", "ranma.to"), rebuild());
+    }
+
+    @After
+    public void teardown() {
+        compiler.unregister(turinFiles);
+    }
+
+    private List<String> rebuild(String... changed) throws IOException {
+        List<File> changes = new ArrayList<>();
+        for (String name : changed) {
+            changes.add(new File(sourcesDir, name));
+        }
+        List<CompiledFile> compiledFiles = watchSession.rebuild(ImmutableSet.copyOf(changes));
+        for (CompiledFile compiledFile : compiledFiles) {
+            assertFalse(errors.toString(), compiledFile.hasErrors());
+        }
+        return compiledFiles.stream().map((f) -> f.getTurinFile().getSource().getName()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void changedFilesAndTheirDependenciesAreCompiled() throws IOException {
+        assertEquals(Collections.emptyList(), rebuild());
+
+        Files.write("namespace refsrc\n\ntype Abc {\n    int a = 9876\n    int b = 5\n}\n", new File(sourcesDir, "foo.to"), Charsets.UTF_8);
+        Files.write("namespace refsrc\n\nint ref() {\n    return Abc().getB()\n}\n", new File(sourcesDir, "foo_test.to"), Charsets.UTF_8);
+        assertEquals(ImmutableList.of("foo.to", "foo_test.to"), rebuild("foo.to", "foo_test.to"));
+        assertEquals(3, turinFiles.size());
+    }
+
+    @Test
+    public void allTheSyntaxErrorsOfChangedFilesAreReported() throws IOException {
+        Files.write("namespace manga\n\nint a(int x) = x * )\n\nint b(int x) = x + )\n\nint c(int x) = x\n",
+                new File(sourcesDir, "ranma.to"), Charsets.UTF_8);
+        List<CompiledFile> compiledFiles = watchSession.rebuild(ImmutableSet.of(new File(sourcesDir, "ranma.to")));
+        assertEquals(1, compiledFiles.size());
+        assertTrue(compiledFiles.get(0).hasErrors());
+        assertEquals(errors.toString(), 2, errors.toString().split("\\(syntax error\\)", -1).length - 1);
+    }
+
+    @Test
+    public void newAndRemovedFilesAreConsidered() throws IOException {
+        assertTrue(new File(sourcesDir, "foo_test.to").delete());
+        Files.write("namespace refsrc\n\nint other() = Abc().getA()\n", new File(sourcesDir, "other.to"), Charsets.UTF_8);
+        assertEquals(ImmutableList.of("other.to"), rebuild("foo_test.to", "other.to"));
+        assertFalse(new File(destinationDir, "refsrc/Function_ref.class").exists());
+        assertTrue(new File(destinationDir, "refsrc/Function_other.class").exists());
+        assertEquals(3, turinFiles.size());
+    }
+
+}
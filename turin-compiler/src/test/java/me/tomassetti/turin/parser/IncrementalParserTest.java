@@ -0,0 +1,120 @@
+package me.tomassetti.turin.parser;
+
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.Position;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.antlr.v4.runtime.Token;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class IncrementalParserTest {
+
+    private static final String CODE = "namespace editing\n" +
+            "\n" +
+            "type A {\n" +
+            "    int a\n" +
+            "}\n" +
+            "\n" +
+            "int twice(int x) {\n" +
+            "    return x * 2\n" +
+            "}\n" +
+            "\n" +
+            "// a comment\n" +
+            "type B {\n" +
+            "    String name\n" +
+            "}\n" +
+            "\n" +
+            "program Main(String[] args) {\n" +
+            "    val b = B(\"b\")\n" +
+            "}\n";
+
+    private IncrementalParser.TextEdit insertion(String code, String before, String text) {
+        int index = code.indexOf(before);
+        return new IncrementalParser.TextEdit(index, index, text);
+    }
+
+    private Optional<Position> positionOf(Node node) {
+        try {
+            return Optional.of(node.getPosition());
+        } catch (IllegalStateException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void assertSamePositions(Node expected, Node actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(positionOf(expected), positionOf(actual));
+        Iterator<Node> actualChildren = actual.getChildren().iterator();
+        for (Node expectedChild : expected.getChildren()) {
+            assertSamePositions(expectedChild, actualChildren.next());
+        }
+        assertFalse(actualChildren.hasNext());
+    }
+
+    private void assertSameAsFullParse(IncrementalParser.ParsedFile parsedFile) {
+        IncrementalParser.ParsedFile expected = new IncrementalParser().parse(parsedFile.getText());
+        assertSamePositions(expected.getTurinFile(), parsedFile.getTurinFile());
+        assertEquals(expected.getTokens().size(), parsedFile.getTokens().size());
+        for (int i = 0; i < expected.getTokens().size(); i++) {
+            Token expectedToken = expected.getTokens().get(i);
+            Token token = parsedFile.getTokens().get(i);
+            assertEquals(expectedToken.getText(), token.getText());
+            assertEquals(expectedToken.getLine(), token.getLine());
+            assertEquals(expectedToken.getCharPositionInLine(), token.getCharPositionInLine());
+            assertEquals(expectedToken.getStartIndex(), token.getStartIndex());
+            assertEquals(i, token.getTokenIndex());
+        }
+    }
+
+    @Test
+    public void onlyTheEditedMemberIsReplaced() {
+        IncrementalParser incrementalParser = new IncrementalParser();
+        IncrementalParser.ParsedFile parsedFile = incrementalParser.parse(CODE);
+        TurinFile turinFile = parsedFile.getTurinFile();
+        List<Node> before = ImmutableList.copyOf(turinFile.getNodes());
+
+        parsedFile = incrementalParser.reparse(parsedFile, insertion(CODE, "    return x * 2", "    val y = x\n    return y + x\n"));
+        assertTrue(parsedFile.isIncremental());
+        assertSame(turinFile, parsedFile.getTurinFile());
+        List<Node> after = turinFile.getNodes();
+        assertSame(before.get(0), after.get(0));
+        assertNotSame(before.get(1), after.get(1));
+        assertSame(before.get(2), after.get(2));
+        assertSame(before.get(3), after.get(3));
+        assertSame(turinFile, after.get(1).getParent());
+        assertSameAsFullParse(parsedFile);
+
+        // a following edit uses the updated positions
+        String code = parsedFile.getText();
+        parsedFile = incrementalParser.reparse(parsedFile, insertion(code, "    String name", "    int age\n"));
+        assertTrue(parsedFile.isIncremental());
+        assertSameAsFullParse(parsedFile);
+    }
+
+    @Test
+    public void editsOutsideMembersParseTheWholeFile() {
+        IncrementalParser incrementalParser = new IncrementalParser();
+        IncrementalParser.ParsedFile parsedFile = incrementalParser.parse(CODE);
+        parsedFile = incrementalParser.reparse(parsedFile, insertion(CODE, "editing", "renamed."));
+        assertFalse(parsedFile.isIncremental());
+        assertEquals("renamed.editing", parsedFile.getTurinFile().getNamespaceDefinition().getName());
+        assertSameAsFullParse(parsedFile);
+    }
+
+    @Test
+    public void editsSplittingAMemberParseTheWholeFile() {
+        IncrementalParser incrementalParser = new IncrementalParser();
+        IncrementalParser.ParsedFile parsedFile = incrementalParser.parse(CODE);
+        parsedFile = incrementalParser.reparse(parsedFile, insertion(CODE, "    String name", "}\ntype C {\n"));
+        assertFalse(parsedFile.isIncremental());
+        assertEquals(5, parsedFile.getTurinFile().getNodes().size());
+        assertSameAsFullParse(parsedFile);
+    }
+
+}
@@ -1,9 +1,12 @@
 package me.tomassetti.turin.parser;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import me.tomassetti.parser.antlr.TurinParser;
 import me.tomassetti.turin.parser.ast.typeusage.BasicTypeUsageNode;
 import me.tomassetti.turin.parser.ast.*;
+import me.tomassetti.turin.parser.ast.invokables.FunctionDefinitionNode;
 import me.tomassetti.turin.parser.ast.expressions.*;
 import me.tomassetti.turin.parser.ast.expressions.literals.IntLiteral;
 import me.tomassetti.turin.parser.ast.expressions.literals.StringLiteral;
@@ -17,10 +20,14 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class ParseTreeToAstTest {
@@ -110,6 +117,37 @@ public class ParseTreeToAstTest {
         assertEquals(mangaAst(), new ParseTreeToAst().toAst(root));
     }
 
+    @Test
+    public void convertMangaExampleWithLazyBodies() throws IOException {
+        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("manga.to");
+        TurinParser.TurinFileContext root = new InternalParser().produceParseTree(inputStream);
+        assertEquals(mangaAst(), new ParseTreeToAst(true).toAst(root));
+    }
+
+    private void assertSameStructure(Node expected, Node actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        Iterator<Node> actualChildren = actual.getChildren().iterator();
+        for (Node expectedChild : expected.getChildren()) {
+            assertSameStructure(expectedChild, actualChildren.next());
+        }
+        assertFalse(actualChildren.hasNext());
+    }
+
+    @Test
+    public void lazyBodiesAreConvertedAsEagerOnes() throws IOException {
+        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("examples/formatter3.to");
+        TurinParser.TurinFileContext root = new InternalParser().produceParseTree(inputStream);
+        TurinFile eager = new ParseTreeToAst().toAst(root);
+        TurinFile lazy = new ParseTreeToAst(true).toAst(root);
+        assertEquals(3, lazy.getTopLevelFunctionDefinitions().size());
+        for (int i = 0; i < 3; i++) {
+            FunctionDefinitionNode lazyFunction = lazy.getTopLevelFunctionDefinitions().get(i);
+            assertSameStructure(eager.getTopLevelFunctionDefinitions().get(i).getBody(), lazyFunction.getBody());
+            assertSame(lazyFunction, lazyFunction.getBody().getParent());
+        }
+        assertSameStructure(eager.getTopLevelPrograms().get(0), lazy.getTopLevelPrograms().get(0));
+    }
+
     @Test
     public void typeExtendingAndImplementin() throws IOException {
         InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("parser_examples/type_extending_and_implementing.to");
@@ -121,4 +159,20 @@ public class ParseTreeToAstTest {
         assertEquals(2, typeDefinition.getInterfaces().size());
     }
 
+    @Test
+    public void namesAreSharedByTheFilesParsedWithTheSameInterner() {
+        Interner<String> names = Interners.newStrongInterner();
+        Parser parser1 = new Parser(InternalParser.PredictionStrategy.TWO_STAGE, false, names);
+        Parser parser2 = new Parser(InternalParser.PredictionStrategy.TWO_STAGE, false, names);
+        TurinFile a = parser1.parse("namespace people\n\ntype Person {\n    String name\n}\n".getBytes(StandardCharsets.UTF_8), "a.to");
+        TurinFile b = parser2.parse("namespace people\n\nString name(String name) = name\n".getBytes(StandardCharsets.UTF_8), "b.to");
+
+        PropertyDefinition property = (PropertyDefinition) a.getTopLevelTypeDefinitions().get(0).getMembers().get(0);
+        FunctionDefinitionNode function = b.getTopLevelFunctionDefinitions().get(0);
+        assertSame(a.getNamespaceDefinition().getName(), b.getNamespaceDefinition().getName());
+        assertSame(property.getName(), function.getName());
+        assertSame(function.getName(), function.getParameters().get(0).getName());
+        assertSame(((ReferenceTypeUsageNode) property.getType()).getName(), ((ReferenceTypeUsageNode) function.getReturnType()).getName());
+    }
+
 }
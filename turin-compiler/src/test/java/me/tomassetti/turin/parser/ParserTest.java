@@ -0,0 +1,78 @@
+package me.tomassetti.turin.parser;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Interners;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParserTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private void write(File dir, String path, String namespace) throws IOException {
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+        Files.write("namespace " + namespace + "\n\nint answer() = 42\n", file, Charsets.UTF_8);
+    }
+
+    private List<String> namespaces(List<TurinFileWithSource> files) {
+        return files.stream().map((f) -> f.getTurinFile().getNamespaceDefinition().getName()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void parseAllInParallelParsesTheSourceFilesInPathOrder() throws IOException {
+        File dir = temporaryFolder.newFolder("src");
+        write(dir, "z.to", "z");
+        write(dir, "a/c/d.to", "a.c.d");
+        write(dir, "a/b.to", "a.b");
+        write(dir, "b/e.to", "b.e");
+        Files.write("not turin code", new File(dir, "b/notes.txt"), Charsets.UTF_8);
+
+        List<TurinFileWithSource> parsed = new Parser().parseAllIn(dir, 4);
+        assertEquals(Arrays.asList("a.b", "a.c.d", "b.e", "z"), namespaces(parsed));
+        assertEquals(new File(dir, "a/b.to"), parsed.get(0).getSource());
+        assertEquals(namespaces(parsed), namespaces(new Parser().parseAllIn(dir, 1)));
+    }
+
+    @Test
+    public void parseAllInParallelAcceptsASingleFile() throws IOException {
+        File dir = temporaryFolder.newFolder("src");
+        write(dir, "single.turin", "single");
+
+        List<TurinFileWithSource> parsed = new Parser().parseAllIn(new File(dir, "single.turin"), 4);
+        assertEquals(Arrays.asList("single"), namespaces(parsed));
+    }
+
+    @Test
+    public void aParserBackedByAPoolReturnsTheParsersToIt() throws IOException {
+        File dir = temporaryFolder.newFolder("src");
+        write(dir, "a.to", "a");
+        write(dir, "b.to", "b");
+        write(dir, "c/d.to", "c.d");
+        ParserPool parserPool = new ParserPool(InternalParser.PredictionStrategy.TWO_STAGE, 2,
+                ParserPool.DEFAULT_MAX_CACHED_STATES);
+
+        Parser parser = new Parser(parserPool, false, Interners.newWeakInterner());
+        List<TurinFileWithSource> parsed = parser.parseAllIn(dir, 4);
+        assertEquals(Arrays.asList("a", "b", "c.d"), namespaces(parsed));
+        assertTrue(parserPool.getIdleParsersCount() > 0);
+        assertTrue(parserPool.getIdleParsersCount() <= 2);
+
+        File withSyntaxError = new File(dir, "wrong.to");
+        Files.write("namespace wrong\n\nint answer() = \n", withSyntaxError, Charsets.UTF_8);
+        assertEquals(1, parser.parseRecovering(withSyntaxError).getSyntaxErrors().size());
+    }
+
+}
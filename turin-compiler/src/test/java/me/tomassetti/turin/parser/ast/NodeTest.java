@@ -0,0 +1,55 @@
+package me.tomassetti.turin.parser.ast;
+
+import com.google.common.base.Charsets;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NodeTest {
+
+    private TurinFile parse(String namespace) {
+        String code = "namespace " + namespace + "\n\ntype Person {\n    String name\n}\n";
+        return new Parser().parse(code.getBytes(Charsets.UTF_8), namespace + ".to");
+    }
+
+    private Node propertyType(TurinTypeDefinition typeDefinition) {
+        return ((PropertyDefinition) typeDefinition.getMembers().get(0)).getType();
+    }
+
+    @Test
+    public void theRootIsFollowedWhenASubtreeIsMoved() {
+        TurinFile first = parse("first");
+        TurinFile second = parse("second");
+        TurinTypeDefinition moved = first.getTopLevelTypeDefinitions().get(0);
+        Node nested = propertyType(moved);
+        assertSame(first, nested.getRoot());
+        assertEquals("first", nested.contextName());
+
+        first.replace(moved, second.getTopLevelTypeDefinitions().get(0));
+        assertSame(moved, nested.getRoot());
+        assertEquals("", nested.contextName());
+
+        TurinFile third = parse("third");
+        third.add(moved);
+        assertSame(third, nested.getRoot());
+        assertEquals("third", nested.contextName());
+    }
+
+    @Test
+    public void theRootIsFollowedWhenASubtreeIsAttached() {
+        TurinTypeDefinition detached = parse("first").getTopLevelTypeDefinitions().get(0);
+        detached.setParent(null);
+        Node nested = propertyType(detached);
+        assertSame(detached, nested.getRoot());
+
+        TurinFile turinFile = parse("second");
+        turinFile.add(detached);
+        assertSame(turinFile, nested.getRoot());
+        assertEquals("second", nested.contextName());
+        assertTrue(turinFile.isRoot());
+        assertSame(turinFile, turinFile.getRoot());
+    }
+
+}
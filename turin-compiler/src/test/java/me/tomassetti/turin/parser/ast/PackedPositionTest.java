@@ -0,0 +1,56 @@
+package me.tomassetti.turin.parser.ast;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PackedPositionTest {
+
+    private Node node() {
+        return new NamespaceDefinition("a.b");
+    }
+
+    @Test
+    public void positionsAreUnpackedUnchanged() {
+        Position position = Position.create(4194303, 8191, 4194303 + 32767, 8191);
+        assertEquals(position, PackedPosition.unpack(PackedPosition.pack(4194303, 8191, 4194303 + 32767, 8191)));
+        assertEquals(Position.create(1, 0, 1, 0), PackedPosition.unpack(PackedPosition.pack(1, 0, 1, 0)));
+        assertEquals(Position.create(12, 4, 15, 1), PackedPosition.unpack(PackedPosition.pack(12, 4, 15, 1)));
+    }
+
+    @Test
+    public void packedPositionsAreNeverNone() {
+        assertNotEquals(PackedPosition.NONE, PackedPosition.pack(4194303, 8191, 4194303 + 32767, 8191));
+        assertTrue(PackedPosition.pack(4194303, 8191, 4194303 + 32767, 8191) >= 0);
+    }
+
+    @Test
+    public void positionsWhichDoNotFitAreKept() {
+        Node node = node();
+        node.setPosition(Position.create(1, 10000, 2, 3));
+        assertEquals(Position.create(1, 10000, 2, 3), node.getPosition());
+        node.setPosition(Position.create(1, 0, 40000, 3));
+        assertEquals(Position.create(1, 0, 40000, 3), node.getPosition());
+        node.setPosition(Position.create(1, 2, 3, 4));
+        assertEquals(Position.create(1, 2, 3, 4), node.getPosition());
+    }
+
+    @Test
+    public void thePositionCanBeRemoved() {
+        Node node = node();
+        assertFalse(node.hasPosition());
+        node.setPosition(Position.create(1, 2, 3, 4));
+        assertTrue(node.hasPosition());
+        node.setPosition(null);
+        assertFalse(node.hasPosition());
+    }
+
+    @Test
+    public void shiftingLinesKeepsTheColumns() {
+        Node node = node();
+        node.setPosition(Position.create(1, 2, 3, 4));
+        node.shiftLines(5);
+        assertEquals(Position.create(6, 2, 8, 4), node.getPosition());
+    }
+
+}
@@ -5,7 +5,7 @@ import me.tomassetti.turin.parser.Parser;
 import me.tomassetti.turin.parser.analysis.exceptions.UnsolvedConstructorException;
 import me.tomassetti.turin.resolvers.InFileSymbolResolver;
 import me.tomassetti.jvm.JvmConstructorDefinition;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.expressions.ActualParam;
@@ -42,7 +42,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(Collections.emptyList());
         assertEquals("me/tomassetti/MyType", constructor.getOwnerInternalName());
@@ -59,7 +59,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         ActualParam p0 = new ActualParam(new BooleanLiteral(false));
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(ImmutableList.of(p0));
@@ -76,7 +76,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         ActualParam p0 = new ActualParam(new FloatLiteral(0.0f));
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(ImmutableList.of(p0));
@@ -96,7 +96,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         ActualParam p0 = new ActualParam(new BooleanLiteral(false));
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(ImmutableList.of(p0));
@@ -113,7 +113,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         ActualParam p0 = new ActualParam("coefficient", new BooleanLiteral(false));
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(ImmutableList.of(p0));
@@ -133,7 +133,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         ActualParam p0 = new ActualParam("coefficient", new FloatLiteral(0.0f));
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(ImmutableList.of(p0));
@@ -151,7 +151,7 @@ public class TurinTypeDefinitionTest {
         turinFile.add(typeDefinition);
 
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
 
         ActualParam p0 = new ActualParam("zzz", new FloatLiteral(0.0f));
         JvmConstructorDefinition constructor = typeDefinition.resolveConstructorCall(ImmutableList.of(p0));
@@ -161,7 +161,7 @@ public class TurinTypeDefinitionTest {
     public void defineMethodToString() throws IOException {
         TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/common_methods.to"));
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         assertEquals(true, turinFile.getTopTypeDefinition("A").get().defineMethodToString(resolver));
         assertEquals(false, turinFile.getTopTypeDefinition("B").get().defineMethodToString(resolver));
         assertEquals(false, turinFile.getTopTypeDefinition("C").get().defineMethodToString(resolver));
@@ -173,7 +173,7 @@ public class TurinTypeDefinitionTest {
     public void defineMethodHashCode() throws IOException {
         TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/common_methods.to"));
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         assertEquals(false, turinFile.getTopTypeDefinition("A").get().defineMethodHashCode(resolver));
         assertEquals(false, turinFile.getTopTypeDefinition("B").get().defineMethodHashCode(resolver));
         assertEquals(true, turinFile.getTopTypeDefinition("C").get().defineMethodHashCode(resolver));
@@ -185,7 +185,7 @@ public class TurinTypeDefinitionTest {
     public void defineMethodEquals() throws IOException {
         TurinFile turinFile = new Parser().parse(this.getClass().getResourceAsStream("/common_methods.to"));
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         assertEquals(false, turinFile.getTopTypeDefinition("A").get().defineMethodEquals(resolver));
         assertEquals(false, turinFile.getTopTypeDefinition("B").get().defineMethodEquals(resolver));
         assertEquals(false, turinFile.getTopTypeDefinition("C").get().defineMethodEquals(resolver));
@@ -1,6 +1,6 @@
 package me.tomassetti.turin.parser.ast;
 
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.parser.Parser;
 import me.tomassetti.turin.resolvers.InFileSymbolResolver;
 import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
@@ -34,7 +34,7 @@ public class ValueReferenceTest {
         List<ValueReference> valueReferences = turinFile.findAll(ValueReference.class);
         assertEquals(1, valueReferences.size());
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         TypeUsage type = valueReferences.get(0).calcType();
         assertTrue(type.sameType(UnsignedPrimitiveTypeUsage.UINT));
     }
@@ -50,7 +50,7 @@ public class ValueReferenceTest {
         List<ValueReference> valueReferences = turinFile.findAll(ValueReference.class);
         assertEquals(1, valueReferences.size());
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         TypeUsage type = valueReferences.get(0).calcType();
         assertTrue(new ArrayTypeUsage(ReferenceTypeUsage.STRING(resolver)).sameType(type));
     }
@@ -66,7 +66,7 @@ public class ValueReferenceTest {
         List<ValueReference> valueReferences = turinFile.findAll(ValueReference.class);
         assertEquals(1, valueReferences.size());
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         TypeUsage type = valueReferences.get(0).calcType();
         assertTrue(type.isPrimitive());
         assertTrue(type.asPrimitiveTypeUsage().isInt());
@@ -0,0 +1,59 @@
+package me.tomassetti.turin.parser.ast.imports;
+
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.QualifiedName;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ImportIndexTest {
+
+    private static final String CODE = "namespace imports\n\n"
+            + "import java.util.LinkedList as LL\n"
+            + "import java.util.*\n"
+            + "import java.lang.System.out as o\n"
+            + "import java.util.ArrayList\n"
+            + "import java.lang.System.*\n\n"
+            + "Object foo() = o\n";
+
+    private List<String> importsFor(TurinFile turinFile, String name) {
+        return turinFile.getImportsFor(name).stream()
+                .map((i) -> i.getClass().getSimpleName() + ":" + i.getImportedName().orElse("*"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void theImportsExposingANameAreFoundInDeclarationOrder() throws IOException {
+        TurinFile turinFile = new Parser().parse(new ByteArrayInputStream(CODE.getBytes()));
+        assertEquals(5, turinFile.getImports().size());
+
+        assertEquals("[TypeImportDeclaration:LL, AllPackageImportDeclaration:*, AllFieldsImportDeclaration:*]",
+                importsFor(turinFile, "LL").toString());
+        assertEquals("[AllPackageImportDeclaration:*, SingleFieldImportDeclaration:o, AllFieldsImportDeclaration:*]",
+                importsFor(turinFile, "o").toString());
+        assertEquals("[AllPackageImportDeclaration:*, TypeImportDeclaration:ArrayList, AllFieldsImportDeclaration:*]",
+                importsFor(turinFile, "ArrayList").toString());
+        assertEquals("[AllPackageImportDeclaration:*, AllFieldsImportDeclaration:*]",
+                importsFor(turinFile, "LinkedList").toString());
+    }
+
+    @Test
+    public void theIndexIsRebuiltWhenAnImportIsAdded() throws IOException {
+        TurinFile turinFile = new Parser().parse(new ByteArrayInputStream("namespace imports\n\nint answer() = 42\n".getBytes()));
+        assertTrue(turinFile.getImportsFor("LL").isEmpty());
+
+        TypeImportDeclaration importDeclaration = new TypeImportDeclaration(
+                QualifiedName.create("java.util"), "LinkedList", "LL");
+        turinFile.add(importDeclaration);
+        assertEquals(1, turinFile.getImportsFor("LL").size());
+        assertTrue(turinFile.getImportsFor("LinkedList").isEmpty());
+    }
+
+}
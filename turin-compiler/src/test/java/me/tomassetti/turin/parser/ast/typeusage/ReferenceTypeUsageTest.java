@@ -3,7 +3,7 @@ package me.tomassetti.turin.parser.ast.typeusage;
 import me.tomassetti.turin.definitions.TypeDefinition;
 import me.tomassetti.turin.resolvers.ComposedSymbolResolver;
 import me.tomassetti.turin.resolvers.InFileSymbolResolver;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.*;
@@ -54,7 +54,7 @@ public class ReferenceTypeUsageTest {
     @Test
     public void javaType() {
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         assertEquals("Ljava/lang/String;", nameRef.getType(resolver).jvmType().getSignature());
         assertEquals("I", ageProperty.getType().jvmType().getSignature());
     }
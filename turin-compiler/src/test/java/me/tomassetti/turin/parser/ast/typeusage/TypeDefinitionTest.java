@@ -2,7 +2,7 @@ package me.tomassetti.turin.parser.ast.typeusage;
 
 import me.tomassetti.turin.compiler.ExamplesAst;
 import me.tomassetti.turin.resolvers.InFileSymbolResolver;
-import me.tomassetti.turin.resolvers.ResolverRegistry;
+import me.tomassetti.turin.resolvers.CompilationSession;
 import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
 import me.tomassetti.turin.resolvers.SymbolResolver;
 import me.tomassetti.turin.parser.ast.*;
@@ -57,7 +57,7 @@ public class TypeDefinitionTest {
     @Test
     public void getDirectProperties() {
         SymbolResolver resolver = new InFileSymbolResolver(JdkTypeResolver.getInstance());
-        ResolverRegistry.INSTANCE.record(turinFile, resolver);
+        new CompilationSession().record(turinFile, resolver);
         assertEquals(2, mangaCharacter.getDirectProperties(resolver).size());
 
         assertEquals("name", mangaCharacter.getDirectProperties(resolver).get(0).getName());
@@ -0,0 +1,101 @@
+package me.tomassetti.turin.parser.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class AstCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private void assertSameTree(Node expected, Node actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        // some nodes print the identity of the nodes they refer to
+        assertEquals(expected.toString().replaceAll("@[0-9a-f]+", ""), actual.toString().replaceAll("@[0-9a-f]+", ""));
+        assertEquals(expected.hasPosition(), actual.hasPosition());
+        if (expected.hasPosition()) {
+            assertEquals(expected.getPosition(), actual.getPosition());
+        }
+        Iterator<Node> actualChildren = actual.getChildren().iterator();
+        for (Node expectedChild : expected.getChildren()) {
+            Node actualChild = actualChildren.next();
+            assertEquals(expectedChild.getParent() == expected, actualChild.getParent() == actual);
+            assertSameTree(expectedChild, actualChild);
+        }
+        assertFalse(actualChildren.hasNext());
+    }
+
+    private TurinFile roundTrip(TurinFile turinFile) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new AstWriter(out).write(turinFile);
+        return new AstReader(new ByteArrayInputStream(out.toByteArray())).read().get();
+    }
+
+    @Test
+    public void theTestFilesAreReadBackUnchanged() throws IOException, URISyntaxException {
+        Path resources = Paths.get(AstCacheTest.class.getResource("/").toURI());
+        List<Path> sources = java.nio.file.Files.walk(resources)
+                .filter((p) -> p.toString().endsWith(".to"))
+                .collect(Collectors.toList());
+        assertFalse(sources.isEmpty());
+        Parser parser = new Parser();
+        for (Path source : sources) {
+            TurinFile turinFile = parser.parse(source.toFile());
+            assertSameTree(turinFile, roundTrip(turinFile));
+        }
+    }
+
+    @Test
+    public void onlyChangedFilesAreParsed() throws IOException {
+        File source = temporaryFolder.newFile("cached.to");
+        Files.write("namespace cached\n\nint twice(int x) = x * 2\n", source, Charsets.UTF_8);
+        AstCache astCache = new AstCache(temporaryFolder.newFolder("asts"));
+        Parser parser = new Parser();
+
+        TurinFile parsed = astCache.parse(source, parser);
+        TurinFile loaded = astCache.parse(source, parser);
+        assertEquals(1, astCache.getMissesCount());
+        assertEquals(1, astCache.getHitsCount());
+        assertNotSame(parsed, loaded);
+        assertSameTree(parsed, loaded);
+
+        Files.write("namespace cached\n\nint thrice(int x) = x * 3\n", source, Charsets.UTF_8);
+        TurinFile changed = astCache.parse(source, parser);
+        assertEquals(2, astCache.getMissesCount());
+        assertEquals("thrice", changed.getTopLevelFunctionDefinitions().get(0).getName());
+    }
+
+    @Test
+    public void theSyntaxErrorsAreCached() throws IOException {
+        File source = temporaryFolder.newFile("broken.to");
+        Files.write("namespace cached\n\nint twice(int x) = x * )\n\nint thrice(int x) = x * 3\n", source, Charsets.UTF_8);
+        AstCache astCache = new AstCache(temporaryFolder.newFolder("asts"));
+        Parser parser = new Parser();
+
+        TurinFile parsed = astCache.parse(source, parser);
+        TurinFile loaded = astCache.parse(source, parser);
+        assertEquals(1, astCache.getHitsCount());
+        assertEquals(1, loaded.getSyntaxErrors().size());
+        assertSameTree(parsed, loaded);
+    }
+
+}
@@ -0,0 +1,85 @@
+package me.tomassetti.turin.resolvers;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.expressions.literals.StringLiteral;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompilationSessionTest {
+
+    private static final String CODE = "namespace registry\n" +
+            "\n" +
+            "type Person {\n" +
+            "    String name\n" +
+            "}\n";
+
+    private SymbolResolver resolver() {
+        return new InFileSymbolResolver(new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance())));
+    }
+
+    private TurinFile parse(String fileName) {
+        return new Parser().parse(CODE.getBytes(Charsets.UTF_8), fileName);
+    }
+
+    private Node nestedNode(TurinFile turinFile) {
+        return turinFile.getTopLevelTypeDefinitions().get(0).getMembers().get(0);
+    }
+
+    @Test
+    public void eachFileIsAssociatedToTheResolverOfItsSession() {
+        TurinFile first = parse("first.to");
+        TurinFile second = parse("second.to");
+        SymbolResolver firstResolver = resolver();
+        SymbolResolver secondResolver = resolver();
+        CompilationSession firstSession = new CompilationSession();
+        CompilationSession secondSession = new CompilationSession();
+        firstSession.record(first, firstResolver);
+        secondSession.record(second, secondResolver);
+
+        assertSame(firstResolver, CompilationSession.resolverOf(nestedNode(first)));
+        assertSame(secondResolver, CompilationSession.resolverOf(nestedNode(second)));
+        assertSame(firstSession, first.getSession());
+        assertFalse(firstSession.findResolver(nestedNode(second)).isPresent());
+
+        firstSession.forget(first);
+        assertFalse(firstSession.findResolver(nestedNode(first)).isPresent());
+        assertTrue(secondSession.findResolver(nestedNode(second)).isPresent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void aFileCannotBeRecordedInTwoSessions() {
+        TurinFile turinFile = parse("shared.to");
+        new CompilationSession().record(turinFile, resolver());
+        new CompilationSession().record(turinFile, resolver());
+    }
+
+    @Test
+    public void closingASessionForgetsAllItsFiles() {
+        TurinFile first = parse("first.to");
+        TurinFile second = parse("second.to");
+        CompilationSession session = new CompilationSession();
+        session.record(first, resolver());
+        session.record(second, resolver());
+        assertEquals(2, session.getFilesCount());
+
+        session.close();
+        assertEquals(0, session.getFilesCount());
+        assertNull(first.getSession());
+        assertNull(second.getResolver());
+
+        // once released the files can be recorded in another session
+        new CompilationSession().record(first, resolver());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void detachedNodesHaveNoResolver() {
+        CompilationSession.resolverOf(new StringLiteral("detached"));
+    }
+
+}
@@ -0,0 +1,73 @@
+package me.tomassetti.turin.resolvers;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.Node;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import me.tomassetti.turin.parser.ast.properties.PropertyDefinition;
+import me.tomassetti.turin.resolvers.jdk.JdkTypeResolver;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class InFileSymbolResolverTest {
+
+    private static final String CODE = "namespace caching\n" +
+            "\n" +
+            "type Person {\n" +
+            "    String name\n" +
+            "    String surname\n" +
+            "}\n";
+
+    private InFileSymbolResolver resolver() {
+        return new InFileSymbolResolver(new ComposedTypeResolver(ImmutableList.of(JdkTypeResolver.getInstance())));
+    }
+
+    private Node propertyType(TurinFile turinFile, int index) {
+        return ((PropertyDefinition) turinFile.getTopLevelTypeDefinitions().get(0).getMembers().get(index)).getType();
+    }
+
+    @Test
+    public void repeatedLookupsInTheSameFileAreCached() {
+        TurinFile turinFile = new Parser().parse(CODE.getBytes(Charsets.UTF_8), "caching.to");
+        InFileSymbolResolver resolver = resolver();
+
+        Optional<TypeDefinition> first = resolver.findTypeDefinitionIn("String", propertyType(turinFile, 0), resolver);
+        assertEquals("java.lang.String", first.get().getQualifiedName());
+        long misses = resolver.getCacheMissesCount();
+        long hits = resolver.getCacheHitsCount();
+
+        Optional<TypeDefinition> second = resolver.findTypeDefinitionIn("String", propertyType(turinFile, 1), resolver);
+        assertSame(first.get(), second.get());
+        assertEquals(misses, resolver.getCacheMissesCount());
+        assertTrue(resolver.getCacheHitsCount() > hits);
+    }
+
+    @Test
+    public void namesNotFoundAreCached() {
+        TurinFile turinFile = new Parser().parse(CODE.getBytes(Charsets.UTF_8), "caching.to");
+        InFileSymbolResolver resolver = resolver();
+
+        assertFalse(resolver.findTypeDefinitionIn("Unknown", propertyType(turinFile, 0), resolver).isPresent());
+        long misses = resolver.getCacheMissesCount();
+        assertFalse(resolver.findTypeDefinitionIn("Unknown", propertyType(turinFile, 1), resolver).isPresent());
+        assertEquals(misses, resolver.getCacheMissesCount());
+    }
+
+    @Test
+    public void clearingTheCachesResolvesTheNamesAgain() {
+        TurinFile turinFile = new Parser().parse(CODE.getBytes(Charsets.UTF_8), "caching.to");
+        InFileSymbolResolver resolver = resolver();
+
+        resolver.findTypeDefinitionIn("String", turinFile, resolver);
+        long misses = resolver.getCacheMissesCount();
+        resolver.clearCaches();
+        assertTrue(resolver.findTypeDefinitionIn("String", turinFile, resolver).isPresent());
+        assertTrue(resolver.getCacheMissesCount() > misses);
+    }
+
+}
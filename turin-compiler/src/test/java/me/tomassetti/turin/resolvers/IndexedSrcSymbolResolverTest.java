@@ -0,0 +1,59 @@
+package me.tomassetti.turin.resolvers;
+
+import me.tomassetti.turin.definitions.TypeDefinition;
+import me.tomassetti.turin.parser.Parser;
+import me.tomassetti.turin.parser.ast.TurinFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class IndexedSrcSymbolResolverTest {
+
+    private static final File FOO = new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo.to");
+    private static final File FOO_TEST = new File("src/test/resources/scenarios/referencetypefromothersrcfile/foo_test.to");
+
+    private DeclarationIndex index() throws IOException {
+        DeclarationIndex declarationIndex = new DeclarationIndex();
+        for (File file : new File[]{FOO, FOO_TEST}) {
+            try (InputStream inputStream = new FileInputStream(file)) {
+                TurinFile turinFile = new Parser().parse(inputStream);
+                declarationIndex.add(file, DeclarationIndex.extract(turinFile));
+            }
+        }
+        return declarationIndex;
+    }
+
+    @Test
+    public void theIndexKnowsWhereEachNameIsDeclared() throws IOException {
+        DeclarationIndex declarationIndex = index();
+        assertEquals(Optional.of(FOO), declarationIndex.findFile(DeclarationIndex.Kind.TYPE, "refsrc.Abc"));
+        assertEquals(Optional.of(FOO_TEST), declarationIndex.findFile(DeclarationIndex.Kind.FUNCTION, "refsrc.ref"));
+        assertFalse(declarationIndex.findFile(DeclarationIndex.Kind.FUNCTION, "refsrc.Abc").isPresent());
+        assertTrue(declarationIndex.existPackage("refsrc"));
+        assertFalse(declarationIndex.existPackage("other"));
+    }
+
+    @Test
+    public void filesAreLoadedOnDemandAndReleased() throws IOException {
+        IndexedSrcSymbolResolver resolver = new IndexedSrcSymbolResolver(index(), 1);
+        assertEquals(0, resolver.getLoadedFilesCount());
+
+        resolver.load(FOO_TEST);
+        Optional<TypeDefinition> abc = resolver.findTypeDefinitionIn("refsrc.Abc", null, resolver);
+        assertTrue(abc.isPresent());
+        assertEquals("refsrc.Abc", abc.get().getQualifiedName());
+        assertEquals(2, resolver.getLoadedFilesCount());
+
+        resolver.releaseUnused();
+        assertEquals(1, resolver.getLoadedFilesCount());
+        resolver.releaseAll();
+        assertEquals(0, resolver.getLoadedFilesCount());
+    }
+
+}
@@ -0,0 +1,42 @@
+package me.tomassetti.turin.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelTasksTest {
+
+    @Test
+    public void resultsAreHandledInTheOrderOfTheElements() throws Exception {
+        List<Integer> elements = ImmutableList.of(0, 1, 2, 3);
+        // the last element completes first, the first one waits for all the others
+        List<CountDownLatch> latches = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i++) {
+            latches.add(new CountDownLatch(1));
+        }
+        latches.get(elements.size() - 1).countDown();
+        List<Integer> handled = new ArrayList<>();
+        List<Integer> results = ParallelTasks.executeAll(elements, (i) -> {
+            try {
+                assertTrue(latches.get(i).await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            if (i > 0) {
+                latches.get(i - 1).countDown();
+            }
+            return i * 10;
+        }, elements.size(), handled::add);
+
+        assertEquals(ImmutableList.of(0, 10, 20, 30), results);
+        assertEquals(ImmutableList.of(0, 10, 20, 30), handled);
+    }
+
+}
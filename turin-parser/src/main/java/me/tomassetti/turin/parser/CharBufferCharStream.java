@@ -0,0 +1,106 @@
+package me.tomassetti.turin.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * A CharStream reading directly from a CharBuffer, without copying it.
+ */
+public class CharBufferCharStream implements CharStream {
+
+    private CharBuffer buffer;
+    private String sourceName;
+    private int index = 0;
+
+    public CharBufferCharStream(CharBuffer buffer, String sourceName) {
+        this.buffer = buffer;
+        this.sourceName = sourceName;
+    }
+
+    /**
+     * Read the whole file, decoding it as UTF-8. The file is closed before returning.
+     */
+    public static CharBufferCharStream fromFile(File file) throws IOException {
+        return fromBytes(Files.readAllBytes(file.toPath()), file.getPath());
+    }
+
+    /**
+     * Decode the given bytes as UTF-8.
+     */
+    public static CharBufferCharStream fromBytes(byte[] bytes, String sourceName) {
+        return new CharBufferCharStream(StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes)), sourceName);
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = interval.a;
+        int stop = Math.min(interval.b, buffer.limit() - 1);
+        if (start >= buffer.limit()) {
+            return "";
+        }
+        return buffer.subSequence(start, stop + 1).toString();
+    }
+
+    @Override
+    public void consume() {
+        if (index >= buffer.limit()) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        index++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0;
+        }
+        int position = i < 0 ? index + i : index + i - 1;
+        if (position < 0 || position >= buffer.limit()) {
+            return IntStream.EOF;
+        }
+        return buffer.get(position);
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // the whole input is always available
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        this.index = Math.min(index, buffer.limit());
+    }
+
+    @Override
+    public int size() {
+        return buffer.limit();
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
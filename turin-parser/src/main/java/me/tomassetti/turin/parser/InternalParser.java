@@ -3,27 +3,282 @@ package me.tomassetti.turin.parser;
 import me.tomassetti.parser.antlr.TurinLexer;
 import me.tomassetti.parser.antlr.TurinParser;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+/**
+ * Produce parse trees. The lexer and the parser are reused for all the files parsed by an instance, so an instance
+ * should not be used by many threads at the same time.
+ */
 public class InternalParser {
 
+    /**
+     * How the parser predicts the alternatives.
+     */
+    public enum PredictionStrategy {
+        /**
+         * Parse with the faster SLL prediction, then parse again with full LL prediction only if SLL fails.
+         * It produces the same results of LL.
+         */
+        TWO_STAGE,
+        /**
+         * Use only SLL prediction: it could reject some valid inputs.
+         */
+        SLL,
+        /**
+         * Use only full LL prediction.
+         */
+        LL
+    }
+
+    private static final AtomicLong sllParses = new AtomicLong();
+    private static final AtomicLong llFallbacks = new AtomicLong();
+
+    private static final ANTLRErrorListener THROWING_ERROR_LISTENER = new BaseErrorListener() {
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+            throw new IllegalStateException("failed to parse at  L " + line + ", C " + charPositionInLine + " due to " + msg, e);
+        }
+    };
+
+    private PredictionStrategy predictionStrategy;
+    private TurinLexer lexer;
+    private TurinParser parser;
+
+    public InternalParser() {
+        this(PredictionStrategy.TWO_STAGE);
+    }
+
+    public InternalParser(PredictionStrategy predictionStrategy) {
+        this.predictionStrategy = predictionStrategy;
+    }
+
+    /**
+     * Number of parses attempted with the SLL prediction in the two stage strategy, by all the parsers.
+     */
+    public static long getSllParsesCount() {
+        return sllParses.get();
+    }
+
+    /**
+     * Number of parses for which the SLL prediction failed and the full LL prediction was used, by all the parsers.
+     */
+    public static long getLlFallbacksCount() {
+        return llFallbacks.get();
+    }
+
+    /**
+     * Number of DFA states and prediction contexts cached by ANTLR. They are shared by all the lexers and parsers
+     * and they grow as new inputs are parsed.
+     */
+    public static int getCachedStatesCount() {
+        LexerATNSimulator lexerSimulator = SharedSimulators.LEXER;
+        ParserATNSimulator parserSimulator = SharedSimulators.PARSER;
+        return statesCount(lexerSimulator.decisionToDFA) + lexerSimulator.getSharedContextCache().size()
+                + statesCount(parserSimulator.decisionToDFA) + parserSimulator.getSharedContextCache().size();
+    }
+
+    /**
+     * Discard the DFA states and the prediction contexts cached by ANTLR. Parses in progress are not affected
+     * but the following ones have to build the DFA again.
+     */
+    public static void clearCaches() {
+        LexerATNSimulator lexerSimulator = SharedSimulators.LEXER;
+        ParserATNSimulator parserSimulator = SharedSimulators.PARSER;
+        lexerSimulator.clearDFA();
+        parserSimulator.clearDFA();
+        clear(lexerSimulator.getSharedContextCache());
+        clear(parserSimulator.getSharedContextCache());
+    }
+
+    // the simulators of every lexer and parser refer to the same DFA and prediction contexts: one of each is enough
+    // to reach them, and it is created only when first needed
+    private static class SharedSimulators {
+        static final LexerATNSimulator LEXER = new TurinLexer(null).getInterpreter();
+        static final ParserATNSimulator PARSER = new TurinParser(null).getInterpreter();
+    }
+
+    private static int statesCount(DFA[] decisionToDFA) {
+        int count = 0;
+        for (DFA dfa : decisionToDFA) {
+            count += dfa.states.size();
+        }
+        return count;
+    }
+
+    private static void clear(PredictionContextCache contextCache) {
+        // ANTLR does not offer a way to empty the cache: the map is reached by reflection. The cache is used only
+        // while holding its lock.
+        try {
+            Field field = PredictionContextCache.class.getDeclaredField("cache");
+            field.setAccessible(true);
+            synchronized (contextCache) {
+                ((Map<?, ?>) field.get(contextCache)).clear();
+            }
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public TurinParser.TurinFileContext produceParseTree(InputStream inputStream) throws IOException {
-        CharStream charStream = new ANTLRInputStream(inputStream);
-        TurinLexer l = new TurinLexer(charStream);
-        TurinParser p = new TurinParser(new CommonTokenStream(l));
-        p.addErrorListener(new BaseErrorListener() {
+        return produceParseTree(lex(inputStream));
+    }
+
+    public TurinParser.TurinFileContext produceParseTree(File file) throws IOException {
+        return produceParseTree(lex(file));
+    }
+
+    /**
+     * Read the whole input and split it in tokens. Lexing and parsing can be executed separately to measure them.
+     */
+    public CommonTokenStream lex(InputStream inputStream) throws IOException {
+        return lex(new ANTLRInputStream(inputStream));
+    }
+
+    /**
+     * Read the whole file and split it in tokens. The file is closed before returning.
+     */
+    public CommonTokenStream lex(File file) throws IOException {
+        return lex(CharBufferCharStream.fromFile(file));
+    }
+
+    public CommonTokenStream lex(CharStream charStream) {
+        return lexRegion(charStream, 1, 0);
+    }
+
+    /**
+     * Split in tokens a part of a file. The line and the column of the first character of the part are given, so that
+     * the tokens have the same lines and columns they would have when lexing the whole file.
+     */
+    public CommonTokenStream lexRegion(CharStream charStream, int line, int charPositionInLine) {
+        CommonTokenStream tokens = tokenize(charStream, line, charPositionInLine, ConsoleErrorListener.INSTANCE);
+        if (lexer._mode != 0) {
+            throw new RuntimeException("Lexical error");
+        }
+        return tokens;
+    }
+
+    /**
+     * Split in tokens reporting the lexical errors to the listener instead of failing. The characters which cannot
+     * be recognized are skipped.
+     */
+    public CommonTokenStream lex(CharStream charStream, SyntaxErrorListener listener) {
+        CommonTokenStream tokens = tokenize(charStream, 1, 0, reportingTo(listener));
+        if (lexer._mode != 0) {
+            Token eof = tokens.get(tokens.size() - 1);
+            listener.syntaxError(eof.getLine(), eof.getCharPositionInLine(), 0, "Unterminated string");
+        }
+        return tokens;
+    }
+
+    private CommonTokenStream tokenize(CharStream charStream, int line, int charPositionInLine, ANTLRErrorListener errorListener) {
+        if (lexer == null) {
+            lexer = new TurinLexer(charStream);
+        } else {
+            lexer.setInputStream(charStream);
+        }
+        lexer.setLine(line);
+        lexer.setCharPositionInLine(charPositionInLine);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(errorListener);
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        tokens.fill();
+        return tokens;
+    }
+
+    public TurinParser.TurinFileContext produceParseTree(CommonTokenStream tokens) {
+        return produceParseTree(tokens, TurinParser::turinFile, ConsoleErrorListener.INSTANCE, THROWING_ERROR_LISTENER);
+    }
+
+    /**
+     * Parse a whole file without stopping at the first syntax error: all the errors are reported to the listener
+     * and the parser recovers from them, producing a parse tree which contains error nodes.
+     */
+    public TurinParser.TurinFileContext produceRecoveringParseTree(CommonTokenStream tokens, SyntaxErrorListener listener) {
+        return produceParseTree(tokens, TurinParser::turinFile, reportingTo(listener));
+    }
+
+    /**
+     * Parse a single member of a file, like a type or a function. Fail if the tokens contain anything else.
+     */
+    public TurinParser.FileMemberContext produceFileMemberParseTree(CommonTokenStream tokens) {
+        TurinParser.FileMemberContext fileMemberContext = produceParseTree(tokens, TurinParser::fileMember,
+                ConsoleErrorListener.INSTANCE, THROWING_ERROR_LISTENER);
+        if (tokens.LA(1) != Token.EOF) {
+            throw new IllegalStateException("The tokens do not contain exactly one file member");
+        }
+        return fileMemberContext;
+    }
+
+    private <C extends ParserRuleContext> C produceParseTree(CommonTokenStream tokens, Function<TurinParser, C> rule,
+                                                             ANTLRErrorListener... errorListeners) {
+        if (parser == null) {
+            parser = new TurinParser(tokens);
+        }
+        switch (predictionStrategy) {
+            case SLL:
+                return parse(tokens, PredictionMode.SLL, rule, errorListeners);
+            case LL:
+                return parse(tokens, PredictionMode.LL, rule, errorListeners);
+            default:
+                return parseInTwoStages(tokens, rule, errorListeners);
+        }
+    }
+
+    private <C extends ParserRuleContext> C parseInTwoStages(CommonTokenStream tokens, Function<TurinParser, C> rule,
+                                                             ANTLRErrorListener... errorListeners) {
+        sllParses.incrementAndGet();
+        tokens.seek(0);
+        parser.setTokenStream(tokens);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        // errors are not reported: at the first one we just give up and try again with LL
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            llFallbacks.incrementAndGet();
+            return parse(tokens, PredictionMode.LL, rule, errorListeners);
+        }
+    }
+
+    private <C extends ParserRuleContext> C parse(CommonTokenStream tokens, PredictionMode predictionMode, Function<TurinParser, C> rule,
+                                                  ANTLRErrorListener... errorListeners) {
+        // setTokenStream does not rewind the new stream
+        tokens.seek(0);
+        parser.setTokenStream(tokens);
+        parser.getInterpreter().setPredictionMode(predictionMode);
+        parser.removeErrorListeners();
+        for (ANTLRErrorListener errorListener : errorListeners) {
+            parser.addErrorListener(errorListener);
+        }
+        parser.setErrorHandler(new DefaultErrorStrategy());
+        return rule.apply(parser);
+    }
+
+    private static ANTLRErrorListener reportingTo(SyntaxErrorListener listener) {
+        return new BaseErrorListener() {
             @Override
             public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
-                throw new IllegalStateException("failed to parse at  L " + line + ", C " + charPositionInLine + " due to " + msg, e);
+                int length = 0;
+                if (offendingSymbol instanceof Token && ((Token) offendingSymbol).getType() != Token.EOF) {
+                    length = ((Token) offendingSymbol).getText().length();
+                }
+                listener.syntaxError(line, charPositionInLine, length, msg);
             }
-        });
-        TurinParser.TurinFileContext turinFileContext = p.turinFile();
-        if (l._mode != 0) {
-            throw new RuntimeException("Lexical error");
-        }
-        return turinFileContext;
+        };
     }
 
 }
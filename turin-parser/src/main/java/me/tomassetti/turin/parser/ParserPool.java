@@ -0,0 +1,104 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parsers shared by many threads, for long running processes parsing many files over time.
+ *
+ * The parsers are reused between files. The DFA built by ANTLR while parsing is shared by all the parsers: it can be
+ * built in advance using warmUp and it is cleared when it grows over the given number of states. The size is
+ * checked once every given number of parses, and the DFA is cleared even while other parses are in progress.
+ */
+public class ParserPool {
+
+    public static final int DEFAULT_MAX_CACHED_STATES = 100000;
+
+    private static final String WARM_UP_CORPUS = "/me/tomassetti/turin/parser/warmup.to";
+    private static final int DEFAULT_PARSES_BETWEEN_CHECKS = 100;
+
+    @FunctionalInterface
+    public interface ParseTask<T> {
+        T parse(InternalParser internalParser) throws IOException;
+    }
+
+    private InternalParser.PredictionStrategy predictionStrategy;
+    private int maxIdleParsers;
+    private int maxCachedStates;
+    private Deque<InternalParser> idleParsers = new LinkedList<>();
+    private int parsesBetweenChecks;
+    private AtomicInteger parsesSinceCheck = new AtomicInteger();
+
+    public ParserPool(InternalParser.PredictionStrategy predictionStrategy, int maxIdleParsers, int maxCachedStates) {
+        this(predictionStrategy, maxIdleParsers, maxCachedStates, DEFAULT_PARSES_BETWEEN_CHECKS);
+    }
+
+    public ParserPool(InternalParser.PredictionStrategy predictionStrategy, int maxIdleParsers, int maxCachedStates,
+                      int parsesBetweenChecks) {
+        if (parsesBetweenChecks < 1) {
+            throw new IllegalArgumentException("parsesBetweenChecks should be positive");
+        }
+        this.predictionStrategy = predictionStrategy;
+        this.maxIdleParsers = maxIdleParsers;
+        this.maxCachedStates = maxCachedStates;
+        this.parsesBetweenChecks = parsesBetweenChecks;
+    }
+
+    public TurinParser.TurinFileContext parse(InputStream inputStream) throws IOException {
+        return parse((internalParser) -> internalParser.produceParseTree(inputStream));
+    }
+
+    /**
+     * Execute the task with one of the parsers of the pool, which the task must not use after completing. In this
+     * way the callers can lex and parse as they need while the size of the DFA is still checked.
+     */
+    public <T> T parse(ParseTask<T> task) throws IOException {
+        InternalParser internalParser = acquire();
+        try {
+            return task.parse(internalParser);
+        } finally {
+            release(internalParser);
+            checkCachedStates();
+        }
+    }
+
+    /**
+     * Parse the bundled corpus, so that the following parses find most of the DFA already built.
+     */
+    public void warmUp() throws IOException {
+        try (InputStream inputStream = ParserPool.class.getResourceAsStream(WARM_UP_CORPUS)) {
+            parse(inputStream);
+        }
+    }
+
+    public synchronized int getIdleParsersCount() {
+        return idleParsers.size();
+    }
+
+    private synchronized InternalParser acquire() {
+        return idleParsers.isEmpty() ? new InternalParser(predictionStrategy) : idleParsers.pop();
+    }
+
+    private synchronized void release(InternalParser internalParser) {
+        if (idleParsers.size() < maxIdleParsers) {
+            idleParsers.push(internalParser);
+        }
+    }
+
+    private void checkCachedStates() {
+        if (parsesSinceCheck.incrementAndGet() < parsesBetweenChecks) {
+            return;
+        }
+        parsesSinceCheck.set(0);
+        // counting walks all the DFA, so it is done outside the lock and not after every parse
+        if (InternalParser.getCachedStatesCount() > maxCachedStates) {
+            InternalParser.clearCaches();
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package me.tomassetti.turin.parser;
+
+/**
+ * Receives the syntax errors found by a recovering parse.
+ */
+@FunctionalInterface
+public interface SyntaxErrorListener {
+
+    /**
+     * The length is the number of characters of the offending token, or zero when the error is not about a token.
+     */
+    void syntaxError(int line, int charPositionInLine, int length, String message);
+
+}
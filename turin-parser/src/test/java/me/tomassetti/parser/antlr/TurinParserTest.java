@@ -3,6 +3,7 @@ package me.tomassetti.parser.antlr;
 import me.tomassetti.turin.parser.InternalParser;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -13,7 +14,11 @@ import static org.junit.Assert.assertTrue;
 public class TurinParserTest {
 
     private TurinParser.TurinFileContext parse(String exampleName) throws IOException {
-        InternalParser internalParser = new InternalParser();
+        return parse(exampleName, InternalParser.PredictionStrategy.TWO_STAGE);
+    }
+
+    private TurinParser.TurinFileContext parse(String exampleName, InternalParser.PredictionStrategy predictionStrategy) throws IOException {
+        InternalParser internalParser = new InternalParser(predictionStrategy);
         InputStream inputStream = this.getClass().getResourceAsStream("/me/tomassetti/turin/" + exampleName + ".to");
         if (inputStream == null) {
             throw new RuntimeException("Example not found: " + exampleName);
@@ -160,4 +165,20 @@ public class TurinParserTest {
         TurinParser.TurinFileContext root = parse("context_usage");
     }
 
+    @Test
+    public void allPredictionStrategiesProduceTheSameTree() throws IOException {
+        for (String exampleName : new String[]{"imports_example", "explicit_constructor", "local_var", "context_usage"}) {
+            TurinParser.TurinFileContext expected = parse(exampleName, InternalParser.PredictionStrategy.LL);
+            for (InternalParser.PredictionStrategy predictionStrategy : InternalParser.PredictionStrategy.values()) {
+                TurinParser.TurinFileContext root = parse(exampleName, predictionStrategy);
+                assertEquals(expected.toStringTree(), root.toStringTree());
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void syntaxErrorsAreReportedWhenParsingInTwoStages() throws IOException {
+        new InternalParser().produceParseTree(new ByteArrayInputStream("namespace foo\n\ntype {".getBytes()));
+    }
+
 }
@@ -0,0 +1,46 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinParser;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class CharBufferCharStreamTest {
+
+    @Test
+    public void lookAheadAndText() {
+        CharBufferCharStream charStream = new CharBufferCharStream(CharBuffer.wrap("abc"), "test");
+        assertEquals(3, charStream.size());
+        assertEquals('a', charStream.LA(1));
+        charStream.consume();
+        assertEquals('a', charStream.LA(-1));
+        assertEquals('c', charStream.LA(2));
+        assertEquals(IntStream.EOF, charStream.LA(3));
+        charStream.seek(0);
+        assertEquals(0, charStream.index());
+        assertEquals("bc", charStream.getText(Interval.of(1, 5)));
+        assertEquals("test", charStream.getSourceName());
+    }
+
+    @Test
+    public void parsingFilesProducesTheSameTreeOfParsingStreams() throws IOException {
+        File file = new File("src/test/resources/me/tomassetti/turin/explicit_constructor.to");
+        TurinParser.TurinFileContext fromFile = new InternalParser().produceParseTree(file);
+        TurinParser.TurinFileContext fromStream;
+        try (InputStream inputStream = new FileInputStream(file)) {
+            fromStream = new InternalParser().produceParseTree(inputStream);
+        }
+        assertEquals(fromStream.toStringTree(), fromFile.toStringTree());
+        assertEquals("Integer.toString(a)", fromFile.members.get(0).typeDeclaration().typeMembers.get(1)
+                .constructorDefinition().statement().get(0).expressionStmt().expression().right.getText());
+    }
+
+}
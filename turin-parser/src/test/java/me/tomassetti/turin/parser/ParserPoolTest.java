@@ -0,0 +1,51 @@
+package me.tomassetti.turin.parser;
+
+import me.tomassetti.parser.antlr.TurinParser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParserPoolTest {
+
+    private TurinParser.TurinFileContext parse(ParserPool parserPool, String exampleName) throws IOException {
+        try (InputStream inputStream = this.getClass().getResourceAsStream("/me/tomassetti/turin/" + exampleName + ".to")) {
+            return parserPool.parse(inputStream);
+        }
+    }
+
+    @Test
+    public void parsersAreReused() throws IOException {
+        ParserPool parserPool = new ParserPool(InternalParser.PredictionStrategy.TWO_STAGE, 2, Integer.MAX_VALUE);
+        assertEquals(0, parserPool.getIdleParsersCount());
+        assertEquals(5, parse(parserPool, "imports_example").importDeclaration().size());
+        assertEquals(1, parserPool.getIdleParsersCount());
+        assertEquals(1, parse(parserPool, "explicit_constructor").fileMember().size());
+        assertEquals(1, parserPool.getIdleParsersCount());
+    }
+
+    @Test
+    public void warmUpBuildsTheDfa() throws IOException {
+        InternalParser.clearCaches();
+        assertEquals(0, InternalParser.getCachedStatesCount());
+        new ParserPool(InternalParser.PredictionStrategy.TWO_STAGE, 1, Integer.MAX_VALUE).warmUp();
+        assertTrue(InternalParser.getCachedStatesCount() > 0);
+    }
+
+    @Test
+    public void cachesAreClearedWhenOverBudget() throws IOException {
+        ParserPool parserPool = new ParserPool(InternalParser.PredictionStrategy.TWO_STAGE, 1, 0, 2);
+        parse(parserPool, "method_definitions_block");
+        // checked only every two parses
+        assertTrue(InternalParser.getCachedStatesCount() > 0);
+        parse(parserPool, "method_definitions_block");
+        assertEquals(0, InternalParser.getCachedStatesCount());
+        // the DFA is built again as needed
+        assertEquals("+", parse(parserPool, "method_definitions_block").members.get(0).typeDeclaration()
+                .typeMembers.get(0).methodDefinition().methodBody().statements.get(0).returnStmt().value.mathOperator.getText());
+    }
+
+}